@@ -0,0 +1,68 @@
+package net.crizin.benchmark;
+
+import net.crizin.RomanizedBatch;
+import net.crizin.Romanizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of romanizing all lines of an input at once, into a {@link String} per line
+ * or into a reused {@link RomanizedBatch} growing by doubling or sized exactly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+	@Param({"Names", "Mixed"})
+	public Inputs input;
+
+	private String[] lines;
+	private Romanizer romanizer;
+	private RomanizedBatch batch;
+	private RomanizedBatch exactBatch;
+
+	@Setup
+	public void setUp() {
+		lines = input.lines();
+		romanizer = Romanizer.of(null, null);
+		batch = new RomanizedBatch(romanizer);
+		exactBatch = new RomanizedBatch(romanizer, true);
+	}
+
+	@Benchmark
+	public String[] romanizeToStrings() {
+		String[] romanized = new String[lines.length];
+
+		for (int i = 0; i < lines.length; i++) {
+			romanized[i] = romanizer.romanize(lines[i]);
+		}
+
+		return romanized;
+	}
+
+	@Benchmark
+	public RomanizedBatch romanizeToBatch() {
+		batch.clear();
+		return batch.romanizeAll(lines);
+	}
+
+	@Benchmark
+	public RomanizedBatch romanizeToExactBatch() {
+		exactBatch.clear();
+		return exactBatch.romanizeAll(lines);
+	}
+}
@@ -0,0 +1,30 @@
+package net.crizin.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options,
+ * always reporting allocation rates as {@code -prof gc} does so that allocation regressions are visible.
+ */
+public class BenchmarkRunner {
+	public static void main(String... args) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers()
+				|| commandLineOptions.shouldListResultFormats() || commandLineOptions.shouldListWithParams()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		OptionsBuilder options = new OptionsBuilder();
+
+		if (commandLineOptions.getProfilers().stream().noneMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName()) || profiler.getKlass().equals("gc"))) {
+			options.addProfiler(GCProfiler.class);
+		}
+
+		new Runner(options.parent(commandLineOptions).build()).run();
+	}
+}
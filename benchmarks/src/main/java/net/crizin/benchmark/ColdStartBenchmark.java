@@ -0,0 +1,36 @@
+package net.crizin.benchmark;
+
+import net.crizin.KoreanCharacter;
+import net.crizin.KoreanRomanizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the first romanization in a fresh JVM, including loading and initializing the classes of the library,
+ * as in a command line or a function-as-a-service invocation. Each fork measures a single call.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+	@Param({"Typical", "Name", "District"})
+	public KoreanCharacter.Type type;
+
+	@Benchmark
+	public String firstRomanization() {
+		return KoreanRomanizer.romanize("종로2가 신라면", type);
+	}
+}
@@ -0,0 +1,127 @@
+package net.crizin.benchmark;
+
+import net.crizin.KoreanCharacter;
+import net.crizin.RomanizationDictionary;
+import net.crizin.Romanizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load time and throughput of {@link RomanizationDictionary}, built on the heap or opened from a memory-mapped file,
+ * with words taken from the input so that they are found. The memory per word of the dictionary is printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DictionaryBenchmark {
+	@Param({"1000", "100000"})
+	public int words;
+
+	@Param({"Prose", "Mixed"})
+	public Inputs input;
+
+	private Map<String, String> romanizations;
+	private Romanizer plain;
+	private Romanizer romanizer;
+	private Romanizer mappedRomanizer;
+	private Path file;
+	private String[] lines;
+	private int index;
+
+	@Setup
+	public void setUp() throws IOException {
+		lines = input.lines();
+		romanizations = new LinkedHashMap<>();
+		Random random = new Random(0);
+		String[] corpus = Inputs.Prose.lines();
+
+		// Hangul substrings of the corpus, and random syllables once the corpus runs out of them.
+		for (int attempt = 0; romanizations.size() < words; attempt++) {
+			String word;
+
+			if (attempt < words * 4) {
+				String line = corpus[random.nextInt(corpus.length)];
+				int start = random.nextInt(line.length());
+				word = line.substring(start, Math.min(line.length(), start + 2 + random.nextInt(3)));
+			} else {
+				StringBuilder syllables = new StringBuilder();
+
+				for (int i = 2 + random.nextInt(3); i > 0; i--) {
+					syllables.append((char) (0xAC00 + random.nextInt(11172)));
+				}
+
+				word = syllables.toString();
+			}
+
+			if (word.length() >= 2 && word.chars().allMatch(c -> KoreanCharacter.isKoreanCharacter((char) c))) {
+				romanizations.put(word, "W" + romanizations.size());
+			}
+		}
+
+		RomanizationDictionary dictionary = build();
+		plain = Romanizer.of(null, null);
+		romanizer = Romanizer.builder().dictionary(dictionary).build();
+		file = Files.createTempFile("romanization", ".dic");
+		file.toFile().deleteOnExit();
+		dictionary.save(file);
+		mappedRomanizer = Romanizer.builder().dictionary(open()).build();
+		System.out.println();
+		System.out.println(dictionary);
+		System.out.println(mappedRomanizer.getDictionary());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public RomanizationDictionary build() {
+		return RomanizationDictionary.builder().putAll(romanizations).build();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public RomanizationDictionary open() throws IOException {
+		return RomanizationDictionary.open(file);
+	}
+
+	@Benchmark
+	public String romanize() {
+		return romanizer.romanize(nextLine());
+	}
+
+	@Benchmark
+	public String romanizeMapped() {
+		return mappedRomanizer.romanize(nextLine());
+	}
+
+	@Benchmark
+	public String romanizeWithoutDictionary() {
+		return plain.romanize(nextLine());
+	}
+
+	private String nextLine() {
+		String line = lines[index];
+		index = (index + 1 == lines.length) ? 0 : index + 1;
+		return line;
+	}
+}
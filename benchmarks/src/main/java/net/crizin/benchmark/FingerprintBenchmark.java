@@ -0,0 +1,70 @@
+package net.crizin.benchmark;
+
+import net.crizin.RomanizedFingerprint;
+import net.crizin.Romanizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of hashing the romanization of every line of an input, by building and normalizing a {@link String}
+ * or by streaming the romanized characters into a {@link RomanizedFingerprint}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FingerprintBenchmark {
+	@Param({"Names", "Mixed"})
+	public Inputs input;
+
+	private String[] lines;
+	private Romanizer romanizer;
+	private RomanizedFingerprint fingerprint;
+
+	@Setup
+	public void setUp() {
+		lines = input.lines();
+		romanizer = Romanizer.of(null, null);
+		fingerprint = new RomanizedFingerprint(romanizer, RomanizedFingerprint.Option.values());
+	}
+
+	@Benchmark
+	public long hashStrings() {
+		long hash = 0;
+
+		for (String line : lines) {
+			hash = hash * 31 + romanizer.romanize(line).toLowerCase().replace("-", "").replace(" ", "").hashCode();
+		}
+
+		return hash;
+	}
+
+	@Benchmark
+	public long fingerprint() {
+		long hash = 0;
+
+		for (String line : lines) {
+			hash = hash * 31 + fingerprint.fingerprint(line);
+		}
+
+		return hash;
+	}
+
+	@Benchmark
+	public long[] fingerprintAll() {
+		return fingerprint.fingerprintAll(lines);
+	}
+}
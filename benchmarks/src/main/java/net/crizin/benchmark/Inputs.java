@@ -0,0 +1,69 @@
+package net.crizin.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Realistic inputs for the benchmarks, loaded from the resources next to this class.
+ */
+public enum Inputs {
+	/**
+	 * Lines of a Korean novel, the same corpus as {@code KoreanRomanizerTest.testLongText}.
+	 */
+	Prose("prose.txt"),
+
+	/**
+	 * Korean full names including two-syllable surnames.
+	 */
+	Names("names.txt"),
+
+	/**
+	 * Administrative district and road names.
+	 */
+	Addresses("addresses.txt"),
+
+	/**
+	 * Product titles and messages mixing Hangul, ASCII and punctuations.
+	 */
+	Mixed("mixed.txt"),
+
+	/**
+	 * Product catalogs, logs and orders in ASCII with a few Hangul words.
+	 */
+	Ascii("ascii.txt");
+
+	private final String resourceName;
+
+	Inputs(String resourceName) {
+		this.resourceName = resourceName;
+	}
+
+	/**
+	 * @return the non-empty lines of the input.
+	 */
+	public String[] lines() {
+		List<String> lines = new ArrayList<>();
+
+		try (InputStream inputStream = Objects.requireNonNull(Inputs.class.getResourceAsStream(resourceName), resourceName);
+			 BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				if (!line.isEmpty()) {
+					lines.add(line);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return lines.toArray(new String[0]);
+	}
+}
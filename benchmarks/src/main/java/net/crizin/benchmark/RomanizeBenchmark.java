@@ -0,0 +1,72 @@
+package net.crizin.benchmark;
+
+import net.crizin.KoreanCharacter;
+import net.crizin.KoreanRomanizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link KoreanRomanizer#romanize} for every {@link KoreanCharacter.Type} and {@link KoreanCharacter.ConsonantAssimilation}.
+ * Each operation romanizes one line of the input, cycling through all lines.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RomanizeBenchmark {
+	@Param({"Typical", "Substantives", "Compound", "District", "Name", "NameTypical"})
+	public KoreanCharacter.Type type;
+
+	@Param({"Regressive", "Progressive"})
+	public KoreanCharacter.ConsonantAssimilation consonantAssimilation;
+
+	@Param({"Prose", "Names", "Addresses", "Mixed", "Ascii"})
+	public Inputs input;
+
+	private String[] lines;
+	private int index;
+	private StringBuilder buffer;
+
+	@Setup
+	public void setUp() {
+		lines = input.lines();
+		buffer = new StringBuilder();
+	}
+
+	@Benchmark
+	public String romanize() {
+		return KoreanRomanizer.romanize(nextLine(), type, consonantAssimilation);
+	}
+
+	@Benchmark
+	public StringBuilder romanizeToBuilder() {
+		buffer.setLength(0);
+		return KoreanRomanizer.romanize(nextLine(), type, consonantAssimilation, buffer);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String romanizeConcurrently() {
+		return KoreanRomanizer.romanize(nextLine(), type, consonantAssimilation);
+	}
+
+	private String nextLine() {
+		String line = lines[index];
+		index = (index + 1 == lines.length) ? 0 : index + 1;
+		return line;
+	}
+}
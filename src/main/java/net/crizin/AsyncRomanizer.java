@@ -0,0 +1,106 @@
+package net.crizin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Romanizes on an executor without blocking the calling thread, for pipelines fed by streams.
+ * <p>
+ * {@link #romanizeAsync(String)} romanizes a single string, and {@link #newStage(int, int, Consumer)} creates a
+ * {@link RomanizingStage} which romanizes a stream of strings in micro-batches with backpressure and emits them in order.
+ * Romanization is CPU-bound, so a pool with as many threads as cores, like the default {@link ForkJoinPool#commonPool()},
+ * usually suits it best. {@link #newVirtualThreadExecutor()} suits stages whose downstream blocks.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public class AsyncRomanizer {
+	private final Romanizer romanizer;
+	private final Executor executor;
+
+	/**
+	 * Create an asynchronous romanizer running on the common pool.
+	 *
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @throws NullPointerException
+	 * 		if romanizer is null
+	 */
+	public AsyncRomanizer(Romanizer romanizer) {
+		this(romanizer, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Create an asynchronous romanizer running on the executor.
+	 *
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @param executor
+	 * 		the executor to run on.
+	 * @throws NullPointerException
+	 * 		if romanizer or executor is null
+	 */
+	public AsyncRomanizer(Romanizer romanizer, Executor executor) {
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+		this.executor = Objects.requireNonNull(executor, "Executor should not be null.");
+	}
+
+	/**
+	 * Create an executor starting a virtual thread for each task, on JDKs with virtual threads.
+	 *
+	 * @return a new executor of virtual threads, which should be shut down after use.
+	 * @throws UnsupportedOperationException
+	 * 		if the JDK does not support virtual threads
+	 */
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			// Called reflectively, since the library is built for Java 8.
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			throw new UnsupportedOperationException("Virtual threads are not supported by this JDK.", e);
+		}
+	}
+
+	/**
+	 * Romanize string on the executor.
+	 *
+	 * @param string
+	 * 		the string to convert.
+	 * @return the future of the romanized string.
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 */
+	public CompletableFuture<String> romanizeAsync(String string) {
+		Objects.requireNonNull(string, "String should not be null.");
+		return CompletableFuture.supplyAsync(() -> romanizer.romanize(string), executor);
+	}
+
+	/**
+	 * Create a stage romanizing a stream of strings on the executor.
+	 *
+	 * @param batchSize
+	 * 		the largest number of strings romanized by a task.
+	 * @param maxInFlight
+	 * 		the largest number of strings admitted but not emitted yet.
+	 * @param downstream
+	 * 		the consumer of the romanized strings, called in the order of submission and never concurrently.
+	 * @return a new stage
+	 * @throws NullPointerException
+	 * 		if downstream is null
+	 * @throws IllegalArgumentException
+	 * 		if batchSize or maxInFlight is not positive
+	 */
+	public RomanizingStage newStage(int batchSize, int maxInFlight, Consumer<? super String> downstream) {
+		return new RomanizingStage(romanizer, executor, batchSize, maxInFlight, downstream);
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncRomanizer(" + romanizer + ", " + executor + ")";
+	}
+}
@@ -0,0 +1,293 @@
+package net.crizin;
+
+import java.util.Arrays;
+
+/**
+ * Separates the postfixes of district names, like {@code 종로-구}, {@code 종로 2-가} and {@code 성남-대로 2번-길},
+ * walking the name once from its end.
+ * <p>
+ * The results are exactly the same as the following regular expressions tried in order, which this class replaces.
+ * <pre>
+ * ^(.{0,20}?)(대?로)\s*(\d+[가번]?)(길)(\s*)$            → $1-$2 $3-$4$5
+ * ^(.{0,20}?)(\d+)(\s*)(가길|가|번길|로|단지|동)(\s*)$    → $1 $2-$3$4 (no space after a space)
+ * ^(.{1,20}?)(특별자치도|특별자치시|…|가|길|로)(\s*)$     → $1-$2$3
+ * </pre>
+ * So the part before the postfix should not be longer than 20 code points nor contain line terminators,
+ * and a line terminator at the very end which is not a white space is dropped.
+ */
+final class DistrictNormalizer {
+	private static final int MaxPrefixLength = 20;
+
+	private static final SuffixTrie postfixes = new SuffixTrie("특별자치도", "특별자치시", "특별시", "광역시", "대로", "구", "군", "도", "동", "리", "면", "시", "읍", "가", "길", "로");
+	private static final SuffixTrie numberedPostfixes = new SuffixTrie("가길", "가", "번길", "로", "단지", "동");
+
+	private DistrictNormalizer() {
+	}
+
+	/**
+	 * @param characters
+	 * 		the characters to read, or null if they are in the sequence.
+	 * @param sequence
+	 * 		the character sequence to read.
+	 * @param start
+	 * 		the index of the first character.
+	 * @param end
+	 * 		the index after the last character.
+	 * @return the normalized district name, or null if the name is left as it is.
+	 */
+	static char[] normalize(char[] characters, CharSequence sequence, int start, int end) {
+		int textEnd = end;
+
+		if (start < end && isUnspacedLineTerminator(KoreanRomanizer.charAt(characters, sequence, end - 1))) {
+			textEnd--;
+		}
+
+		int trailingSpaceStart = skipWhitespaces(characters, sequence, start, textEnd);
+		char[] normalized = normalizeNumberedRoad(characters, sequence, start, trailingSpaceStart, textEnd);
+
+		if (normalized == null) {
+			normalized = normalizeNumbered(characters, sequence, start, trailingSpaceStart);
+		}
+
+		if (normalized == null) {
+			normalized = normalizePostfix(characters, sequence, start, trailingSpaceStart, textEnd);
+		}
+
+		return normalized;
+	}
+
+	/**
+	 * {@code 성남대로2번길} to {@code 성남-대로 2번-길}
+	 */
+	private static char[] normalizeNumberedRoad(char[] characters, CharSequence sequence, int start, int trailingSpaceStart, int textEnd) {
+		int gil = trailingSpaceStart - 1;
+
+		if (gil < start || KoreanRomanizer.charAt(characters, sequence, gil) != '길') {
+			return null;
+		}
+
+		int numberEnd = gil;
+
+		if (numberEnd > start && (KoreanRomanizer.charAt(characters, sequence, numberEnd - 1) == '가' || KoreanRomanizer.charAt(characters, sequence, numberEnd - 1) == '번')) {
+			numberEnd--;
+		}
+
+		int numberStart = skipDigits(characters, sequence, start, numberEnd);
+		int spaceStart = skipWhitespaces(characters, sequence, start, numberStart);
+		int roadStart = spaceStart - 1;
+
+		if (numberStart == numberEnd || roadStart < start || KoreanRomanizer.charAt(characters, sequence, roadStart) != '로') {
+			return null;
+		}
+
+		if (roadStart > start && KoreanRomanizer.charAt(characters, sequence, roadStart - 1) == '대') {
+			roadStart--;
+		}
+
+		if (!isPrefix(characters, sequence, start, roadStart)) {
+			return null;
+		}
+
+		char[] normalized = new char[textEnd - start + 2 - (numberStart - spaceStart - 1)];
+		int length = copy(characters, sequence, start, roadStart, normalized, 0);
+		normalized[length++] = '-';
+		length = copy(characters, sequence, roadStart, spaceStart, normalized, length);
+		normalized[length++] = ' ';
+		length = copy(characters, sequence, numberStart, gil, normalized, length);
+		normalized[length++] = '-';
+		copy(characters, sequence, gil, textEnd, normalized, length);
+
+		return normalized;
+	}
+
+	/**
+	 * {@code 종로2가} to {@code 종로 2-가}
+	 */
+	private static char[] normalizeNumbered(char[] characters, CharSequence sequence, int start, int trailingSpaceStart) {
+		int postfixStart = trailingSpaceStart - numberedPostfixes.longestSuffix(characters, sequence, start, trailingSpaceStart);
+
+		if (postfixStart == trailingSpaceStart) {
+			return null;
+		}
+
+		int spaceStart = skipWhitespaces(characters, sequence, start, postfixStart);
+		int numberStart = skipDigits(characters, sequence, start, spaceStart);
+
+		if (numberStart == spaceStart || !isPrefix(characters, sequence, start, numberStart)) {
+			return null;
+		}
+
+		boolean spaced = numberStart > start && KoreanRomanizer.charAt(characters, sequence, numberStart - 1) == ' ';
+		char[] normalized = new char[trailingSpaceStart - start + (spaced ? 1 : 2)];
+		int length = copy(characters, sequence, start, numberStart, normalized, 0);
+
+		if (!spaced) {
+			normalized[length++] = ' ';
+		}
+
+		length = copy(characters, sequence, numberStart, spaceStart, normalized, length);
+		normalized[length++] = '-';
+		copy(characters, sequence, spaceStart, trailingSpaceStart, normalized, length);
+
+		return normalized;
+	}
+
+	/**
+	 * {@code 종로구} to {@code 종로-구}
+	 */
+	private static char[] normalizePostfix(char[] characters, CharSequence sequence, int start, int trailingSpaceStart, int textEnd) {
+		int postfixStart = trailingSpaceStart - postfixes.longestSuffix(characters, sequence, start + 1, trailingSpaceStart);
+
+		if (postfixStart == trailingSpaceStart || !isPrefix(characters, sequence, start, postfixStart)) {
+			return null;
+		}
+
+		char[] normalized = new char[textEnd - start + 1];
+		int length = copy(characters, sequence, start, postfixStart, normalized, 0);
+		normalized[length++] = '-';
+		copy(characters, sequence, postfixStart, textEnd, normalized, length);
+
+		return normalized;
+	}
+
+	/**
+	 * @return true if the characters are at most {@value MaxPrefixLength} code points without line terminators.
+	 */
+	private static boolean isPrefix(char[] characters, CharSequence sequence, int start, int end) {
+		int codePoints = 0;
+
+		for (int i = start; i < end; i++) {
+			char character = KoreanRomanizer.charAt(characters, sequence, i);
+
+			if (KoreanRomanizer.isLineTerminator(character)) {
+				return false;
+			}
+
+			if (!Character.isLowSurrogate(character) || i == start || !Character.isHighSurrogate(KoreanRomanizer.charAt(characters, sequence, i - 1))) {
+				if (++codePoints > MaxPrefixLength) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the index of the first of the white spaces preceding the end.
+	 */
+	private static int skipWhitespaces(char[] characters, CharSequence sequence, int start, int end) {
+		while (end > start && KoreanRomanizer.isWhitespace(KoreanRomanizer.charAt(characters, sequence, end - 1))) {
+			end--;
+		}
+
+		return end;
+	}
+
+	/**
+	 * @return the index of the first of the digits preceding the end.
+	 */
+	private static int skipDigits(char[] characters, CharSequence sequence, int start, int end) {
+		while (end > start && KoreanRomanizer.charAt(characters, sequence, end - 1) >= '0' && KoreanRomanizer.charAt(characters, sequence, end - 1) <= '9') {
+			end--;
+		}
+
+		return end;
+	}
+
+	private static boolean isUnspacedLineTerminator(char character) {
+		return KoreanRomanizer.isLineTerminator(character) && !KoreanRomanizer.isWhitespace(character);
+	}
+
+	private static int copy(char[] characters, CharSequence sequence, int start, int end, char[] destination, int index) {
+		if (characters != null) {
+			System.arraycopy(characters, start, destination, index, end - start);
+		} else if (sequence instanceof String) {
+			((String) sequence).getChars(start, end, destination, index);
+		} else {
+			for (int i = start; i < end; i++) {
+				destination[index + i - start] = sequence.charAt(i);
+			}
+		}
+
+		return index + end - start;
+	}
+
+	/**
+	 * A trie of reversed strings, walked from the end of the text to find the strings it ends with.
+	 */
+	private static final class SuffixTrie {
+		private final char[] labels;
+		private final int[] firstChildren;
+		private final int[] nextSiblings;
+		private final boolean[] terminals;
+
+		SuffixTrie(String... strings) {
+			int capacity = 1;
+
+			for (String string : strings) {
+				capacity += string.length();
+			}
+
+			labels = new char[capacity];
+			firstChildren = new int[capacity];
+			nextSiblings = new int[capacity];
+			terminals = new boolean[capacity];
+			Arrays.fill(firstChildren, -1);
+			Arrays.fill(nextSiblings, -1);
+
+			int size = 1;
+
+			for (String string : strings) {
+				int node = 0;
+
+				for (int i = string.length() - 1; i >= 0; i--) {
+					int child = child(node, string.charAt(i));
+
+					if (child < 0) {
+						child = size++;
+						labels[child] = string.charAt(i);
+						nextSiblings[child] = firstChildren[node];
+						firstChildren[node] = child;
+					}
+
+					node = child;
+				}
+
+				terminals[node] = true;
+			}
+		}
+
+		/**
+		 * @return the length of the longest string the characters end with, starting at or after the start, or 0 if none.
+		 */
+		int longestSuffix(char[] characters, CharSequence sequence, int start, int end) {
+			int length = 0;
+			int node = 0;
+
+			for (int i = end - 1; i >= start; i--) {
+				node = child(node, KoreanRomanizer.charAt(characters, sequence, i));
+
+				if (node < 0) {
+					break;
+				}
+
+				if (terminals[node]) {
+					length = end - i;
+				}
+			}
+
+			return length;
+		}
+
+		private int child(int node, char label) {
+			for (int child = firstChildren[node]; child >= 0; child = nextSiblings[child]) {
+				if (labels[child] == label) {
+					return child;
+				}
+			}
+
+			return -1;
+		}
+	}
+}
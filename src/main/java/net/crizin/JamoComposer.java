@@ -0,0 +1,275 @@
+package net.crizin;
+
+import java.util.Arrays;
+
+/**
+ * Composes Hangul jamo into syllables while romanizing, so that decomposed text needs no {@link java.text.Normalizer}.
+ * <p>
+ * Conjoining jamo (U+1100–U+11FF), which NFD produces, are composed the way NFC composes them: a leading consonant
+ * followed by a vowel and optionally a trailing consonant, or a precomposed syllable without a final consonant followed
+ * by a trailing consonant. Compatibility jamo (U+3131–U+3163) are composed the way an input method does: a consonant
+ * followed by a vowel, and the next consonant as the final one unless a vowel follows it.
+ * <p>
+ * Jamo that do not compose into a syllable are romanized as letters by themselves: consonants as initial consonants,
+ * or final ones if they cannot be initial or are silent as initial, and vowels as they are.
+ * <p>
+ * A composed syllable is returned as {@code (length << 16) | syllable}, where {@code syllable} is the index in the
+ * Hangul Syllables block and {@code length} is the number of characters composed into it.
+ */
+final class JamoComposer {
+	private static final int ChosungCount = 19;
+	private static final int JungsungCount = 21;
+	private static final int JongsungCount = 28;
+
+	private static final char ConjoiningChosungStart = '\u1100';
+	private static final char ConjoiningJungsungStart = '\u1161';
+	private static final char ConjoiningJongsungStart = '\u11A7';
+	private static final char CompatibilityStart = '\u3131';
+	private static final char CompatibilityEnd = '\u3163';
+
+	/**
+	 * The initial consonant index of each compatibility jamo, or -1 if it is not one.
+	 */
+	private static final byte[] compatibilityChosungs = new byte[CompatibilityEnd - CompatibilityStart + 1];
+
+	/**
+	 * The vowel index of each compatibility jamo, or -1 if it is not one.
+	 */
+	private static final byte[] compatibilityJungsungs = new byte[CompatibilityEnd - CompatibilityStart + 1];
+
+	/**
+	 * The final consonant index of each compatibility jamo, or -1 if it is not one.
+	 */
+	private static final byte[] compatibilityJongsungs = new byte[CompatibilityEnd - CompatibilityStart + 1];
+
+	private static final String[] chosungLetters = new String[ChosungCount];
+	private static final String[] jungsungLetters = new String[JungsungCount];
+	private static final String[] jongsungLetters = new String[JongsungCount];
+
+	static {
+		Arrays.fill(compatibilityChosungs, (byte) -1);
+		Arrays.fill(compatibilityJungsungs, (byte) -1);
+		Arrays.fill(compatibilityJongsungs, (byte) -1);
+
+		// The constants of the rule enums are named after the compatibility jamo.
+		for (KoreanCharacter.Chosung chosung : KoreanCharacter.Chosung.values()) {
+			compatibilityChosungs[chosung.name().charAt(0) - CompatibilityStart] = (byte) chosung.ordinal();
+			chosungLetters[chosung.ordinal()] = chosung.getPronunciation(null, null, null, null);
+		}
+
+		for (KoreanCharacter.Jungsung jungsung : KoreanCharacter.Jungsung.values()) {
+			compatibilityJungsungs[jungsung.name().charAt(0) - CompatibilityStart] = (byte) jungsung.ordinal();
+			jungsungLetters[jungsung.ordinal()] = jungsung.getPronunciation(null, null);
+		}
+
+		for (KoreanCharacter.Jongsung jongsung : KoreanCharacter.Jongsung.values()) {
+			if (jongsung != KoreanCharacter.Jongsung.NONE) {
+				compatibilityJongsungs[jongsung.name().charAt(0) - CompatibilityStart] = (byte) jongsung.ordinal();
+			}
+
+			jongsungLetters[jongsung.ordinal()] = jongsung.getPronunciation(null, null, null);
+		}
+	}
+
+	private JamoComposer() {
+	}
+
+	/**
+	 * @param packed
+	 * 		the composed syllable.
+	 * @return the index of the syllable in the Hangul Syllables block.
+	 */
+	static int syllable(int packed) {
+		return packed & 0xFFFF;
+	}
+
+	/**
+	 * @param packed
+	 * 		the composed syllable.
+	 * @return the number of characters composed into the syllable.
+	 */
+	static int length(int packed) {
+		return packed >>> 16;
+	}
+
+	/**
+	 * @param character
+	 * 		the character to check.
+	 * @param conjoining
+	 * 		whether conjoining jamo are composed.
+	 * @param compatibility
+	 * 		whether compatibility jamo are composed.
+	 * @return true if the character is a jamo romanized with the options.
+	 */
+	static boolean isJamo(char character, boolean conjoining, boolean compatibility) {
+		return (conjoining && character >= ConjoiningChosungStart && character <= '\u11FF')
+				|| (compatibility && character >= CompatibilityStart && character <= CompatibilityEnd);
+	}
+
+	/**
+	 * @return true if the range contains a jamo romanized with the options.
+	 */
+	static boolean containsJamo(char[] characters, CharSequence sequence, int start, int end, boolean conjoining, boolean compatibility) {
+		for (int i = start; i < end; i++) {
+			if (isJamo(KoreanRomanizer.charAt(characters, sequence, i), conjoining, compatibility)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Compose the syllable starting at the index.
+	 *
+	 * @param characters
+	 * 		the characters, or null if they are in the sequence.
+	 * @param sequence
+	 * 		the character sequence.
+	 * @param index
+	 * 		the index of the first character of the syllable.
+	 * @param end
+	 * 		the index after the last character to compose.
+	 * @param conjoining
+	 * 		whether conjoining jamo are composed.
+	 * @param compatibility
+	 * 		whether compatibility jamo are composed.
+	 * @return the composed syllable, or -1 if no syllable starts at the index.
+	 */
+	static int syllableAt(char[] characters, CharSequence sequence, int index, int end, boolean conjoining, boolean compatibility) {
+		char character = KoreanRomanizer.charAt(characters, sequence, index);
+
+		if (KoreanCharacter.isKoreanCharacter(character)) {
+			int syllable = character - KoreanCharacter.KoreanLowerValue;
+			int jongsung = (conjoining && syllable % JongsungCount == 0 && index + 1 < end) ? conjoiningJongsung(KoreanRomanizer.charAt(characters, sequence, index + 1)) : -1;
+
+			return (jongsung > 0) ? (2 << 16) | (syllable + jongsung) : (1 << 16) | syllable;
+		}
+
+		if (conjoining) {
+			int chosung = character - ConjoiningChosungStart;
+
+			if (chosung >= 0 && chosung < ChosungCount && index + 1 < end) {
+				int jungsung = KoreanRomanizer.charAt(characters, sequence, index + 1) - ConjoiningJungsungStart;
+
+				if (jungsung >= 0 && jungsung < JungsungCount) {
+					int syllable = (chosung * JungsungCount + jungsung) * JongsungCount;
+					int jongsung = (index + 2 < end) ? conjoiningJongsung(KoreanRomanizer.charAt(characters, sequence, index + 2)) : -1;
+
+					return (jongsung > 0) ? (3 << 16) | (syllable + jongsung) : (2 << 16) | syllable;
+				}
+			}
+		}
+
+		if (compatibility) {
+			int chosung = compatibilityIndex(compatibilityChosungs, character);
+
+			if (chosung >= 0 && index + 1 < end) {
+				int jungsung = compatibilityIndex(compatibilityJungsungs, KoreanRomanizer.charAt(characters, sequence, index + 1));
+
+				if (jungsung >= 0) {
+					int syllable = (chosung * JungsungCount + jungsung) * JongsungCount;
+					int jongsung = (index + 2 < end) ? compatibilityIndex(compatibilityJongsungs, KoreanRomanizer.charAt(characters, sequence, index + 2)) : -1;
+
+					// The consonant starts the next syllable if a vowel follows it.
+					if (jongsung > 0 && index + 3 < end && compatibilityIndex(compatibilityChosungs, KoreanRomanizer.charAt(characters, sequence, index + 2)) >= 0
+							&& compatibilityIndex(compatibilityJungsungs, KoreanRomanizer.charAt(characters, sequence, index + 3)) >= 0) {
+						jongsung = -1;
+					}
+
+					return (jongsung > 0) ? (3 << 16) | (syllable + jongsung) : (2 << 16) | syllable;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @param character
+	 * 		the character which does not start a syllable.
+	 * @param conjoining
+	 * 		whether conjoining jamo are romanized.
+	 * @param compatibility
+	 * 		whether compatibility jamo are romanized.
+	 * @return the romanized letter of the jamo, or null if the character is not a jamo romanized with the options.
+	 */
+	static String letterOf(char character, boolean conjoining, boolean compatibility) {
+		int chosung = -1;
+		int jungsung = -1;
+		int jongsung = -1;
+
+		if (conjoining && character >= ConjoiningChosungStart && character < ConjoiningChosungStart + ChosungCount) {
+			chosung = character - ConjoiningChosungStart;
+		} else if (conjoining && character >= ConjoiningJungsungStart && character < ConjoiningJungsungStart + JungsungCount) {
+			jungsung = character - ConjoiningJungsungStart;
+		} else if (conjoining) {
+			jongsung = conjoiningJongsung(character);
+		}
+
+		if (compatibility && character >= CompatibilityStart && character <= CompatibilityEnd) {
+			chosung = compatibilityChosungs[character - CompatibilityStart];
+			jungsung = compatibilityJungsungs[character - CompatibilityStart];
+			jongsung = compatibilityJongsungs[character - CompatibilityStart];
+		}
+
+		if (chosung >= 0 && !chosungLetters[chosung].isEmpty()) {
+			return chosungLetters[chosung];
+		} else if (jungsung >= 0) {
+			return jungsungLetters[jungsung];
+		} else if (jongsung > 0) {
+			return jongsungLetters[jongsung];
+		} else if (chosung >= 0) {
+			// The silent initial consonant is pronounced as the final one.
+			return jongsungLetters[KoreanCharacter.Jongsung.ㅇ.ordinal()];
+		}
+
+		return null;
+	}
+
+	/**
+	 * Compose the jamo of a range into an array, for the types which normalize the whole text before romanizing it.
+	 *
+	 * @param sourceIndexes
+	 * 		the array to fill with the index of the first source character of each composed character relative to start,
+	 * 		followed by the length of the range, or null.
+	 * @return the composed characters.
+	 */
+	static char[] compose(char[] characters, CharSequence sequence, int start, int end, boolean conjoining, boolean compatibility, int[] sourceIndexes) {
+		char[] composed = new char[end - start];
+		int length = 0;
+
+		for (int i = start; i < end; ) {
+			int packed = syllableAt(characters, sequence, i, end, conjoining, compatibility);
+
+			if (sourceIndexes != null) {
+				sourceIndexes[length] = i - start;
+			}
+
+			if (packed >= 0) {
+				composed[length++] = (char) (KoreanCharacter.KoreanLowerValue + syllable(packed));
+				i += length(packed);
+			} else {
+				composed[length++] = KoreanRomanizer.charAt(characters, sequence, i++);
+			}
+		}
+
+		if (sourceIndexes != null) {
+			sourceIndexes[length] = end - start;
+		}
+
+		return (length == composed.length) ? composed : Arrays.copyOf(composed, length);
+	}
+
+	/**
+	 * @return the final consonant index of a conjoining trailing consonant, or -1 if the character is not one.
+	 */
+	private static int conjoiningJongsung(char character) {
+		int jongsung = character - ConjoiningJongsungStart;
+		return (jongsung > 0 && jongsung < JongsungCount) ? jongsung : -1;
+	}
+
+	private static int compatibilityIndex(byte[] indexes, char character) {
+		return (character >= CompatibilityStart && character <= CompatibilityEnd) ? indexes[character - CompatibilityStart] : -1;
+	}
+}
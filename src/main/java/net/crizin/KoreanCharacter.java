@@ -811,6 +811,46 @@ public class KoreanCharacter implements Serializable, Comparable<KoreanCharacter
 	 */
 	public final static int KoreanUpperValue = 0xD7A3;
 
+	/**
+	 * Cached values of {@link Chosung#values()}, which clones its array on every call.
+	 */
+	private static final Chosung[] chosungs = Chosung.values();
+
+	/**
+	 * Cached values of {@link Jungsung#values()}, which clones its array on every call.
+	 */
+	private static final Jungsung[] jungsungs = Jungsung.values();
+
+	/**
+	 * Cached values of {@link Jongsung#values()}, which clones its array on every call.
+	 */
+	private static final Jongsung[] jongsungs = Jongsung.values();
+
+	/**
+	 * Holder of the shared instances, created on the first {@link #valueOf(char)} rather than whenever this class is loaded.
+	 */
+	private static final class SharedInstances {
+		/**
+		 * Shared instances of every character in the Hangul Syllables block, indexed by {@code character - KoreanLowerValue}.
+		 */
+		static final KoreanCharacter[] koreanCharacters = new KoreanCharacter[KoreanUpperValue - KoreanLowerValue + 1];
+
+		/**
+		 * Shared instances of the ASCII characters, which are the most common non-Hangul characters in Korean text.
+		 */
+		static final KoreanCharacter[] asciiCharacters = new KoreanCharacter[128];
+
+		static {
+			for (int i = 0; i < koreanCharacters.length; i++) {
+				koreanCharacters[i] = new KoreanCharacter((char) (KoreanLowerValue + i));
+			}
+
+			for (int i = 0; i < asciiCharacters.length; i++) {
+				asciiCharacters[i] = new KoreanCharacter((char) i);
+			}
+		}
+	}
+
 	/**
 	 * The original character from constructor's argument.
 	 */
@@ -819,17 +859,17 @@ public class KoreanCharacter implements Serializable, Comparable<KoreanCharacter
 	/**
 	 * Disassembled initial syllable of Hangul.
 	 */
-	private Chosung chosung;
+	private final Chosung chosung;
 
 	/**
 	 * Disassembled middle syllable of Hangul.
 	 */
-	private Jungsung jungsung;
+	private final Jungsung jungsung;
 
 	/**
 	 * Disassembled final syllable of Hangul.
 	 */
-	private Jongsung jongsung;
+	private final Jongsung jongsung;
 
 	/**
 	 * Constructor
@@ -842,9 +882,13 @@ public class KoreanCharacter implements Serializable, Comparable<KoreanCharacter
 
 		if (isKoreanCharacter(character)) {
 			int value = character - KoreanLowerValue;
-			chosung = Chosung.values()[value / (21 * 28)];
-			jungsung = Jungsung.values()[value % (21 * 28) / 28];
-			jongsung = Jongsung.values()[value % 28];
+			chosung = chosungs[value / (21 * 28)];
+			jungsung = jungsungs[value % (21 * 28) / 28];
+			jongsung = jongsungs[value % 28];
+		} else {
+			chosung = null;
+			jungsung = null;
+			jongsung = null;
 		}
 	}
 
@@ -872,6 +916,25 @@ public class KoreanCharacter implements Serializable, Comparable<KoreanCharacter
 		this.character = (char) ((chosung.ordinal() * 21 * 28 + jungsung.ordinal() * 28 + jongsung.ordinal()) + KoreanLowerValue);
 	}
 
+	/**
+	 * Returns a {@code KoreanCharacter} instance representing the specified character.
+	 * Instances for Hangul syllables and ASCII characters are shared and never allocated,
+	 * so this method should be preferred to the constructor.
+	 *
+	 * @param character
+	 * 		the Hangul or other character
+	 * @return a {@code KoreanCharacter} instance representing {@code character}.
+	 */
+	public static KoreanCharacter valueOf(char character) {
+		if (isKoreanCharacter(character)) {
+			return SharedInstances.koreanCharacters[character - KoreanLowerValue];
+		} else if (character < SharedInstances.asciiCharacters.length) {
+			return SharedInstances.asciiCharacters[character];
+		} else {
+			return new KoreanCharacter(character);
+		}
+	}
+
 	/**
 	 * Whether or not the character of this object is Hangul.
 	 *
@@ -1,88 +1,32 @@
 package net.crizin;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A Java library that converts Korean into Roman characters.
  * It is implemented based on the National Korean Language Romanization and can be covered a lot,
  * but it is not perfect because it is difficult to implement 100% if there is no word dictionary data due to the nature of Korean.
+ * <p>
+ * Syllables are romanized with the rules compiled into lookup tables by default.
+ * Setting the system property {@code net.crizin.KoreanRomanizer.engine} to {@code character} romanizes them through
+ * {@link KoreanCharacter#getRomanizedString(KoreanCharacter, KoreanCharacter, KoreanCharacter.ConsonantAssimilation, KoreanCharacter.Type)} instead.
  */
 public class KoreanRomanizer {
-	private static final Pattern doubleSurnames = Pattern.compile("^(\\s*)(강전|남궁|독고|동방|등정|망절|무본|사공|서문|선우|소봉|어금|장곡|제갈|황목|황보)(.{1,10})$");
-	private static final Pattern districtPostfixes = Pattern.compile("^(.{1,20}?)(특별자치도|특별자치시|특별시|광역시|대로|구|군|도|동|리|면|시|읍|가|길|로)(\\s*)$");
-	private static final Pattern districtPostfixesWithNumbers1 = Pattern.compile("^(.{0,20}?)(\\d+)(\\s*)(가길|가|번길|로|단지|동)(\\s*)$");
-	private static final Pattern districtPostfixesWithNumbers2 = Pattern.compile("^(.{0,20}?)(대?로)\\s*(\\d+[가번]?)(길)(\\s*)$");
-	private static final Map<String, String> typicalSurenameRules = new HashMap<String, String>() {
-		{
-			put("가", "Ka");
-			put("간", "Kan");
-			put("갈", "Kal");
-			put("감", "Kam");
-			put("강", "Kang");
-			put("강전", "Kangjun");
-			put("견", "Kyun");
-			put("경", "Kyung");
-			put("계", "Kye");
-			put("고", "Ko");
-			put("공", "Kong");
-			put("곽", "Kwak");
-			put("구", "Koo");
-			put("국", "Kook");
-			put("군", "Kun");
-			put("궁", "Koong");
-			put("궉", "Kwok");
-			put("권", "Kwon");
-			put("근", "Keun");
-			put("금", "Keum");
-			put("기", "Ki");
-			put("길", "Kil");
-			put("김", "Kim");
-			put("노", "Noh");
-			put("두", "Doo");
-			put("란", "Lan");
-			put("뢰", "Loi");
-			put("루", "Lu");
-			put("망절", "Mangjul");
-			put("명", "Myung");
-			put("문", "Moon");
-			put("박", "Park");
-			put("변", "Byun");
-			put("부", "Boo");
-			put("선", "Sun");
-			put("선우", "Sunwoo");
-			put("성", "Sung");
-			put("순", "Soon");
-			put("신", "Shin");
-			put("심", "Shim");
-			put("아", "Ah");
-			put("어금", "Eokum");
-			put("오", "Oh");
-			put("우", "Woo");
-			put("운", "Woon");
-			put("유", "Yoo");
-			put("윤", "Yoon");
-			put("이", "Lee");
-			put("임", "Lim");
-			put("정", "Jung");
-			put("조", "Cho");
-			put("주", "Joo");
-			put("준", "June");
-			put("즙", "Chup");
-			put("최", "Choi");
-			put("편", "Pyun");
-			put("평", "Pyung");
-			put("풍", "Poong");
-			put("현", "Hyun");
-			put("형", "Hyung");
-			put("흥", "Hong");
-		}
-	};
-
 	/**
 	 * Romanize string.
 	 *
@@ -140,135 +84,381 @@ public class KoreanRomanizer {
 	 * 		if string parameter is null
 	 */
 	public static String romanize(String string, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
-		Objects.requireNonNull(string, "String should not be null.");
-
-		consonantAssimilation = (consonantAssimilation == null) ? KoreanCharacter.ConsonantAssimilation.Regressive : consonantAssimilation;
-		type = (type == null) ? KoreanCharacter.Type.Typical : type;
-
-		switch (type) {
-			case Name:
-			case NameTypical:
-				string = normalizeName(string, type);
-				break;
-			case District:
-				string = normalizeDistrict(string);
-				break;
-		}
+		return Romanizer.of(type, consonantAssimilation).romanize(string);
+	}
+
+	/**
+	 * Romanize character sequence and append the result to the output.
+	 * <p>
+	 * Once warmed up, no objects are allocated unless the type is {@link KoreanCharacter.Type#District District}
+	 * and a postfix is separated, which allocates only the separated district name.
+	 * Use {@link Romanizer} to romanize many strings with the same options.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param output
+	 * 		the output to append romanized string to.
+	 * @param <T>
+	 * 		the type of output
+	 * @return the output
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if string or output parameter is null
+	 */
+	public static <T extends Appendable> T romanize(CharSequence string, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, T output) throws IOException {
+		return Romanizer.of(type, consonantAssimilation).romanize(string, output);
+	}
 
-		StringBuilder buffer = new StringBuilder(string.length() * 3);
+	/**
+	 * Romanize character sequence and append the result to the string builder.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param output
+	 * 		the string builder to append romanized string to.
+	 * @return the output
+	 * @throws NullPointerException
+	 * 		if string or output parameter is null
+	 * @see #romanize(CharSequence, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation, Appendable)
+	 */
+	public static StringBuilder romanize(CharSequence string, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, StringBuilder output) {
+		return Romanizer.of(type, consonantAssimilation).romanize(string, output);
+	}
+
+	/**
+	 * Romanize characters of an array and append the result to the output.
+	 *
+	 * @param characters
+	 * 		the array containing characters to convert.
+	 * @param offset
+	 * 		the index of the first character to convert.
+	 * @param length
+	 * 		the number of characters to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param output
+	 * 		the output to append romanized string to.
+	 * @param <T>
+	 * 		the type of output
+	 * @return the output
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if characters or output parameter is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if offset and length are out of the array bounds
+	 * @see #romanize(CharSequence, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation, Appendable)
+	 */
+	public static <T extends Appendable> T romanize(char[] characters, int offset, int length, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, T output) throws IOException {
+		return Romanizer.of(type, consonantAssimilation).romanize(characters, offset, length, output);
+	}
+
+	/**
+	 * Romanize characters of an array and append the result to the string builder.
+	 *
+	 * @param characters
+	 * 		the array containing characters to convert.
+	 * @param offset
+	 * 		the index of the first character to convert.
+	 * @param length
+	 * 		the number of characters to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param output
+	 * 		the string builder to append romanized string to.
+	 * @return the output
+	 * @throws NullPointerException
+	 * 		if characters or output parameter is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if offset and length are out of the array bounds
+	 * @see #romanize(CharSequence, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation, Appendable)
+	 */
+	public static StringBuilder romanize(char[] characters, int offset, int length, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, StringBuilder output) {
+		return Romanizer.of(type, consonantAssimilation).romanize(characters, offset, length, output);
+	}
 
-		KoreanCharacter prevCharacter;
-		KoreanCharacter currentCharacter = null;
-		KoreanCharacter nextCharacter = null;
+	/**
+	 * Romanize the remaining UTF-8 bytes of the input and put the result to the output.
+	 *
+	 * @param input
+	 * 		the UTF-8 bytes to convert.
+	 * @param output
+	 * 		the buffer to put romanized bytes to.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @throws java.nio.BufferOverflowException
+	 * 		if the output does not have enough space, in which case neither position is changed
+	 * @throws NullPointerException
+	 * 		if input or output parameter is null
+	 * @see Romanizer#romanize(ByteBuffer, ByteBuffer)
+	 */
+	public static void romanize(ByteBuffer input, ByteBuffer output, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Romanizer.of(type, consonantAssimilation).romanize(input, output);
+	}
 
-		for (int i = 0; i < string.length(); i++) {
-			prevCharacter = currentCharacter;
-			currentCharacter = (nextCharacter == null) ? new KoreanCharacter(string.charAt(i)) : nextCharacter;
-			nextCharacter = (i < string.length() - 1) ? new KoreanCharacter(string.charAt(i + 1)) : null;
+	/**
+	 * Romanize all strings in parallel on the common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+	 *
+	 * @param strings
+	 * 		the strings to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the romanized strings in the same order.
+	 * @throws NullPointerException
+	 * 		if strings or any of its elements is null
+	 * @see ParallelRomanizer
+	 */
+	public static List<String> romanizeAll(List<String> strings, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		return new ParallelRomanizer().romanizeAll(strings, type, consonantAssimilation);
+	}
 
-			if (currentCharacter.isKoreanCharacter()) {
-				String pronunciation = currentCharacter.getRomanizedString(prevCharacter, nextCharacter, consonantAssimilation, type);
+	/**
+	 * Romanize all strings in parallel on the common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+	 *
+	 * @param strings
+	 * 		the strings to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the romanized strings in the same order.
+	 * @throws NullPointerException
+	 * 		if strings or any of its elements is null
+	 * @see ParallelRomanizer
+	 */
+	public static String[] romanizeAll(String[] strings, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		return new ParallelRomanizer().romanizeAll(strings, type, consonantAssimilation);
+	}
 
-				if (prevCharacter == null || !prevCharacter.isKoreanCharacter()) {
-					if (type == KoreanCharacter.Type.District && prevCharacter != null && (prevCharacter.toString().equals("-") || Character.isDigit(prevCharacter.getCharacter()))) {
-						buffer.append(pronunciation);
-					} else {
-						buffer.append(Character.toUpperCase(pronunciation.charAt(0)));
-						buffer.append(pronunciation.substring(1));
-					}
-				} else {
-					buffer.append(pronunciation);
-				}
-			} else {
-				buffer.append(currentCharacter);
-			}
+	/**
+	 * Romanize all characters from the reader and write the result to the writer.
+	 * The text is processed in chunks in constant memory, see {@link RomanizingWriter}.
+	 * Neither the reader nor the writer is closed.
+	 *
+	 * @param reader
+	 * 		the reader to read string to convert.
+	 * @param writer
+	 * 		the writer to write romanized string to.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 * @throws NullPointerException
+	 * 		if reader or writer parameter is null
+	 */
+	public static void romanize(Reader reader, Writer writer, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) throws IOException {
+		romanize(reader, writer, Romanizer.of(type, consonantAssimilation));
+	}
+
+	/**
+	 * @see #romanize(Reader, Writer, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)
+	 */
+	static void romanize(Reader reader, Writer writer, Romanizer romanizer) throws IOException {
+		Objects.requireNonNull(reader, "Reader should not be null.");
+
+		RomanizingWriter romanizingWriter = new RomanizingWriter(writer, romanizer);
+		char[] buffer = new char[8192];
+		int length;
+
+		while ((length = reader.read(buffer)) >= 0) {
+			romanizingWriter.write(buffer, 0, length);
 		}
 
-		return buffer.toString();
+		romanizingWriter.finish();
+	}
+
+	/**
+	 * Add a listener notified of every romanization, like {@link RomanizationMetrics}.
+	 * Romanizations are not measured at all while there is no listener.
+	 *
+	 * @param listener
+	 * 		the listener to add.
+	 * @throws NullPointerException
+	 * 		if listener parameter is null
+	 */
+	public static void addListener(RomanizationListener listener) {
+		Romanizer.addListener(listener);
+	}
+
+	/**
+	 * Remove a listener added by {@link #addListener(RomanizationListener)}.
+	 *
+	 * @param listener
+	 * 		the listener to remove.
+	 */
+	public static void removeListener(RomanizationListener listener) {
+		Romanizer.removeListener(listener);
+	}
+
+	/**
+	 * @param string
+	 * 		the string to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param useRomanizationTable
+	 * 		whether to romanize with the compiled {@link RomanizationTable} rather than {@link KoreanCharacter}.
+	 * @return Romanized string
+	 */
+	static String romanize(String string, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, boolean useRomanizationTable) {
+		return Romanizer.of(type, consonantAssimilation, useRomanizationTable).romanize(string);
+	}
+
+	static char charAt(char[] characters, CharSequence sequence, int index) {
+		return (characters != null) ? characters[index] : sequence.charAt(index);
+	}
+
+	/**
+	 * White spaces of regular expressions, {@code [ \t\n\x0B\f\r]}.
+	 */
+	static boolean isWhitespace(char character) {
+		return character == ' ' || (character >= '\t' && character <= '\r');
+	}
+
+	/**
+	 * Line terminators, which do not match {@code .} of regular expressions.
+	 */
+	static boolean isLineTerminator(char character) {
+		return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028' || character == '\u2029';
 	}
 
 	/**
 	 * The {@code main} method to convert string from the standard input.
+	 * The standard input and output are read and written in UTF-8, like the files, whatever the default charset is.
+	 * <p>
+	 * With {@code --in file --out file}, the UTF-8 input file is memory-mapped and romanized in parallel
+	 * into the output file instead, and the throughput is reported to the standard error.
+	 * With {@code --profile file}, the counters of {@link RuleProfiler} are written to the file afterwards,
+	 * as JSON if the file name ends with {@code .json} or as CSV otherwise.
+	 * With {@code --dictionary file}, the romanizations of the {@link RomanizationDictionary} are forced, opening the file
+	 * if it was saved by the dictionary or loading it as a word list if its name ends with {@code .tsv} or {@code .txt}.
+	 * With {@code --compile-dictionary file} as well, the word list is saved to the file instead of converting anything.
 	 *
 	 * @param args
 	 * 		first argument is {@link KoreanCharacter.Type} value,
 	 * 		second argument is {@link KoreanCharacter.ConsonantAssimilation} value
 	 * 		(Both arguments must be specified or none specified.)
+	 * 		{@code --in}, {@code --out}, {@code --profile}, {@code --dictionary} and {@code --compile-dictionary} options with file paths may come anywhere.
 	 */
-	public static void main(String... args) {
-		Scanner scanner = new Scanner(System.in);
-
+	public static void main(String... args) throws IOException {
 		KoreanCharacter.Type type = null;
 		KoreanCharacter.ConsonantAssimilation consonantAssimilation = null;
+		String input = null;
+		String output = null;
+		String profile = null;
+		String dictionaryFile = null;
+		String compiledDictionaryFile = null;
+		List<String> values = new ArrayList<>();
 
-		if (args.length > 0) {
-			try {
-				type = KoreanCharacter.Type.valueOf(args[0]);
-			} catch (IllegalArgumentException ignored) {
-				System.err.println("Unknown type: " + args[0]);
+		for (int i = 0; i < args.length; i++) {
+			if ((args[i].equals("--in") || args[i].equals("--out") || args[i].equals("--profile") || args[i].equals("--dictionary")
+					|| args[i].equals("--compile-dictionary")) && i + 1 < args.length) {
+				if (args[i].equals("--in")) {
+					input = args[++i];
+				} else if (args[i].equals("--out")) {
+					output = args[++i];
+				} else if (args[i].equals("--profile")) {
+					profile = args[++i];
+				} else if (args[i].equals("--dictionary")) {
+					dictionaryFile = args[++i];
+				} else {
+					compiledDictionaryFile = args[++i];
+				}
+			} else {
+				values.add(args[i]);
 			}
 		}
 
-		if (args.length > 1) {
+		if (values.size() > 0) {
 			try {
-				consonantAssimilation = KoreanCharacter.ConsonantAssimilation.valueOf(args[1]);
+				type = KoreanCharacter.Type.valueOf(values.get(0));
 			} catch (IllegalArgumentException ignored) {
-				System.err.println("Unknown consonantAssimilation: " + args[1]);
+				System.err.println("Unknown type: " + values.get(0));
 			}
 		}
 
-		while (scanner.hasNext()) {
-			System.out.println(KoreanRomanizer.romanize(scanner.nextLine(), type, consonantAssimilation));
+		if (values.size() > 1) {
+			try {
+				consonantAssimilation = KoreanCharacter.ConsonantAssimilation.valueOf(values.get(1));
+			} catch (IllegalArgumentException ignored) {
+				System.err.println("Unknown consonantAssimilation: " + values.get(1));
+			}
 		}
-	}
 
-	/**
-	 * @param string
-	 * 		the name string to normalize.
-	 * @param type
-	 * 	 	the type of word
-	 * @return the normalized name string.
-	 */
-	private static String normalizeName(String string, KoreanCharacter.Type type) {
-		Matcher matcher = doubleSurnames.matcher(string);
+		RomanizationDictionary dictionary = null;
 
-		if (type == KoreanCharacter.Type.NameTypical) {
-			if (matcher.find()) {
-				return matcher.group(1) + typicalSurenameRules.getOrDefault(matcher.group(2), matcher.group(2)) + " " + matcher.group(3);
+		if (dictionaryFile != null) {
+			if (dictionaryFile.endsWith(".tsv") || dictionaryFile.endsWith(".txt")) {
+				try (Reader reader = Files.newBufferedReader(Paths.get(dictionaryFile), StandardCharsets.UTF_8)) {
+					dictionary = RomanizationDictionary.builder().load(reader).build();
+				}
 			} else {
-				return typicalSurenameRules.getOrDefault(String.valueOf(string.charAt(0)), String.valueOf(string.charAt(0))) + " " + string.substring(1);
+				dictionary = RomanizationDictionary.open(Paths.get(dictionaryFile));
 			}
-		} else {
-			if (matcher.find()) {
-				return matcher.group(1) + matcher.group(2) + " " + matcher.group(3);
-			} else {
-				return string.charAt(0) + " " + string.substring(1);
+		}
+
+		if (compiledDictionaryFile != null) {
+			if (dictionary == null) {
+				System.err.println("--dictionary should be specified to compile.");
+				return;
 			}
+
+			dictionary.save(Paths.get(compiledDictionaryFile));
+			System.err.println(dictionary);
+			return;
 		}
-	}
 
-	/**
-	 * @param string
-	 * 		the district string to normalize.
-	 * @return the normalized district string.
-	 */
-	private static String normalizeDistrict(String string) {
-		Matcher matcher = districtPostfixesWithNumbers2.matcher(string);
+		Romanizer romanizer = Romanizer.builder().type(type).consonantAssimilation(consonantAssimilation).dictionary(dictionary).build();
 
-		if (matcher.find()) {
-			return matcher.group(1) + "-" + matcher.group(2) + " " + matcher.group(3) + "-" + matcher.group(4) + matcher.group(5);
+		if (input != null || output != null) {
+			if (input == null || output == null) {
+				System.err.println("Both --in and --out should be specified.");
+				return;
+			}
+
+			MappedFileRomanizer fileRomanizer = new MappedFileRomanizer(romanizer, ForkJoinPool.commonPool(), MappedFileRomanizer.DefaultRegionSize);
+			System.err.println(fileRomanizer.romanize(Paths.get(input), Paths.get(output)));
 		} else {
-			matcher = districtPostfixesWithNumbers1.matcher(string);
-			if (matcher.find()) {
-				return matcher.group(1) + (matcher.group(1).endsWith(" ") ? "" : " ") + matcher.group(2) + "-" + matcher.group(3) + matcher.group(4);
-			} else {
-				matcher = districtPostfixes.matcher(string);
-				if (matcher.find()) {
-					return matcher.group(1) + "-" + matcher.group(2) + matcher.group(3);
+			Reader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+			Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+			romanize(reader, writer, romanizer);
+			writer.flush();
+		}
+
+		if (profile != null) {
+			if (!RuleProfiler.isEnabled()) {
+				System.err.println("Rule profiling is disabled. Run with -Dnet.crizin.KoreanRomanizer.profile=true to enable it.");
+				return;
+			}
+
+			try (Writer writer = Files.newBufferedWriter(Paths.get(profile), StandardCharsets.UTF_8)) {
+				if (profile.endsWith(".json")) {
+					RuleProfiler.writeJson(writer);
+				} else {
+					RuleProfiler.writeCsv(writer);
 				}
 			}
 		}
-
-		return string;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,306 @@
+package net.crizin;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Romanizes UTF-8 files of any size for the {@code --in}, {@code --out} mode of the command line interface.
+ * <p>
+ * The input is split into regions ending right after line feeds, each region is memory-mapped and romanized
+ * on the pool, and the results are written to the output in the original order. Only a few regions per thread of the pool
+ * are in memory at a time.
+ * <p>
+ * The result is the same as romanizing the file through {@link KoreanRomanizer#romanize(java.io.Reader, java.io.Writer, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)}:
+ * {@link KoreanCharacter.Type#District District}, {@link KoreanCharacter.Type#Name Name} and
+ * {@link KoreanCharacter.Type#NameTypical NameTypical} romanize each line separately, and the other types romanize the whole file.
+ * A romanizer with a {@link RomanizationDictionary} romanizes each line separately too, as {@link RomanizingWriter} does.
+ */
+final class MappedFileRomanizer {
+	/**
+	 * Default number of bytes romanized by a task.
+	 */
+	static final int DefaultRegionSize = 1 << 22;
+
+	/**
+	 * Regions are never larger than this, so that three times the size still fits in a buffer.
+	 */
+	private static final int MaxRegionSize = (Integer.MAX_VALUE - 3) / 3;
+
+	private static final int MaxBufferSize = Integer.MAX_VALUE - 8;
+
+	private static final int ScanSize = 8192;
+
+	private final Romanizer romanizer;
+	private final ForkJoinPool pool;
+	private final int regionSize;
+	private final boolean lineByLine;
+
+	/**
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @param pool
+	 * 		the pool to run on.
+	 * @param regionSize
+	 * 		the number of bytes from which the input is split at the next line feed.
+	 * @throws NullPointerException
+	 * 		if romanizer or pool is null
+	 * @throws IllegalArgumentException
+	 * 		if regionSize is not positive
+	 */
+	MappedFileRomanizer(Romanizer romanizer, ForkJoinPool pool, int regionSize) {
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+		this.pool = Objects.requireNonNull(pool, "Pool should not be null.");
+
+		if (regionSize <= 0) {
+			throw new IllegalArgumentException("Region size should be positive: " + regionSize);
+		}
+
+		this.regionSize = Math.min(regionSize, MaxRegionSize);
+
+		this.lineByLine = romanizer.isWholeText();
+	}
+
+	/**
+	 * Romanize the input file to the output file, replacing the output if it exists.
+	 *
+	 * @param input
+	 * 		the UTF-8 file to convert.
+	 * @param output
+	 * 		the file to write the romanized text to.
+	 * @return the statistics of the conversion.
+	 * @throws IOException
+	 * 		if an I/O error occurs, or a line is too long to be mapped
+	 * @throws NullPointerException
+	 * 		if input or output parameter is null
+	 */
+	Statistics romanize(Path input, Path output) throws IOException {
+		Objects.requireNonNull(input, "Input should not be null.");
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		long startTime = System.nanoTime();
+
+		try (FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.READ);
+			 FileChannel outputChannel = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long[] boundaries = split(inputChannel);
+			ArrayDeque<ForkJoinTask<Region>> pending = new ArrayDeque<>();
+			int window = pool.getParallelism() * 2;
+			long bytesWritten = 0;
+			long syllables = 0;
+
+			for (int i = 0; i < boundaries.length - 1 || !pending.isEmpty(); ) {
+				if (i < boundaries.length - 1 && pending.size() < window) {
+					long start = boundaries[i];
+					long end = boundaries[++i];
+					pending.add(pool.submit(() -> romanize(inputChannel.map(FileChannel.MapMode.READ_ONLY, start, end - start))));
+					continue;
+				}
+
+				Region region = pending.remove().join();
+				bytesWritten += region.output.remaining();
+				syllables += region.syllables;
+
+				while (region.output.hasRemaining()) {
+					outputChannel.write(region.output);
+				}
+			}
+
+			return new Statistics(inputChannel.size(), bytesWritten, syllables, System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * @return the start positions of the regions followed by the size of the input.
+	 */
+	private long[] split(FileChannel channel) throws IOException {
+		long size = channel.size();
+		List<Long> boundaries = new ArrayList<>();
+		ByteBuffer scanBuffer = ByteBuffer.allocate(ScanSize);
+		long start = 0;
+
+		boundaries.add(start);
+
+		while (size - start > regionSize) {
+			long end = nextLineStart(channel, scanBuffer, start + regionSize, size);
+
+			if (end - start > MaxRegionSize) {
+				throw new IOException("Line at " + start + " is too long to be mapped.");
+			}
+
+			if (end < size) {
+				boundaries.add(end);
+			}
+
+			start = end;
+		}
+
+		boundaries.add(size);
+
+		long[] results = new long[boundaries.size()];
+
+		for (int i = 0; i < results.length; i++) {
+			results[i] = boundaries.get(i);
+		}
+
+		return results;
+	}
+
+	/**
+	 * @return the position after the first line feed at or after the position, or the size if there is none.
+	 */
+	private static long nextLineStart(FileChannel channel, ByteBuffer scanBuffer, long position, long size) throws IOException {
+		while (position < size) {
+			((Buffer) scanBuffer).clear();
+			int length = channel.read(scanBuffer, position);
+
+			if (length < 0) {
+				break;
+			}
+
+			for (int i = 0; i < length; i++) {
+				if (scanBuffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+
+			position += length;
+		}
+
+		return size;
+	}
+
+	private Region romanize(MappedByteBuffer input) {
+		int syllables = countSyllables(input);
+
+		// Most text does not grow, so try a smaller buffer first. The second one is enough without a dictionary,
+		// while forced romanizations may grow the text any more, so the buffer doubles until the output fits.
+		long capacity = input.remaining() + (input.remaining() >> 1) + 16;
+
+		while (true) {
+			try {
+				return new Region(romanize(input, ByteBuffer.allocate((int) capacity)), syllables);
+			} catch (BufferOverflowException e) {
+				if (capacity == MaxBufferSize) {
+					throw e;
+				}
+
+				((Buffer) input).rewind();
+				capacity = Math.min(capacity * 2, MaxBufferSize);
+			}
+		}
+	}
+
+	private ByteBuffer romanize(ByteBuffer input, ByteBuffer output) {
+		if (!lineByLine) {
+			romanizer.romanize(input, output);
+		} else {
+			int limit = input.limit();
+
+			while (input.position() < limit) {
+				int lineEnd = input.position();
+
+				while (lineEnd < limit && input.get(lineEnd) != '\n') {
+					lineEnd++;
+				}
+
+				int textEnd = (lineEnd < limit && lineEnd > input.position() && input.get(lineEnd - 1) == '\r') ? lineEnd - 1 : lineEnd;
+
+				if (textEnd > input.position()) {
+					((Buffer) input).limit(textEnd);
+
+					try {
+						romanizer.romanize(input, output);
+					} finally {
+						// Restored even on overflow, so that the retry romanizes the whole region.
+						((Buffer) input).limit(limit);
+					}
+				}
+
+				while (input.position() < Math.min(lineEnd + 1, limit)) {
+					output.put(input.get());
+				}
+			}
+		}
+
+		((Buffer) output).flip();
+		return output;
+	}
+
+	private static int countSyllables(ByteBuffer input) {
+		int syllables = 0;
+		int limit = input.limit();
+
+		for (int i = input.position(); i < limit; i++) {
+			if (RomanizationTable.syllableOf(input, i, limit) >= 0) {
+				syllables++;
+				i += 2;
+			}
+		}
+
+		return syllables;
+	}
+
+	/**
+	 * The romanized bytes of a region.
+	 */
+	private static final class Region {
+		final ByteBuffer output;
+		final int syllables;
+
+		Region(ByteBuffer output, int syllables) {
+			this.output = output;
+			this.syllables = syllables;
+		}
+	}
+
+	/**
+	 * Numbers measured while romanizing a file.
+	 */
+	static final class Statistics {
+		private final long bytesRead;
+		private final long bytesWritten;
+		private final long syllables;
+		private final long elapsedNanos;
+
+		Statistics(long bytesRead, long bytesWritten, long syllables, long elapsedNanos) {
+			this.bytesRead = bytesRead;
+			this.bytesWritten = bytesWritten;
+			this.syllables = syllables;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		long getBytesRead() {
+			return bytesRead;
+		}
+
+		long getBytesWritten() {
+			return bytesWritten;
+		}
+
+		long getSyllables() {
+			return syllables;
+		}
+
+		long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		@Override
+		public String toString() {
+			double seconds = Math.max(elapsedNanos, 1) / 1e9;
+			return String.format("Romanized %,d bytes (%,d syllables) into %,d bytes in %.3f s: %.1f MB/s, %,.0f syllables/s",
+					bytesRead, syllables, bytesWritten, seconds, bytesRead / 1e6 / seconds, syllables / seconds);
+		}
+	}
+}
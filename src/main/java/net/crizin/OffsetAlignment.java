@@ -0,0 +1,186 @@
+package net.crizin;
+
+import java.io.IOException;
+
+/**
+ * Records which source character each romanized character comes from, while passing the romanized characters to the output.
+ * <p>
+ * The romanizer tells which source character it romanizes next with {@link #map(int)}, and calls {@link #insert()}
+ * before characters that do not come from the source, like the space after a surname. Inserted characters are mapped to the
+ * source character following them, or the last one at the end, and source characters without output of their own,
+ * like dropped white spaces, are mapped to where the output of the next source character starts.
+ * So the output of each source character is the range from its offset to the offset of the next one.
+ * <p>
+ * Both offset arrays are relative to the start of the source and the output.
+ */
+final class OffsetAlignment implements Appendable {
+	private final Appendable output;
+	private final char[] characters;
+	private final CharSequence sequence;
+	private final int start;
+	private final int end;
+	private final int[] sourceToOutput;
+	private final int[] outputToSource;
+
+	/**
+	 * The normalized characters being romanized instead of the source, or null if the source is romanized as it is.
+	 */
+	private char[] normalized;
+
+	/**
+	 * The index of the first source character not mapped yet.
+	 */
+	private int sourceIndex;
+
+	/**
+	 * The index of the first inserted character waiting for the next source character, or -1 if none.
+	 */
+	private int insertedStart = -1;
+
+	/**
+	 * The source offset of the following output, or -1 if it is inserted.
+	 */
+	private int current = -1;
+
+	/**
+	 * The source offset of the last mapped character.
+	 */
+	private int last;
+
+	private int length;
+
+	/**
+	 * @param output
+	 * 		the output to append romanized characters to.
+	 * @param characters
+	 * 		the source characters, or null if they are in the sequence.
+	 * @param sequence
+	 * 		the source character sequence.
+	 * @param start
+	 * 		the index of the first source character.
+	 * @param end
+	 * 		the index after the last source character.
+	 * @param sourceToOutput
+	 * 		the array to fill with the output offset of each source character.
+	 * @param outputToSource
+	 * 		the array to fill with the source offset of each output character.
+	 */
+	OffsetAlignment(Appendable output, char[] characters, CharSequence sequence, int start, int end, int[] sourceToOutput, int[] outputToSource) {
+		this.output = output;
+		this.characters = characters;
+		this.sequence = sequence;
+		this.start = start;
+		this.end = end;
+		this.sourceToOutput = sourceToOutput;
+		this.outputToSource = outputToSource;
+		this.sourceIndex = start;
+	}
+
+	/**
+	 * Romanize the normalized characters instead of the source from now on.
+	 * <p>
+	 * Normalization only inserts characters and drops white spaces and line terminators without reordering anything,
+	 * so matching the normalized characters against the source greedily recovers where they come from.
+	 */
+	void setNormalized(char[] normalized) {
+		this.normalized = normalized;
+	}
+
+	/**
+	 * The following output comes from the character at the index of what is being romanized,
+	 * which is the source or the normalized characters.
+	 */
+	void map(int index) {
+		if (normalized == null) {
+			mapSource(index);
+			return;
+		}
+
+		char character = normalized[index];
+		int candidate = sourceIndex;
+
+		while (candidate < end && KoreanRomanizer.charAt(characters, sequence, candidate) != character && isDroppable(KoreanRomanizer.charAt(characters, sequence, candidate))) {
+			candidate++;
+		}
+
+		if (candidate < end && KoreanRomanizer.charAt(characters, sequence, candidate) == character) {
+			mapSource(candidate);
+		} else {
+			insert();
+		}
+	}
+
+	/**
+	 * The following output does not come from the source.
+	 */
+	void insert() {
+		if (insertedStart < 0) {
+			insertedStart = length;
+		}
+
+		current = -1;
+	}
+
+	/**
+	 * Completes both arrays, mapping the end of the source and the end of the output to each other.
+	 *
+	 * @return the number of characters appended to the output.
+	 */
+	int finish() {
+		if (insertedStart >= 0) {
+			fillInserted(last);
+		}
+
+		mapSource(end);
+		outputToSource[length] = end - start;
+		return length;
+	}
+
+	@Override
+	public Appendable append(CharSequence csq) throws IOException {
+		return append(csq, 0, csq.length());
+	}
+
+	@Override
+	public Appendable append(CharSequence csq, int start, int end) throws IOException {
+		for (int i = start; i < end; i++) {
+			append(csq.charAt(i));
+		}
+
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) throws IOException {
+		outputToSource[length++] = current;
+		output.append(c);
+		return this;
+	}
+
+	private static boolean isDroppable(char character) {
+		return KoreanRomanizer.isWhitespace(character) || KoreanRomanizer.isLineTerminator(character);
+	}
+
+	private void mapSource(int index) {
+		int offset = (insertedStart >= 0) ? insertedStart : length;
+
+		for (; sourceIndex <= index; sourceIndex++) {
+			sourceToOutput[sourceIndex - start] = offset;
+		}
+
+		current = index - start;
+		last = current;
+
+		if (insertedStart >= 0) {
+			fillInserted(current);
+		}
+	}
+
+	private void fillInserted(int source) {
+		for (int i = insertedStart; i < length; i++) {
+			outputToSource[i] = source;
+		}
+
+		insertedStart = -1;
+	}
+}
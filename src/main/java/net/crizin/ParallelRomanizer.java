@@ -0,0 +1,254 @@
+package net.crizin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Romanizes large batches of strings and huge documents in parallel on a {@link ForkJoinPool}.
+ * The results are always the same as {@link KoreanRomanizer#romanize(String, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)}.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public class ParallelRomanizer {
+	/**
+	 * Default number of characters below which documents are romanized without splitting.
+	 */
+	public static final int DefaultSplitThreshold = 1 << 16;
+
+	/**
+	 * Number of characters romanized by a task without forking more.
+	 */
+	private static final int CharactersPerTask = 1 << 12;
+
+	private final ForkJoinPool pool;
+	private final int splitThreshold;
+
+	/**
+	 * Create a parallel romanizer running on the common pool.
+	 */
+	public ParallelRomanizer() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Create a parallel romanizer running on the pool.
+	 *
+	 * @param pool
+	 * 		the pool to run on.
+	 * @throws NullPointerException
+	 * 		if pool is null
+	 */
+	public ParallelRomanizer(ForkJoinPool pool) {
+		this(pool, DefaultSplitThreshold);
+	}
+
+	/**
+	 * Create a parallel romanizer running on the pool.
+	 *
+	 * @param pool
+	 * 		the pool to run on.
+	 * @param splitThreshold
+	 * 		the number of characters from which {@link #romanize(String, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)}
+	 * 		splits the document into pieces.
+	 * @throws NullPointerException
+	 * 		if pool is null
+	 * @throws IllegalArgumentException
+	 * 		if splitThreshold is not positive
+	 */
+	public ParallelRomanizer(ForkJoinPool pool, int splitThreshold) {
+		this.pool = Objects.requireNonNull(pool, "Pool should not be null.");
+
+		if (splitThreshold <= 0) {
+			throw new IllegalArgumentException("Split threshold should be positive: " + splitThreshold);
+		}
+
+		this.splitThreshold = splitThreshold;
+	}
+
+	/**
+	 * Romanize all strings. Each distinct string is romanized only once.
+	 *
+	 * @param strings
+	 * 		the strings to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the romanized strings in the same order.
+	 * @throws NullPointerException
+	 * 		if strings or any of its elements is null
+	 */
+	public List<String> romanizeAll(List<String> strings, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Objects.requireNonNull(strings, "Strings should not be null.");
+		return Arrays.asList(romanizeAll(strings.toArray(new String[0]), type, consonantAssimilation));
+	}
+
+	/**
+	 * Romanize all strings. Each distinct string is romanized only once.
+	 *
+	 * @param strings
+	 * 		the strings to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the romanized strings in the same order.
+	 * @throws NullPointerException
+	 * 		if strings or any of its elements is null
+	 */
+	public String[] romanizeAll(String[] strings, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Objects.requireNonNull(strings, "Strings should not be null.");
+
+		Map<String, Integer> uniqueIndexes = new HashMap<>();
+		List<String> uniqueStrings = new ArrayList<>();
+		int[] indexes = new int[strings.length];
+
+		for (int i = 0; i < strings.length; i++) {
+			String string = Objects.requireNonNull(strings[i], "String should not be null.");
+			Integer index = uniqueIndexes.get(string);
+
+			if (index == null) {
+				index = uniqueStrings.size();
+				uniqueIndexes.put(string, index);
+				uniqueStrings.add(string);
+			}
+
+			indexes[i] = index;
+		}
+
+		String[] sources = uniqueStrings.toArray(new String[0]);
+		String[] romanized = new String[sources.length];
+
+		pool.invoke(new RomanizeTask(sources, romanized, 0, sources.length, Romanizer.of(type, consonantAssimilation)));
+
+		String[] results = new String[strings.length];
+
+		for (int i = 0; i < strings.length; i++) {
+			results[i] = romanized[indexes[i]];
+		}
+
+		return results;
+	}
+
+	/**
+	 * Romanize a document, splitting it into pieces romanized in parallel if it is long enough.
+	 * <p>
+	 * The document is only split right before non-Hangul characters such as white spaces and punctuations,
+	 * where no pronunciation rule applies across, so the result is identical to romanizing it at once.
+	 * {@link KoreanCharacter.Type#District District}, {@link KoreanCharacter.Type#Name Name} and
+	 * {@link KoreanCharacter.Type#NameTypical NameTypical} normalize the document as a whole and are never split.
+	 *
+	 * @param document
+	 * 		the document to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the romanized document.
+	 * @throws NullPointerException
+	 * 		if document is null
+	 */
+	public String romanize(String document, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Objects.requireNonNull(document, "String should not be null.");
+
+		if (document.length() < splitThreshold || type == KoreanCharacter.Type.District || type == KoreanCharacter.Type.Name || type == KoreanCharacter.Type.NameTypical) {
+			return KoreanRomanizer.romanize(document, type, consonantAssimilation);
+		}
+
+		int[] boundaries = split(document, Math.max(pool.getParallelism() * 4, document.length() / CharactersPerTask));
+		String[] pieces = new String[boundaries.length - 1];
+
+		for (int i = 0; i < pieces.length; i++) {
+			pieces[i] = document.substring(boundaries[i], boundaries[i + 1]);
+		}
+
+		String[] romanized = new String[pieces.length];
+		pool.invoke(new RomanizeTask(pieces, romanized, 0, pieces.length, Romanizer.of(type, consonantAssimilation)));
+
+		int length = 0;
+
+		for (String piece : romanized) {
+			length += piece.length();
+		}
+
+		StringBuilder buffer = new StringBuilder(length);
+
+		for (String piece : romanized) {
+			buffer.append(piece);
+		}
+
+		return buffer.toString();
+	}
+
+	/**
+	 * @param document
+	 * 		the document to split.
+	 * @param count
+	 * 		the desired number of pieces.
+	 * @return the start indexes of the pieces followed by the length of the document.
+	 */
+	private static int[] split(String document, int count) {
+		int[] boundaries = new int[count + 1];
+		int size = 1;
+
+		for (int i = 1; i < count; i++) {
+			int boundary = Math.max((int) ((long) document.length() * i / count), boundaries[size - 1] + 1);
+
+			while (boundary < document.length() && KoreanCharacter.isKoreanCharacter(document.charAt(boundary))) {
+				boundary++;
+			}
+
+			if (boundary < document.length()) {
+				boundaries[size++] = boundary;
+			}
+		}
+
+		boundaries[size++] = document.length();
+		return Arrays.copyOf(boundaries, size);
+	}
+
+	/**
+	 * Romanizes a range of strings, forking until the range gets small enough.
+	 */
+	private static class RomanizeTask extends RecursiveAction {
+		private static final long serialVersionUID = 6034916829473527718L;
+
+		private final String[] sources;
+		private final String[] results;
+		private final int start;
+		private final int end;
+		private final Romanizer romanizer;
+
+		RomanizeTask(String[] sources, String[] results, int start, int end, Romanizer romanizer) {
+			this.sources = sources;
+			this.results = results;
+			this.start = start;
+			this.end = end;
+			this.romanizer = romanizer;
+		}
+
+		@Override
+		protected void compute() {
+			int length = 0;
+
+			for (int i = start; i < end && length < CharactersPerTask; i++) {
+				length += sources[i].length();
+			}
+
+			if (end - start > 1 && length >= CharactersPerTask) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new RomanizeTask(sources, results, start, middle, romanizer), new RomanizeTask(sources, results, middle, end, romanizer));
+			} else {
+				for (int i = start; i < end; i++) {
+					results[i] = romanizer.romanize(sources[i]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,389 @@
+package net.crizin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, size-bounded cache of romanized strings for inputs romanized over and over,
+ * like surnames, district names and common words.
+ * <p>
+ * Entries are kept in segments, each with its own lock, chosen by the hash of the input.
+ * When a segment is full, a new entry is admitted only if its input has been requested more often
+ * than the least recently used entry it would evict, so a burst of one-off inputs cannot flush the popular ones.
+ * The frequencies are estimated with a small count-min sketch which is halved periodically to forget old popularity.
+ */
+public class RomanizationCache {
+	private static final KoreanCharacter.Type[] types = KoreanCharacter.Type.values();
+	private static final KoreanCharacter.ConsonantAssimilation[] consonantAssimilations = KoreanCharacter.ConsonantAssimilation.values();
+
+	private final Segment[] segments;
+	private final int maximumSize;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maximumSize
+	 * 		the maximum number of entries.
+	 * @throws IllegalArgumentException
+	 * 		if maximumSize is not positive
+	 */
+	public RomanizationCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("Maximum size should be positive: " + maximumSize);
+		}
+
+		int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, maximumSize / 16)));
+
+		this.maximumSize = maximumSize;
+		this.segments = new Segment[segmentCount];
+
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Romanize string, returning the cached result if the same string has been romanized with the same options.
+	 *
+	 * @param string
+	 * 		the string to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return Romanized string
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 * @see KoreanRomanizer#romanize(String, KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)
+	 */
+	public String romanize(String string, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Objects.requireNonNull(string, "String should not be null.");
+
+		type = (type == null) ? KoreanCharacter.Type.Typical : type;
+		consonantAssimilation = (consonantAssimilation == null) ? KoreanCharacter.ConsonantAssimilation.Regressive : consonantAssimilation;
+
+		int variant = type.ordinal() * consonantAssimilations.length + consonantAssimilation.ordinal();
+		int hash = spread(string.hashCode() * 31 + variant);
+		Segment segment = segments[hash & (segments.length - 1)];
+		String romanized = segment.get(string, variant, hash);
+
+		if (romanized != null) {
+			hitCount.increment();
+			return romanized;
+		}
+
+		missCount.increment();
+		romanized = KoreanRomanizer.romanize(string, type, consonantAssimilation);
+
+		if (segment.put(string, variant, hash, romanized)) {
+			evictionCount.increment();
+		}
+
+		return romanized;
+	}
+
+	/**
+	 * Romanize string word by word, caching each white space delimited word separately.
+	 * This suits prose, where whole inputs rarely repeat but words do.
+	 * <p>
+	 * No pronunciation rule applies across white spaces, so the result is the same as romanizing the whole string.
+	 * {@link KoreanCharacter.Type#District District}, {@link KoreanCharacter.Type#Name Name} and
+	 * {@link KoreanCharacter.Type#NameTypical NameTypical} normalize the string as a whole, so they are cached as a whole.
+	 *
+	 * @param string
+	 * 		the string to convert.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return Romanized string
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 */
+	public String romanizeWords(String string, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Objects.requireNonNull(string, "String should not be null.");
+
+		if (type == KoreanCharacter.Type.District || type == KoreanCharacter.Type.Name || type == KoreanCharacter.Type.NameTypical) {
+			return romanize(string, type, consonantAssimilation);
+		}
+
+		StringBuilder buffer = new StringBuilder(string.length() * 3);
+		int wordStart = -1;
+
+		for (int i = 0; i <= string.length(); i++) {
+			if (i == string.length() || Character.isWhitespace(string.charAt(i))) {
+				if (wordStart >= 0) {
+					buffer.append(romanize(string.substring(wordStart, i), type, consonantAssimilation));
+					wordStart = -1;
+				}
+
+				if (i < string.length()) {
+					buffer.append(string.charAt(i));
+				}
+			} else if (wordStart < 0) {
+				wordStart = i;
+			}
+		}
+
+		return buffer.toString();
+	}
+
+	/**
+	 * @return the number of lookups that found a cached result.
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return the number of lookups that romanized the input.
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * @return the ratio of hits to all lookups, or 1 if nothing has been looked up.
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long lookups = hits + getMissCount();
+		return (lookups == 0) ? 1.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * @return the number of entries evicted to admit more frequent ones.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	/**
+	 * @return the current number of entries.
+	 */
+	public int size() {
+		int size = 0;
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size;
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * @return the maximum number of entries.
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Discards all entries. The statistics are not reset.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	private static int spread(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * A cached romanized string, linked in the order of use.
+	 */
+	private static final class Node {
+		final String key;
+		final int variant;
+		final String value;
+		Node prev;
+		Node next;
+
+		Node(String key, int variant, String value) {
+			this.key = key;
+			this.variant = variant;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * A part of the cache guarded by its own monitor.
+	 */
+	private static final class Segment {
+		private final int capacity;
+
+		/**
+		 * Entries for each combination of type and consonant assimilation, so that the input string itself is the key.
+		 */
+		private final Map<String, Node>[] maps;
+
+		/**
+		 * Count-min sketch of 4-bit counters, two counters per byte.
+		 */
+		private final byte[] sketch;
+		private final int sketchMask;
+		private final int sampleSize;
+		private int sampleCount;
+
+		/**
+		 * The most recently used entry.
+		 */
+		private Node head;
+
+		/**
+		 * The least recently used entry.
+		 */
+		private Node tail;
+		private int size;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Segment(int capacity) {
+			this.capacity = capacity;
+			this.maps = new Map[types.length * consonantAssimilations.length];
+
+			int counters = Integer.highestOneBit(Math.max(256, capacity * 16) - 1) << 1;
+			this.sketch = new byte[counters / 2];
+			this.sketchMask = counters - 1;
+			this.sampleSize = Math.max(capacity, 8) * 10;
+		}
+
+		synchronized String get(String key, int variant, int hash) {
+			increment(hash);
+
+			Map<String, Node> map = maps[variant];
+			Node node = (map == null) ? null : map.get(key);
+
+			if (node == null) {
+				return null;
+			}
+
+			unlink(node);
+			linkFirst(node);
+			return node.value;
+		}
+
+		/**
+		 * @return true if an entry has been evicted.
+		 */
+		synchronized boolean put(String key, int variant, int hash, String value) {
+			Map<String, Node> map = maps[variant];
+
+			if (map == null) {
+				map = maps[variant] = new HashMap<>();
+			} else if (map.containsKey(key)) {
+				return false;
+			}
+
+			boolean evicted = false;
+
+			if (size >= capacity) {
+				Node victim = tail;
+
+				if (frequency(hash) <= frequency(spread(victim.key.hashCode() * 31 + victim.variant))) {
+					return false;
+				}
+
+				unlink(victim);
+				maps[victim.variant].remove(victim.key);
+				size--;
+				evicted = true;
+			}
+
+			Node node = new Node(key, variant, value);
+			map.put(key, node);
+			linkFirst(node);
+			size++;
+
+			return evicted;
+		}
+
+		void clear() {
+			for (int i = 0; i < maps.length; i++) {
+				maps[i] = null;
+			}
+
+			head = null;
+			tail = null;
+			size = 0;
+		}
+
+		private void increment(int hash) {
+			for (int i = 0; i < 4; i++) {
+				int index = counterIndex(hash, i);
+				int shift = (index & 1) << 2;
+
+				if (((sketch[index >>> 1] >>> shift) & 0xF) < 0xF) {
+					sketch[index >>> 1] += (byte) (1 << shift);
+				}
+			}
+
+			if (++sampleCount >= sampleSize) {
+				for (int i = 0; i < sketch.length; i++) {
+					sketch[i] = (byte) ((sketch[i] >>> 1) & 0x77);
+				}
+
+				sampleCount /= 2;
+			}
+		}
+
+		private int frequency(int hash) {
+			int frequency = 0xF;
+
+			for (int i = 0; i < 4; i++) {
+				int index = counterIndex(hash, i);
+				frequency = Math.min(frequency, (sketch[index >>> 1] >>> ((index & 1) << 2)) & 0xF);
+			}
+
+			return frequency;
+		}
+
+		private int counterIndex(int hash, int row) {
+			int h = (hash + row) * (0x9E3779B9 + (row << 1));
+			return (h ^ (h >>> 15)) & sketchMask;
+		}
+
+		private void linkFirst(Node node) {
+			node.prev = null;
+			node.next = head;
+
+			if (head != null) {
+				head.prev = node;
+			}
+
+			head = node;
+
+			if (tail == null) {
+				tail = node;
+			}
+		}
+
+		private void unlink(Node node) {
+			if (node.prev != null) {
+				node.prev.next = node.next;
+			} else {
+				head = node.next;
+			}
+
+			if (node.next != null) {
+				node.next.prev = node.prev;
+			} else {
+				tail = node.prev;
+			}
+
+			node.prev = null;
+			node.next = null;
+		}
+	}
+}
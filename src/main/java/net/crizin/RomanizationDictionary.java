@@ -0,0 +1,785 @@
+package net.crizin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A dictionary of words whose romanizations are forced, like brand names, applied while romanizing.
+ * <p>
+ * The words are compiled into an Aho-Corasick automaton stored in a double array: the transition of state {@code s}
+ * by character {@code c} is {@code t = base[s] + c} if {@code check[t] == s}, or the failure link of {@code s} otherwise.
+ * A romanizer built with {@link Romanizer.Builder#dictionary(RomanizationDictionary)} finds the leftmost longest match
+ * of the text in a single pass, appends its forced romanization, and romanizes the text between the matches by the rules.
+ * Text is never rescanned further back than the longest word, so finding all matches takes time linear in the length of the text.
+ * <p>
+ * A dictionary can be {@link #save(Path) saved} to a binary file and {@link #open(Path) opened} again by memory-mapping it,
+ * so that short-lived processes query the file directly without parsing word lists or filling the heap.
+ * The file consists of little-endian sections, each of which is read as it is:
+ * <ol>
+ * <li>the header of six ints: the magic number {@code KRDC}, the {@link #FormatVersion format version}, the number of words,
+ * the number of slots of the double array, the number of states and the number of characters of the romanizations,</li>
+ * <li>the {@code base}, {@code check}, failure, depth and output ints of each slot,</li>
+ * <li>the length of each word, and the offset of the romanization of each word followed by the number of characters,</li>
+ * <li>the characters of the romanizations.</li>
+ * </ol>
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public class RomanizationDictionary {
+	/**
+	 * The version of the binary format written by {@link #save(Path)}. {@link #open(Path)} only opens files of this version.
+	 */
+	public static final int FormatVersion = 1;
+
+	private static final int Magic = 0x4B524443;
+	private static final int HeaderSize = 6 * 4;
+
+	/**
+	 * The value of {@link #check} for unused slots.
+	 */
+	private static final int Free = -1;
+
+	private static final int Root = 0;
+
+	private final IntBuffer base;
+	private final IntBuffer check;
+	private final IntBuffer failures;
+
+	/**
+	 * The length of the string of each state.
+	 */
+	private final IntBuffer depths;
+
+	/**
+	 * The longest word which is a suffix of the string of each state, or -1 if there is none.
+	 */
+	private final IntBuffer outputs;
+
+	private final IntBuffer wordLengths;
+	private final CharBuffer romanizationCharacters;
+	private final IntBuffer romanizationOffsets;
+
+	/**
+	 * The largest number of romanized characters per character of a word, rounded up.
+	 */
+	private final int maxExpansion;
+
+	private final int slotCount;
+	private final int stateCount;
+	private final long memoryUsage;
+	private final boolean mapped;
+	private final long buildNanos;
+
+	private RomanizationDictionary(IntBuffer base, IntBuffer check, IntBuffer failures, IntBuffer depths, IntBuffer outputs, IntBuffer wordLengths,
+			IntBuffer romanizationOffsets, CharBuffer romanizationCharacters, int maxExpansion, int stateCount, long memoryUsage, boolean mapped, long buildStartTime) {
+		this.base = base;
+		this.check = check;
+		this.failures = failures;
+		this.depths = depths;
+		this.outputs = outputs;
+		this.wordLengths = wordLengths;
+		this.romanizationOffsets = romanizationOffsets;
+		this.romanizationCharacters = romanizationCharacters;
+		this.maxExpansion = maxExpansion;
+		this.slotCount = check.limit();
+		this.stateCount = stateCount;
+		this.memoryUsage = memoryUsage;
+		this.mapped = mapped;
+		this.buildNanos = System.nanoTime() - buildStartTime;
+	}
+
+	/**
+	 * Create a builder of a dictionary.
+	 *
+	 * @return a new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Open a dictionary saved by {@link #save(Path)}, memory-mapping the file rather than reading it.
+	 * The file should not change while the dictionary is used.
+	 *
+	 * @param path
+	 * 		the file to open.
+	 * @return the dictionary of the file.
+	 * @throws IOException
+	 * 		if an I/O error occurs, or the file is not a dictionary of {@link #FormatVersion}
+	 * @throws NullPointerException
+	 * 		if path parameter is null
+	 */
+	public static RomanizationDictionary open(Path path) throws IOException {
+		Objects.requireNonNull(path, "Path should not be null.");
+
+		long startTime = System.nanoTime();
+		ByteBuffer buffer;
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HeaderSize || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Not a romanization dictionary: " + path);
+			}
+
+			// The mapping stays valid after the channel is closed.
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		if (buffer.getInt(0) != Magic) {
+			throw new IOException("Not a romanization dictionary: " + path);
+		} else if (buffer.getInt(4) != FormatVersion) {
+			throw new IOException("Unsupported dictionary version: " + buffer.getInt(4));
+		}
+
+		int wordCount = buffer.getInt(8);
+		int slotCount = buffer.getInt(12);
+		int stateCount = buffer.getInt(16);
+		int characterCount = buffer.getInt(20);
+
+		if (wordCount < 0 || slotCount <= 0 || stateCount <= 0 || characterCount < 0
+				|| fileSize(wordCount, slotCount, characterCount) != buffer.capacity()) {
+			throw new IOException("Corrupted romanization dictionary: " + path);
+		}
+
+		int position = HeaderSize;
+		IntBuffer[] slots = new IntBuffer[5];
+
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = slice(buffer, position, slotCount * 4).asIntBuffer();
+			position += slotCount * 4;
+		}
+
+		IntBuffer wordLengths = slice(buffer, position, wordCount * 4).asIntBuffer();
+		position += wordCount * 4;
+		IntBuffer romanizationOffsets = slice(buffer, position, (wordCount + 1) * 4).asIntBuffer();
+		position += (wordCount + 1) * 4;
+		CharBuffer romanizationCharacters = slice(buffer, position, characterCount * 2).asCharBuffer();
+		int maxExpansion = 0;
+
+		for (int i = 0; i < wordCount; i++) {
+			if (wordLengths.get(i) <= 0) {
+				throw new IOException("Corrupted romanization dictionary: " + path);
+			}
+
+			maxExpansion = Math.max(maxExpansion, expansion(wordLengths.get(i), romanizationOffsets.get(i + 1) - romanizationOffsets.get(i)));
+		}
+
+		return new RomanizationDictionary(slots[0], slots[1], slots[2], slots[3], slots[4], wordLengths, romanizationOffsets, romanizationCharacters,
+				maxExpansion, stateCount, buffer.capacity(), true, startTime);
+	}
+
+	/**
+	 * Save the dictionary to a binary file, replacing the file if it exists, to be {@link #open(Path) opened} later.
+	 *
+	 * @param path
+	 * 		the file to write to.
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 * @throws NullPointerException
+	 * 		if path parameter is null
+	 */
+	public void save(Path path) throws IOException {
+		Objects.requireNonNull(path, "Path should not be null.");
+
+		int wordCount = wordLengths.limit();
+		ByteBuffer buffer = ByteBuffer.allocate((int) fileSize(wordCount, slotCount, romanizationCharacters.limit())).order(ByteOrder.LITTLE_ENDIAN);
+
+		buffer.putInt(Magic).putInt(FormatVersion).putInt(wordCount).putInt(slotCount).putInt(stateCount).putInt(romanizationCharacters.limit());
+
+		for (IntBuffer ints : new IntBuffer[]{base, check, failures, depths, outputs, wordLengths, romanizationOffsets}) {
+			buffer.asIntBuffer().put(ints.duplicate());
+			((Buffer) buffer).position(buffer.position() + ints.limit() * 4);
+		}
+
+		buffer.asCharBuffer().put(romanizationCharacters.duplicate());
+		((Buffer) buffer).rewind();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * @param word
+	 * 		the word to look up.
+	 * @return the forced romanization of the word, or null if the word is not in the dictionary.
+	 * @throws NullPointerException
+	 * 		if word parameter is null
+	 */
+	public String get(CharSequence word) {
+		Objects.requireNonNull(word, "Word should not be null.");
+
+		int state = Root;
+
+		for (int i = 0; i < word.length(); i++) {
+			state = transition(state, word.charAt(i));
+
+			if (state < 0) {
+				return null;
+			}
+		}
+
+		int entry = outputs.get(state);
+
+		if (entry < 0 || wordLengths.get(entry) != word.length()) {
+			return null;
+		}
+
+		int start = romanizationOffsets.get(entry);
+		return romanizationCharacters.subSequence(start, romanizationOffsets.get(entry + 1)).toString();
+	}
+
+	/**
+	 * @return the number of words.
+	 */
+	public int size() {
+		return wordLengths.limit();
+	}
+
+	/**
+	 * @return the largest number of romanized characters per character of a word, rounded up, or 0 if there is no word.
+	 */
+	int getMaxExpansion() {
+		return maxExpansion;
+	}
+
+	/**
+	 * @return the number of states of the automaton.
+	 */
+	public int getStateCount() {
+		return stateCount;
+	}
+
+	/**
+	 * @return the nanoseconds taken to build or open the dictionary.
+	 */
+	public long getBuildNanos() {
+		return buildNanos;
+	}
+
+	/**
+	 * @return the approximate number of bytes of the arrays of the dictionary, or the size of the file if it is {@link #isMapped() mapped}.
+	 */
+	public long getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	/**
+	 * @return the approximate number of bytes per word.
+	 */
+	public double getMemoryUsagePerEntry() {
+		return (size() == 0) ? 0 : (double) memoryUsage / size();
+	}
+
+	/**
+	 * @return true if the dictionary is a file mapped by {@link #open(Path)} rather than built on the heap.
+	 */
+	public boolean isMapped() {
+		return mapped;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RomanizationDictionary(%,d words, %,d states, %,d slots, %,d bytes%s, %.1f bytes/word, %s in %.3f ms)",
+				size(), stateCount, slotCount, memoryUsage, mapped ? " mapped" : "", getMemoryUsagePerEntry(), mapped ? "opened" : "built", buildNanos / 1e6);
+	}
+
+	/**
+	 * Find the leftmost longest word in a range, which does not overlap any word starting before it.
+	 *
+	 * @param characters
+	 * 		the characters, or null if they are in the sequence.
+	 * @param sequence
+	 * 		the character sequence.
+	 * @param start
+	 * 		the index to search from.
+	 * @param end
+	 * 		the index after the last character to search.
+	 * @return the index of the word in the upper half and the word in the lower half, or -1 if there is none.
+	 */
+	long find(char[] characters, CharSequence sequence, int start, int end) {
+		int state = Root;
+		int matchStart = -1;
+		int match = -1;
+
+		for (int i = start; i < end; i++) {
+			state = next(state, KoreanRomanizer.charAt(characters, sequence, i));
+
+			int entry = outputs.get(state);
+
+			if (entry >= 0) {
+				int entryStart = i + 1 - wordLengths.get(entry);
+
+				// A longer word ending later starts earlier, so the earliest start is kept.
+				if (match < 0 || entryStart <= matchStart) {
+					matchStart = entryStart;
+					match = entry;
+				}
+			}
+
+			// No word found later can start at or before the match.
+			if (match >= 0 && i + 1 - depths.get(state) > matchStart) {
+				break;
+			}
+		}
+
+		return (match < 0) ? -1 : ((long) matchStart << 32) | match;
+	}
+
+	/**
+	 * @return the number of characters of the word.
+	 */
+	int getWordLength(int entry) {
+		return wordLengths.get(entry);
+	}
+
+	/**
+	 * Append the forced romanization of the word.
+	 */
+	void appendRomanization(int entry, Appendable output) throws IOException {
+		int start = romanizationOffsets.get(entry);
+		int end = romanizationOffsets.get(entry + 1);
+
+		if (romanizationCharacters.hasArray()) {
+			RomanizationTable.write(romanizationCharacters.array(), romanizationCharacters.arrayOffset() + start, end - start, output);
+		} else {
+			for (int i = start; i < end; i++) {
+				output.append(romanizationCharacters.get(i));
+			}
+		}
+	}
+
+	/**
+	 * @return the state after the character following the failure links, which is the root if nothing matches.
+	 */
+	private int next(int state, char character) {
+		while (true) {
+			int target = transition(state, character);
+
+			if (target >= 0) {
+				return target;
+			} else if (state == Root) {
+				return Root;
+			}
+
+			state = failures.get(state);
+		}
+	}
+
+	/**
+	 * @return the child of the state by the character, or -1 if there is none.
+	 */
+	private int transition(int state, char character) {
+		int target = base.get(state) + character;
+		return (target >= 0 && target < slotCount && check.get(target) == state) ? target : -1;
+	}
+
+	private static long fileSize(int wordCount, int slotCount, int characterCount) {
+		return HeaderSize + (long) slotCount * 4 * 5 + (long) wordCount * 4 + (wordCount + 1L) * 4 + (long) characterCount * 2;
+	}
+
+	/**
+	 * @return the little-endian bytes of a section of the buffer.
+	 */
+	private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+		ByteBuffer duplicate = buffer.duplicate();
+		((Buffer) duplicate).position(position).limit(position + length);
+		return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * @return the number of romanized characters per character of a word, rounded up.
+	 */
+	private static int expansion(int wordLength, int romanizationLength) {
+		return (romanizationLength + wordLength - 1) / wordLength;
+	}
+
+	private static long arrayBytes(int length, int elementSize) {
+		return 16 + (long) length * elementSize;
+	}
+
+	private static RomanizationDictionary compile(String[] words, String[] romanizations, long buildStartTime) {
+		int[] wordLengths = new int[words.length];
+		int[] romanizationOffsets = new int[words.length + 1];
+		int maxExpansion = 0;
+
+		for (int i = 0; i < words.length; i++) {
+			wordLengths[i] = words[i].length();
+			romanizationOffsets[i + 1] = romanizationOffsets[i] + romanizations[i].length();
+			maxExpansion = Math.max(maxExpansion, expansion(wordLengths[i], romanizations[i].length()));
+		}
+
+		char[] romanizationCharacters = new char[romanizationOffsets[words.length]];
+
+		for (int i = 0; i < words.length; i++) {
+			romanizations[i].getChars(0, romanizations[i].length(), romanizationCharacters, romanizationOffsets[i]);
+		}
+
+		DoubleArrayBuilder builder = new DoubleArrayBuilder(words);
+		int[] base = Arrays.copyOf(builder.base, builder.size);
+		int[] check = Arrays.copyOf(builder.check, builder.size);
+		int[] outputs = Arrays.copyOf(builder.outputs, builder.size);
+		int[] failures = builder.buildFailures(base, check, outputs);
+		long memoryUsage = arrayBytes(builder.size, 4) * 5 + arrayBytes(words.length, 4) + arrayBytes(romanizationOffsets.length, 4)
+				+ arrayBytes(romanizationCharacters.length, 2);
+
+		return new RomanizationDictionary(IntBuffer.wrap(base), IntBuffer.wrap(check), IntBuffer.wrap(failures), IntBuffer.wrap(Arrays.copyOf(builder.depths, builder.size)),
+				IntBuffer.wrap(outputs), IntBuffer.wrap(wordLengths), IntBuffer.wrap(romanizationOffsets), CharBuffer.wrap(romanizationCharacters),
+				maxExpansion, builder.stateCount, memoryUsage, false, buildStartTime);
+	}
+
+	/**
+	 * Places the trie of sorted words into the double array breadth first, choosing for each state the first base
+	 * where all of its children fit.
+	 */
+	private static final class DoubleArrayBuilder {
+		/**
+		 * The number of failures after which a free slot is no longer tried for the first child, which bounds the time to build.
+		 */
+		private static final int MaxAttempts = 8;
+
+		private final String[] words;
+		private int[] base;
+		private int[] check;
+		private int[] depths;
+		private int[] outputs;
+		private int size = 1;
+		private int stateCount = 1;
+
+		/**
+		 * The states in breadth-first order.
+		 */
+		private final int[] order;
+
+		/**
+		 * A free slot at or after each slot, or the slot itself if it is free, so that the used slots are skipped at once
+		 * like the sets of a disjoint-set forest.
+		 */
+		private int[] nextFree;
+
+		/**
+		 * The number of times each free slot failed to hold the first child.
+		 */
+		private byte[] attempts;
+
+		DoubleArrayBuilder(String[] words) {
+			this.words = words;
+
+			int capacity = 1024;
+			base = new int[capacity];
+			check = new int[capacity];
+			nextFree = new int[capacity + 1];
+			attempts = new byte[capacity];
+			depths = new int[capacity];
+			outputs = new int[capacity];
+			Arrays.fill(check, Free);
+			Arrays.fill(outputs, -1);
+
+			for (int i = 0; i <= capacity; i++) {
+				nextFree[i] = i;
+			}
+
+			Integer[] sorted = new Integer[words.length];
+			int characterCount = 0;
+
+			for (int i = 0; i < words.length; i++) {
+				sorted[i] = i;
+				characterCount += words[i].length();
+			}
+
+			Arrays.sort(sorted, (i, j) -> words[i].compareTo(words[j]));
+
+			// Nodes of the trie in breadth-first order: the state, the depth and the range of the sorted words under it.
+			int[] queue = new int[(characterCount + 1) * 4];
+			int head = 0;
+			int tail = 0;
+			order = new int[characterCount + 1];
+			check[Root] = Integer.MIN_VALUE;
+			nextFree[Root] = Root + 1;
+
+			queue[tail++] = Root;
+			queue[tail++] = 0;
+			queue[tail++] = 0;
+			queue[tail++] = words.length;
+
+			int[] childCharacters = new int[Character.MAX_VALUE + 1];
+			int[] childStarts = new int[Character.MAX_VALUE + 2];
+
+			while (head < tail) {
+				int state = queue[head++];
+				int depth = queue[head++];
+				int from = queue[head++];
+				int to = queue[head++];
+				order[stateCount - 1] = state;
+				depths[state] = depth;
+
+				if (from < to && words[sorted[from]].length() == depth) {
+					outputs[state] = sorted[from++];
+				}
+
+				int childCount = 0;
+
+				for (int i = from; i < to; i++) {
+					char character = words[sorted[i]].charAt(depth);
+
+					if (childCount == 0 || childCharacters[childCount - 1] != character) {
+						childCharacters[childCount] = character;
+						childStarts[childCount++] = i;
+					}
+				}
+
+				childStarts[childCount] = to;
+
+				if (childCount == 0) {
+					continue;
+				}
+
+				int stateBase = findBase(childCharacters, childCount);
+				base[state] = stateBase;
+
+				for (int i = 0; i < childCount; i++) {
+					int child = stateBase + childCharacters[i];
+					check[child] = state;
+					nextFree[child] = child + 1;
+					size = Math.max(size, child + 1);
+					stateCount++;
+
+					queue[tail++] = child;
+					queue[tail++] = depth + 1;
+					queue[tail++] = childStarts[i];
+					queue[tail++] = childStarts[i + 1];
+				}
+			}
+		}
+
+		/**
+		 * Link each state to the state of its longest proper suffix, in breadth-first order so that shallower states are linked first,
+		 * and let each state output the longest word of its suffix if it has none.
+		 *
+		 * @return the failure links.
+		 */
+		int[] buildFailures(int[] base, int[] check, int[] outputs) {
+			int[] failures = new int[check.length];
+
+			for (int state : order) {
+				if (state == Root) {
+					continue;
+				}
+
+				int parent = check[state];
+				int character = state - base[parent];
+				int failure = Root;
+
+				if (parent != Root) {
+					int suffix = failures[parent];
+
+					while ((failure = child(base, check, suffix, character)) < 0 && suffix != Root) {
+						suffix = failures[suffix];
+					}
+
+					failure = Math.max(failure, Root);
+				}
+
+				failures[state] = failure;
+
+				if (outputs[state] < 0) {
+					outputs[state] = outputs[failure];
+				}
+			}
+
+			return failures;
+		}
+
+		private static int child(int[] base, int[] check, int state, int character) {
+			int target = base[state] + character;
+			return (target >= 0 && target < check.length && check[target] == state) ? target : -1;
+		}
+
+		/**
+		 * @return the first base where all the slots of the children are free.
+		 */
+		private int findBase(int[] childCharacters, int childCount) {
+			int first = childCharacters[0];
+			int last = childCharacters[childCount - 1];
+
+			for (int position = freeSlot(Root); ; position = freeSlot(position + 1)) {
+				ensureCapacity(position + last - first + 1);
+
+				int candidate = position - first;
+				boolean fits = true;
+
+				for (int i = 1; i < childCount && fits; i++) {
+					fits = check[candidate + childCharacters[i]] == Free;
+				}
+
+				if (fits) {
+					return candidate;
+				} else if (++attempts[position] == MaxAttempts) {
+					// A slot surrounded by used ones is rarely useful, so it is only left for the children other than the first.
+					nextFree[position] = position + 1;
+				}
+			}
+		}
+
+		/**
+		 * @return the first free slot at or after the slot.
+		 */
+		private int freeSlot(int slot) {
+			ensureCapacity(slot + 1);
+
+			int free = slot;
+
+			while (nextFree[free] != free) {
+				free = nextFree[free];
+			}
+
+			while (nextFree[slot] != free) {
+				int next = nextFree[slot];
+				nextFree[slot] = free;
+				slot = next;
+			}
+
+			return free;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > check.length) {
+				int newCapacity = Math.max(capacity, check.length + (check.length >> 1));
+				int oldCapacity = check.length;
+
+				base = Arrays.copyOf(base, newCapacity);
+				check = Arrays.copyOf(check, newCapacity);
+				nextFree = Arrays.copyOf(nextFree, newCapacity + 1);
+				attempts = Arrays.copyOf(attempts, newCapacity);
+				depths = Arrays.copyOf(depths, newCapacity);
+				outputs = Arrays.copyOf(outputs, newCapacity);
+				Arrays.fill(check, oldCapacity, newCapacity, Free);
+				Arrays.fill(outputs, oldCapacity, newCapacity, -1);
+
+				for (int i = oldCapacity + 1; i <= newCapacity; i++) {
+					nextFree[i] = i;
+				}
+			}
+		}
+	}
+
+	public static final class Builder {
+		private final Map<String, String> romanizations = new HashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Add a word. A word added again keeps the last romanization.
+		 *
+		 * @param word
+		 * 		the word to find.
+		 * @param romanization
+		 * 		the romanization to force.
+		 * @return this builder
+		 * @throws NullPointerException
+		 * 		if word or romanization parameter is null
+		 * @throws IllegalArgumentException
+		 * 		if word is empty
+		 */
+		public Builder put(String word, String romanization) {
+			Objects.requireNonNull(word, "Word should not be null.");
+			Objects.requireNonNull(romanization, "Romanization should not be null.");
+
+			if (word.isEmpty()) {
+				throw new IllegalArgumentException("Word should not be empty.");
+			}
+
+			romanizations.put(word, romanization);
+			return this;
+		}
+
+		/**
+		 * Add all words of a map.
+		 *
+		 * @param romanizations
+		 * 		the romanizations to force by word.
+		 * @return this builder
+		 * @throws NullPointerException
+		 * 		if romanizations or any of its keys and values is null
+		 * @throws IllegalArgumentException
+		 * 		if a word is empty
+		 */
+		public Builder putAll(Map<String, String> romanizations) {
+			Objects.requireNonNull(romanizations, "Romanizations should not be null.");
+
+			for (Map.Entry<String, String> entry : romanizations.entrySet()) {
+				put(entry.getKey(), entry.getValue());
+			}
+
+			return this;
+		}
+
+		/**
+		 * Add words from lines of a word and its romanization separated by a tab.
+		 * Empty lines and lines starting with {@code #} are ignored.
+		 *
+		 * @param reader
+		 * 		the reader of the lines, which is not closed.
+		 * @return this builder
+		 * @throws IOException
+		 * 		if an I/O error occurs while reading
+		 * @throws NullPointerException
+		 * 		if reader parameter is null
+		 * @throws IllegalArgumentException
+		 * 		if a line is malformed
+		 */
+		public Builder load(Reader reader) throws IOException {
+			BufferedReader lines = new BufferedReader(Objects.requireNonNull(reader, "Reader should not be null."));
+			String line;
+			int lineNumber = 0;
+
+			while ((line = lines.readLine()) != null) {
+				lineNumber++;
+
+				if (line.isEmpty() || line.charAt(0) == '#') {
+					continue;
+				}
+
+				int tab = line.indexOf('\t');
+
+				if (tab <= 0) {
+					throw new IllegalArgumentException("Line should be a word and its romanization separated by a tab: " + lineNumber);
+				}
+
+				put(line.substring(0, tab), line.substring(tab + 1));
+			}
+
+			return this;
+		}
+
+		/**
+		 * @return the dictionary of the words added so far.
+		 */
+		public RomanizationDictionary build() {
+			long startTime = System.nanoTime();
+			String[] words = romanizations.keySet().toArray(new String[0]);
+			String[] romanizationsOfWords = new String[words.length];
+
+			for (int i = 0; i < words.length; i++) {
+				romanizationsOfWords[i] = romanizations.get(words[i]);
+			}
+
+			return compile(words, romanizationsOfWords, startTime);
+		}
+	}
+}
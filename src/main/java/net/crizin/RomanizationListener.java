@@ -0,0 +1,29 @@
+package net.crizin;
+
+/**
+ * Notified of every romanization once added with {@link KoreanRomanizer#addListener(RomanizationListener)}.
+ * <p>
+ * Listeners are called on the romanizing thread right after each romanization, so they should be fast and thread-safe.
+ * Strings, character sequences, arrays and UTF-8 buffers are reported, while {@link RomanizingWriter} reports
+ * only the lines of the types which normalize their input.
+ *
+ * @see RomanizationMetrics
+ */
+@FunctionalInterface
+public interface RomanizationListener {
+	/**
+	 * Called after a text is romanized.
+	 *
+	 * @param type
+	 * 		the type of word.
+	 * @param characters
+	 * 		the number of characters of the text.
+	 * @param syllables
+	 * 		the number of Hangul syllables of the text.
+	 * @param normalizationNanos
+	 * 		the nanoseconds taken to separate the surname or the district postfix, or 0 for the other types.
+	 * @param elapsedNanos
+	 * 		the nanoseconds taken to romanize the text, including the normalization.
+	 */
+	void romanized(KoreanCharacter.Type type, int characters, int syllables, long normalizationNanos, long elapsedNanos);
+}
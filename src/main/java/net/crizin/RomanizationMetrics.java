@@ -0,0 +1,288 @@
+package net.crizin;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts romanizations per {@link KoreanCharacter.Type}, with latency histograms, characters and syllables processed,
+ * normalization time and the statistics of watched {@link RomanizationCache}s.
+ * <p>
+ * Nothing is measured until the metrics are added as a listener, so romanization costs nothing extra by default.
+ * {@link #install()} adds the shared instance and registers it to the platform MBean server as {@value ObjectNameString}.
+ * All counters are {@link LongAdder}s, so threads romanizing concurrently do not contend on them.
+ */
+public class RomanizationMetrics implements RomanizationListener, RomanizationMetricsMXBean {
+	/**
+	 * The name of the MBean registered by {@link #install()}.
+	 */
+	public static final String ObjectNameString = "net.crizin:type=RomanizationMetrics";
+
+	/**
+	 * Number of buckets of the latency histograms, the last of which counts everything from about 1 second.
+	 */
+	private static final int BucketCount = 32;
+
+	private static final KoreanCharacter.Type[] types = KoreanCharacter.Type.values();
+
+	private static RomanizationMetrics installed;
+
+	private final LongAdder[] callCounts = newAdders(types.length);
+	private final LongAdder[] latencyNanos = newAdders(types.length);
+	private final LongAdder[][] latencyHistograms = new LongAdder[types.length][];
+	private final LongAdder characterCount = new LongAdder();
+	private final LongAdder syllableCount = new LongAdder();
+	private final LongAdder normalizationNanos = new LongAdder();
+	private final CopyOnWriteArrayList<RomanizationCache> caches = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Create metrics, which count nothing until added with {@link KoreanRomanizer#addListener(RomanizationListener)}.
+	 */
+	public RomanizationMetrics() {
+		for (int i = 0; i < types.length; i++) {
+			latencyHistograms[i] = newAdders(BucketCount);
+		}
+	}
+
+	/**
+	 * Add the shared metrics as a listener and register them as an MBean, unless they are already.
+	 *
+	 * @return the shared metrics.
+	 * @throws IllegalStateException
+	 * 		if the MBean cannot be registered
+	 */
+	public static synchronized RomanizationMetrics install() {
+		if (installed == null) {
+			RomanizationMetrics metrics = new RomanizationMetrics();
+
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				ObjectName name = new ObjectName(ObjectNameString);
+
+				if (server.isRegistered(name)) {
+					server.unregisterMBean(name);
+				}
+
+				server.registerMBean(metrics, name);
+			} catch (JMException e) {
+				throw new IllegalStateException("Failed to register " + ObjectNameString, e);
+			}
+
+			KoreanRomanizer.addListener(metrics);
+			installed = metrics;
+		}
+
+		return installed;
+	}
+
+	/**
+	 * Remove the shared metrics added by {@link #install()} and unregister the MBean.
+	 */
+	public static synchronized void uninstall() {
+		if (installed != null) {
+			KoreanRomanizer.removeListener(installed);
+			installed = null;
+
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(ObjectNameString));
+			} catch (JMException ignored) {
+				// Unregistered by someone else.
+			}
+		}
+	}
+
+	/**
+	 * Include the statistics of the cache.
+	 *
+	 * @param cache
+	 * 		the cache to watch.
+	 * @return this metrics
+	 * @throws NullPointerException
+	 * 		if cache parameter is null
+	 */
+	public RomanizationMetrics watch(RomanizationCache cache) {
+		caches.addIfAbsent(Objects.requireNonNull(cache, "Cache should not be null."));
+		return this;
+	}
+
+	@Override
+	public void romanized(KoreanCharacter.Type type, int characters, int syllables, long normalizationNanos, long elapsedNanos) {
+		int index = type.ordinal();
+
+		callCounts[index].increment();
+		latencyNanos[index].add(elapsedNanos);
+		latencyHistograms[index][Math.min(BucketCount - 1, 64 - Long.numberOfLeadingZeros(elapsedNanos))].increment();
+		characterCount.add(characters);
+		syllableCount.add(syllables);
+
+		if (normalizationNanos != 0) {
+			this.normalizationNanos.add(normalizationNanos);
+		}
+	}
+
+	@Override
+	public Map<String, Long> getCallCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+
+		for (KoreanCharacter.Type type : types) {
+			counts.put(type.name(), callCounts[type.ordinal()].sum());
+		}
+
+		return counts;
+	}
+
+	@Override
+	public Map<String, Double> getMeanLatencyNanos() {
+		Map<String, Double> latencies = new LinkedHashMap<>();
+
+		for (KoreanCharacter.Type type : types) {
+			long calls = callCounts[type.ordinal()].sum();
+			latencies.put(type.name(), (calls == 0) ? 0.0 : (double) latencyNanos[type.ordinal()].sum() / calls);
+		}
+
+		return latencies;
+	}
+
+	@Override
+	public long getCharacterCount() {
+		return characterCount.sum();
+	}
+
+	@Override
+	public long getSyllableCount() {
+		return syllableCount.sum();
+	}
+
+	@Override
+	public double getHangulRatio() {
+		long characters = getCharacterCount();
+		return (characters == 0) ? 0.0 : (double) getSyllableCount() / characters;
+	}
+
+	@Override
+	public long getNormalizationNanos() {
+		return normalizationNanos.sum();
+	}
+
+	@Override
+	public long getCacheHitCount() {
+		long hits = 0;
+
+		for (RomanizationCache cache : caches) {
+			hits += cache.getHitCount();
+		}
+
+		return hits;
+	}
+
+	@Override
+	public long getCacheMissCount() {
+		long misses = 0;
+
+		for (RomanizationCache cache : caches) {
+			misses += cache.getMissCount();
+		}
+
+		return misses;
+	}
+
+	@Override
+	public double getCacheHitRate() {
+		long hits = getCacheHitCount();
+		long lookups = hits + getCacheMissCount();
+		return (lookups == 0) ? 1.0 : (double) hits / lookups;
+	}
+
+	@Override
+	public long getCacheEvictionCount() {
+		long evictions = 0;
+
+		for (RomanizationCache cache : caches) {
+			evictions += cache.getEvictionCount();
+		}
+
+		return evictions;
+	}
+
+	@Override
+	public long getCacheSize() {
+		long size = 0;
+
+		for (RomanizationCache cache : caches) {
+			size += cache.size();
+		}
+
+		return size;
+	}
+
+	@Override
+	public long[] getLatencyHistogram(String type) {
+		LongAdder[] histogram = latencyHistograms[KoreanCharacter.Type.valueOf(type).ordinal()];
+		long[] counts = new long[BucketCount];
+
+		for (int i = 0; i < BucketCount; i++) {
+			counts[i] = histogram[i].sum();
+		}
+
+		return counts;
+	}
+
+	@Override
+	public long getLatencyPercentileNanos(String type, double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("Percentile should be between 0 and 100: " + percentile);
+		}
+
+		long[] counts = getLatencyHistogram(type);
+		long total = 0;
+
+		for (long count : counts) {
+			total += count;
+		}
+
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long cumulative = 0;
+
+		for (int i = 0; i < BucketCount && total > 0; i++) {
+			cumulative += counts[i];
+
+			if (cumulative >= Math.max(rank, 1)) {
+				return (i == BucketCount - 1) ? Long.MAX_VALUE : 1L << i;
+			}
+		}
+
+		return 0;
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < types.length; i++) {
+			callCounts[i].reset();
+			latencyNanos[i].reset();
+
+			for (LongAdder bucket : latencyHistograms[i]) {
+				bucket.reset();
+			}
+		}
+
+		characterCount.reset();
+		syllableCount.reset();
+		normalizationNanos.reset();
+	}
+
+	private static LongAdder[] newAdders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+
+		for (int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+
+		return adders;
+	}
+}
@@ -0,0 +1,89 @@
+package net.crizin;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link RomanizationMetrics}.
+ * Maps are keyed by the names of {@link KoreanCharacter.Type}.
+ */
+public interface RomanizationMetricsMXBean {
+	/**
+	 * @return the number of romanizations of each type.
+	 */
+	Map<String, Long> getCallCounts();
+
+	/**
+	 * @return the mean nanoseconds taken by a romanization of each type.
+	 */
+	Map<String, Double> getMeanLatencyNanos();
+
+	/**
+	 * @return the number of characters romanized.
+	 */
+	long getCharacterCount();
+
+	/**
+	 * @return the number of Hangul syllables romanized.
+	 */
+	long getSyllableCount();
+
+	/**
+	 * @return the ratio of Hangul syllables to all characters romanized, or 0 if nothing has been romanized.
+	 */
+	double getHangulRatio();
+
+	/**
+	 * @return the nanoseconds taken to separate surnames and district postfixes.
+	 */
+	long getNormalizationNanos();
+
+	/**
+	 * @return the number of lookups that found a cached result in the watched caches.
+	 */
+	long getCacheHitCount();
+
+	/**
+	 * @return the number of lookups that romanized the input in the watched caches.
+	 */
+	long getCacheMissCount();
+
+	/**
+	 * @return the ratio of hits to all lookups of the watched caches, or 1 if nothing has been looked up.
+	 */
+	double getCacheHitRate();
+
+	/**
+	 * @return the number of entries evicted from the watched caches.
+	 */
+	long getCacheEvictionCount();
+
+	/**
+	 * @return the number of entries of the watched caches.
+	 */
+	long getCacheSize();
+
+	/**
+	 * @param type
+	 * 		the name of the type.
+	 * @return the number of romanizations of the type taken less than {@code 2^i} nanoseconds and at least {@code 2^(i-1)} at index {@code i}.
+	 * @throws IllegalArgumentException
+	 * 		if there is no such type
+	 */
+	long[] getLatencyHistogram(String type);
+
+	/**
+	 * @param type
+	 * 		the name of the type.
+	 * @param percentile
+	 * 		the percentile between 0 and 100.
+	 * @return the upper bound of the nanoseconds taken by the percentile of romanizations of the type, or 0 if there is none.
+	 * @throws IllegalArgumentException
+	 * 		if there is no such type or the percentile is out of range
+	 */
+	long getLatencyPercentileNanos(String type, double percentile);
+
+	/**
+	 * Resets all counters. The statistics of the watched caches are not reset.
+	 */
+	void reset();
+}
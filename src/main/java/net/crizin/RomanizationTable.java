@@ -0,0 +1,386 @@
+package net.crizin;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pronunciation rules of {@link KoreanCharacter} compiled into primitive lookup tables.
+ * <p>
+ * The romanized string of a syllable only depends on the final consonant and the vowel of the previous syllable,
+ * the syllable itself, and the initial consonant and the vowel of the next syllable.
+ * The tables are filled by evaluating the rule enums once for each of those junctions, so romanizing with them
+ * gives exactly the same result as {@link KoreanCharacter#getRomanizedString(KoreanCharacter, KoreanCharacter, KoreanCharacter.ConsonantAssimilation, KoreanCharacter.Type)}.
+ * <p>
+ * The rules are evaluated at build time by {@link RomanizationTableGenerator}, and the tables are read from the resource {@value #ResourceName},
+ * so neither {@link KoreanCharacter} nor its rule enums are loaded to romanize with them.
+ * If the resource is missing, as when running from the sources without a build, the rules are evaluated when this class is loaded.
+ */
+final class RomanizationTable {
+	/**
+	 * Number of characters in the Hangul Syllables block.
+	 */
+	static final int SyllableCount = KoreanCharacter.KoreanUpperValue - KoreanCharacter.KoreanLowerValue + 1;
+
+	/**
+	 * The resource of the tables generated by {@link RomanizationTableGenerator}, relative to this class.
+	 */
+	static final String ResourceName = "romanization-tables.bin";
+
+	private static final int ChosungCount = 19;
+	private static final int JungsungCount = 21;
+	private static final int JongsungCount = 28;
+
+	/**
+	 * The ordinal of {@code ㅇ} in {@link KoreanCharacter.Chosung}, as a constant so that the enum is not loaded.
+	 */
+	private static final int SilentChosung = 11;
+
+	/**
+	 * Distinct pronunciation fragments. Every table below stores indexes of this array.
+	 */
+	private static final char[][] fragments;
+
+	/**
+	 * {@link #fragments} in ASCII.
+	 */
+	private static final byte[][] asciiFragments;
+
+	private static final byte[] defaultOnsets = new byte[ChosungCount];
+	private static final byte[] defaultCodas = new byte[JongsungCount];
+	private static final byte[] vowels = new byte[JungsungCount];
+	private static final byte[] hyphenatedVowels = new byte[JungsungCount];
+	private static final boolean[] palatalizations = new boolean[JungsungCount];
+
+	/**
+	 * Whether a hyphen goes between a vowel-ending syllable and the following silent-initial syllable, indexed by both vowels.
+	 */
+	private static final boolean[] vowelHyphens = new boolean[JungsungCount * JungsungCount];
+
+	private static final Map<KoreanCharacter.Type, Map<KoreanCharacter.ConsonantAssimilation, RomanizationTable>> tables = new EnumMap<>(KoreanCharacter.Type.class);
+
+	static {
+		try (DataInputStream input = new DataInputStream(open())) {
+			if (input.readInt() != RomanizationTableGenerator.FormatVersion) {
+				throw new IllegalStateException("Romanization tables should be regenerated: " + ResourceName);
+			}
+
+			fragments = new char[input.readInt()][];
+			asciiFragments = new byte[fragments.length][];
+
+			for (int i = 0; i < fragments.length; i++) {
+				String fragment = input.readUTF();
+				fragments[i] = fragment.toCharArray();
+				asciiFragments[i] = fragment.getBytes(StandardCharsets.US_ASCII);
+			}
+
+			input.readFully(defaultOnsets);
+			input.readFully(defaultCodas);
+			input.readFully(vowels);
+			input.readFully(hyphenatedVowels);
+			readBooleans(input, palatalizations);
+			readBooleans(input, vowelHyphens);
+
+			KoreanCharacter.Type[] types = KoreanCharacter.Type.values();
+			KoreanCharacter.ConsonantAssimilation[] consonantAssimilations = KoreanCharacter.ConsonantAssimilation.values();
+
+			if (input.readInt() != types.length || input.readInt() != consonantAssimilations.length) {
+				throw new IllegalStateException("Romanization tables should be regenerated: " + ResourceName);
+			}
+
+			for (KoreanCharacter.Type type : types) {
+				Map<KoreanCharacter.ConsonantAssimilation, RomanizationTable> byConsonantAssimilation = new EnumMap<>(KoreanCharacter.ConsonantAssimilation.class);
+
+				for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : consonantAssimilations) {
+					byte[] onsets = new byte[JongsungCount * ChosungCount * 2];
+					byte[] codas = new byte[JongsungCount * ChosungCount * 2];
+
+					input.readFully(onsets);
+					input.readFully(codas);
+					byConsonantAssimilation.put(consonantAssimilation, new RomanizationTable(type, consonantAssimilation, onsets, codas));
+				}
+
+				tables.put(type, byConsonantAssimilation);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Corrupted romanization tables: " + ResourceName, e);
+		}
+	}
+
+	/**
+	 * Whether the syllables are affected by their neighbors. The names are romanized syllable by syllable.
+	 */
+	private final boolean contextual;
+
+	/**
+	 * Initial consonant fragments following a Hangul syllable, indexed by {@link #junction(int, int)}.
+	 */
+	private final byte[] onsets;
+
+	/**
+	 * Final consonant fragments followed by a Hangul syllable, indexed by {@link #junction(int, int)}.
+	 */
+	private final byte[] codas;
+
+	/**
+	 * The index of the options in the counters of {@link RuleProfiler}.
+	 */
+	private final int variant;
+
+	private RomanizationTable(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, byte[] onsets, byte[] codas) {
+		this.contextual = (type != KoreanCharacter.Type.Name && type != KoreanCharacter.Type.NameTypical);
+		this.onsets = onsets;
+		this.codas = codas;
+		this.variant = RuleProfiler.variant(type, consonantAssimilation);
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the compiled table for the options.
+	 */
+	static RomanizationTable of(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		return tables.get(type).get(consonantAssimilation);
+	}
+
+	/**
+	 * @param character
+	 * 		the character to check.
+	 * @return the index of the character in the Hangul Syllables block, or -1 if the character is not Hangul.
+	 */
+	static int syllableOf(char character) {
+		return (character >= KoreanCharacter.KoreanLowerValue && character <= KoreanCharacter.KoreanUpperValue) ? character - KoreanCharacter.KoreanLowerValue : -1;
+	}
+
+	/**
+	 * Appends the romanized string of a syllable.
+	 *
+	 * @param prev
+	 * 		the syllable index of the previous character, or -1 if it is not Hangul.
+	 * @param current
+	 * 		the syllable index of the character to romanize.
+	 * @param next
+	 * 		the syllable index of the next character, or -1 if it is not Hangul.
+	 * @param capitalize
+	 * 		whether the first letter should be upper case.
+	 * @param output
+	 * 		the output to append to.
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 */
+	void append(int prev, int current, int next, boolean capitalize, Appendable output) throws IOException {
+		if (RuleProfiler.Enabled) {
+			profile(prev, current);
+		}
+
+		char[] onset = fragments[onset(prev, current)];
+		char[] vowel = fragments[vowel(prev, current)];
+		char[] coda = fragments[coda(current, next)];
+
+		if (!capitalize) {
+			write(onset, 0, onset.length, output);
+			write(vowel, 0, vowel.length, output);
+		} else if (onset.length > 0) {
+			output.append(Character.toUpperCase(onset[0]));
+			write(onset, 1, onset.length - 1, output);
+			write(vowel, 0, vowel.length, output);
+		} else {
+			output.append(Character.toUpperCase(vowel[0]));
+			write(vowel, 1, vowel.length - 1, output);
+		}
+
+		write(coda, 0, coda.length, output);
+	}
+
+	/**
+	 * Puts the romanized string of a syllable in ASCII.
+	 *
+	 * @param prev
+	 * 		the syllable index of the previous character, or -1 if it is not Hangul.
+	 * @param current
+	 * 		the syllable index of the character to romanize.
+	 * @param next
+	 * 		the syllable index of the next character, or -1 if it is not Hangul.
+	 * @param capitalize
+	 * 		whether the first letter should be upper case.
+	 * @param output
+	 * 		the buffer to put to.
+	 * @throws java.nio.BufferOverflowException
+	 * 		if the buffer does not have enough space
+	 */
+	void put(int prev, int current, int next, boolean capitalize, ByteBuffer output) {
+		if (RuleProfiler.Enabled) {
+			profile(prev, current);
+		}
+
+		byte[] onset = asciiFragments[onset(prev, current)];
+		byte[] vowel = asciiFragments[vowel(prev, current)];
+		byte[] coda = asciiFragments[coda(current, next)];
+
+		if (!capitalize) {
+			output.put(onset);
+			output.put(vowel);
+		} else if (onset.length > 0) {
+			output.put((byte) Character.toUpperCase((char) onset[0]));
+			output.put(onset, 1, onset.length - 1);
+			output.put(vowel);
+		} else {
+			output.put((byte) Character.toUpperCase((char) vowel[0]));
+			output.put(vowel, 1, vowel.length - 1);
+		}
+
+		output.put(coda);
+	}
+
+	/**
+	 * @param input
+	 * 		the UTF-8 bytes to read.
+	 * @param index
+	 * 		the index of the first byte of the character.
+	 * @param limit
+	 * 		the index after the last byte to read.
+	 * @return the index of the syllable encoded in the three bytes from the index, or -1 if they do not encode a Hangul syllable.
+	 */
+	static int syllableOf(ByteBuffer input, int index, int limit) {
+		if (index + 2 >= limit) {
+			return -1;
+		}
+
+		int lead = input.get(index) & 0xFF;
+
+		if (lead < 0xEA || lead > 0xED) {
+			return -1;
+		}
+
+		int second = input.get(index + 1) & 0xFF;
+		int third = input.get(index + 2) & 0xFF;
+
+		if ((second & 0xC0) != 0x80 || (third & 0xC0) != 0x80) {
+			return -1;
+		}
+
+		return syllableOf((char) (((lead & 0x0F) << 12) | ((second & 0x3F) << 6) | (third & 0x3F)));
+	}
+
+	/**
+	 * Appends characters without allocating any object,
+	 * which {@link Appendable#append(CharSequence, int, int)} may do.
+	 *
+	 * @param characters
+	 * 		the characters to append.
+	 * @param offset
+	 * 		the index of the first character to append.
+	 * @param length
+	 * 		the number of characters to append.
+	 * @param output
+	 * 		the output to append to.
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 */
+	static void write(char[] characters, int offset, int length, Appendable output) throws IOException {
+		if (output instanceof StringBuilder) {
+			((StringBuilder) output).append(characters, offset, length);
+		} else if (output instanceof Writer) {
+			((Writer) output).write(characters, offset, length);
+		} else if (output instanceof CharBuffer) {
+			((CharBuffer) output).put(characters, offset, length);
+		} else if (output instanceof Romanizer.LengthCounter) {
+			((Romanizer.LengthCounter) output).length += length;
+		} else {
+			for (int i = offset; i < offset + length; i++) {
+				output.append(characters[i]);
+			}
+		}
+	}
+
+	/**
+	 * Count the rules applied between two syllables with {@link RuleProfiler}.
+	 *
+	 * @param prev
+	 * 		the syllable index of the previous character, or -1 if it is not Hangul.
+	 * @param current
+	 * 		the syllable index of the current character.
+	 */
+	void profile(int prev, int current) {
+		if (prev < 0 || !contextual) {
+			return;
+		}
+
+		int chosung = current / (JungsungCount * JongsungCount);
+		int junction = junction(prev, current);
+		char[] onset = fragments[onsets[junction]];
+
+		RuleProfiler.countJunction(variant, prev % JongsungCount, chosung,
+				onsets[junction] != defaultOnsets[chosung] || codas[junction] != defaultCodas[prev % JongsungCount],
+				onset.length > 0 && onset[0] == '-');
+
+		int jungsung = current % (JungsungCount * JongsungCount) / JongsungCount;
+
+		if (vowel(prev, current) == hyphenatedVowels[jungsung]) {
+			RuleProfiler.countVowelHyphen(variant, prev % (JungsungCount * JongsungCount) / JongsungCount, jungsung);
+		}
+	}
+
+	private int onset(int prev, int current) {
+		int chosung = current / (JungsungCount * JongsungCount);
+
+		if (prev < 0 || !contextual) {
+			return defaultOnsets[chosung];
+		} else {
+			return onsets[junction(prev, current)];
+		}
+	}
+
+	private int vowel(int prev, int current) {
+		int jungsung = current % (JungsungCount * JongsungCount) / JongsungCount;
+
+		if (prev >= 0 && contextual && prev % JongsungCount == 0 && current / (JungsungCount * JongsungCount) == SilentChosung
+				&& vowelHyphens[prev % (JungsungCount * JongsungCount) / JongsungCount * JungsungCount + jungsung]) {
+			return hyphenatedVowels[jungsung];
+		} else {
+			return vowels[jungsung];
+		}
+	}
+
+	private int coda(int current, int next) {
+		if (next < 0 || !contextual) {
+			return defaultCodas[current % JongsungCount];
+		} else {
+			return codas[junction(current, next)];
+		}
+	}
+
+	/**
+	 * @return the index of the junction tables for the final consonant of {@code prev} and the initial consonant and the palatalization of {@code current}.
+	 */
+	private static int junction(int prev, int current) {
+		int chosung = current / (JungsungCount * JongsungCount);
+		int jungsung = current % (JungsungCount * JongsungCount) / JongsungCount;
+
+		return ((prev % JongsungCount) * ChosungCount + chosung) * 2 + (palatalizations[jungsung] ? 1 : 0);
+	}
+
+	/**
+	 * @return the generated tables, or the tables evaluated now if the resource is missing.
+	 */
+	private static InputStream open() {
+		InputStream input = RomanizationTable.class.getResourceAsStream(ResourceName);
+		return (input != null) ? new BufferedInputStream(input) : new ByteArrayInputStream(RomanizationTableGenerator.generate());
+	}
+
+	private static void readBooleans(DataInputStream input, boolean[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = input.readBoolean();
+		}
+	}
+}
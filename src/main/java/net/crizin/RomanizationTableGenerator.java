@@ -0,0 +1,173 @@
+package net.crizin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the pronunciation rules of {@link KoreanCharacter} into the flat tables read by {@link RomanizationTable}.
+ * <p>
+ * The tables are generated at build time into the resource {@value RomanizationTable#ResourceName}, so romanizing for the first time
+ * reads a few kilobytes instead of loading the rule enums and evaluating them for every junction.
+ * Regenerate the resource after changing the rules with {@code mvn -P generate-tables process-classes}.
+ * <p>
+ * The format is a {@link DataOutputStream} of
+ * <ol>
+ * <li>the format version and the number of fragments, followed by the fragments,</li>
+ * <li>the default fragments of the initial consonants, the final consonants and the vowels, the hyphenated vowels,
+ * whether each vowel induces palatalization, and whether a hyphen goes between each pair of vowels,</li>
+ * <li>the numbers of types and consonant assimilations, followed by the onset and coda tables of each pair of them.</li>
+ * </ol>
+ */
+final class RomanizationTableGenerator {
+	static final int FormatVersion = 1;
+
+	private final Map<String, Integer> fragmentIndexes = new HashMap<>();
+	private final List<String> fragmentList = new ArrayList<>();
+
+	private RomanizationTableGenerator() {
+	}
+
+	/**
+	 * Write the generated tables to a file.
+	 *
+	 * @param args
+	 * 		the path of the file to write.
+	 * @throws IOException
+	 * 		if an I/O error occurs while writing the file
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: java net.crizin.RomanizationTableGenerator <output file>");
+			System.exit(1);
+		}
+
+		Path path = Paths.get(args[0]);
+
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+
+		Files.write(path, generate());
+	}
+
+	/**
+	 * @return the tables evaluated from the rules.
+	 */
+	static byte[] generate() {
+		try {
+			return new RomanizationTableGenerator().write();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private byte[] write() throws IOException {
+		KoreanCharacter.Chosung[] chosungs = KoreanCharacter.Chosung.values();
+		KoreanCharacter.Jungsung[] jungsungs = KoreanCharacter.Jungsung.values();
+		KoreanCharacter.Jongsung[] jongsungs = KoreanCharacter.Jongsung.values();
+		KoreanCharacter.Type[] types = KoreanCharacter.Type.values();
+		KoreanCharacter.ConsonantAssimilation[] consonantAssimilations = KoreanCharacter.ConsonantAssimilation.values();
+
+		byte[] defaultOnsets = new byte[chosungs.length];
+		byte[] defaultCodas = new byte[jongsungs.length];
+		byte[] vowels = new byte[jungsungs.length];
+		byte[] hyphenatedVowels = new byte[jungsungs.length];
+		byte[] palatalizations = new byte[jungsungs.length];
+		byte[] vowelHyphens = new byte[jungsungs.length * jungsungs.length];
+		byte[][] junctions = new byte[types.length * consonantAssimilations.length * 2][];
+
+		for (KoreanCharacter.Chosung chosung : chosungs) {
+			defaultOnsets[chosung.ordinal()] = fragment(chosung.getPronunciation(null, null, null, null));
+		}
+
+		for (KoreanCharacter.Jongsung jongsung : jongsungs) {
+			defaultCodas[jongsung.ordinal()] = fragment(jongsung.getPronunciation(null, null, null));
+		}
+
+		for (KoreanCharacter.Jungsung jungsung : jungsungs) {
+			String pronunciation = jungsung.getPronunciation(null, null);
+			vowels[jungsung.ordinal()] = fragment(pronunciation);
+			hyphenatedVowels[jungsung.ordinal()] = fragment("-" + pronunciation);
+			palatalizations[jungsung.ordinal()] = (byte) (jungsung.isInducePalatalization() ? 1 : 0);
+
+			KoreanCharacter current = new KoreanCharacter(KoreanCharacter.Chosung.ㅇ, jungsung, KoreanCharacter.Jongsung.NONE);
+
+			for (KoreanCharacter.Jungsung prevJungsung : jungsungs) {
+				KoreanCharacter prev = new KoreanCharacter(KoreanCharacter.Chosung.ㄱ, prevJungsung, KoreanCharacter.Jongsung.NONE);
+				vowelHyphens[prevJungsung.ordinal() * jungsungs.length + jungsung.ordinal()] = (byte) (jungsung.getPronunciation(prev, current).equals(pronunciation) ? 0 : 1);
+			}
+		}
+
+		for (KoreanCharacter.Type type : types) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : consonantAssimilations) {
+				byte[] onsets = new byte[jongsungs.length * chosungs.length * 2];
+				byte[] codas = new byte[jongsungs.length * chosungs.length * 2];
+
+				for (KoreanCharacter.Jongsung jongsung : jongsungs) {
+					KoreanCharacter prev = new KoreanCharacter(KoreanCharacter.Chosung.ㄱ, KoreanCharacter.Jungsung.ㅏ, jongsung);
+
+					for (KoreanCharacter.Chosung chosung : chosungs) {
+						for (KoreanCharacter.Jungsung jungsung : new KoreanCharacter.Jungsung[]{KoreanCharacter.Jungsung.ㅏ, KoreanCharacter.Jungsung.ㅣ}) {
+							KoreanCharacter current = new KoreanCharacter(chosung, jungsung, KoreanCharacter.Jongsung.NONE);
+							int index = (jongsung.ordinal() * chosungs.length + chosung.ordinal()) * 2 + (jungsung.isInducePalatalization() ? 1 : 0);
+
+							onsets[index] = fragment(chosung.getPronunciation(prev, current, consonantAssimilation, type));
+							codas[index] = fragment(jongsung.getPronunciation(current, consonantAssimilation, type));
+						}
+					}
+				}
+
+				int variant = type.ordinal() * consonantAssimilations.length + consonantAssimilation.ordinal();
+				junctions[variant * 2] = onsets;
+				junctions[variant * 2 + 1] = codas;
+			}
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeInt(FormatVersion);
+			output.writeInt(fragmentList.size());
+
+			for (String fragment : fragmentList) {
+				output.writeUTF(fragment);
+			}
+
+			output.write(defaultOnsets);
+			output.write(defaultCodas);
+			output.write(vowels);
+			output.write(hyphenatedVowels);
+			output.write(palatalizations);
+			output.write(vowelHyphens);
+			output.writeInt(types.length);
+			output.writeInt(consonantAssimilations.length);
+
+			for (byte[] junction : junctions) {
+				output.write(junction);
+			}
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private byte fragment(String fragment) {
+		Integer index = fragmentIndexes.get(fragment);
+
+		if (index == null) {
+			index = fragmentList.size();
+			fragmentIndexes.put(fragment, index);
+			fragmentList.add(fragment);
+		}
+
+		return (byte) (int) index;
+	}
+}
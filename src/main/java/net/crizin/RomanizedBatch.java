@@ -0,0 +1,271 @@
+package net.crizin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A columnar batch of romanized strings for jobs romanizing millions of short strings, where a {@link String} per record
+ * would dominate the garbage collection.
+ * <p>
+ * The romanized records are appended one after another into a single character array, the arena, and record {@code i} spans
+ * from {@code getOffsets()[i]} to {@code getOffsets()[i + 1]}. Records are romanized straight into the arena, and no object is
+ * allocated per record once the arena is large enough, so clearing and reusing a batch allocates nothing at all.
+ * <p>
+ * The arena grows by doubling, reserving {@link Romanizer#maxRomanizedLength(int)} of the romanizer before each record,
+ * which includes the forced romanizations of its dictionary. With exact sizing, the
+ * exact length of the whole input is counted with {@link Romanizer#romanizedLength(CharSequence)} first and the arena grows
+ * once to fit it, which takes a second pass over the input but allocates no more characters than the output has.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class RomanizedBatch {
+	private static final int InitialCapacity = 1024;
+
+	private final Romanizer romanizer;
+	private final boolean exactSizing;
+	private final Romanizer.LengthCounter counter = new Romanizer.LengthCounter();
+	private char[] characters;
+	private int[] offsets;
+	private int size;
+
+	/**
+	 * The arena as the output of the romanizer, positioned after the last record.
+	 */
+	private CharBuffer output;
+
+	/**
+	 * Create a batch growing by doubling.
+	 *
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @throws NullPointerException
+	 * 		if romanizer is null
+	 */
+	public RomanizedBatch(Romanizer romanizer) {
+		this(romanizer, false);
+	}
+
+	/**
+	 * Create a batch.
+	 *
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @param exactSizing
+	 * 		whether to count the exact length of each input before romanizing it, to grow the arena only once per input.
+	 * @throws NullPointerException
+	 * 		if romanizer is null
+	 */
+	public RomanizedBatch(Romanizer romanizer, boolean exactSizing) {
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+		this.exactSizing = exactSizing;
+		this.offsets = new int[InitialCapacity + 1];
+		setCharacters(new char[exactSizing ? 0 : InitialCapacity], 0);
+	}
+
+	/**
+	 * Romanize the strings and append them as records.
+	 *
+	 * @param strings
+	 * 		the strings to convert.
+	 * @return this batch
+	 * @throws NullPointerException
+	 * 		if strings or any of its elements is null
+	 */
+	public RomanizedBatch romanizeAll(String[] strings) {
+		Objects.requireNonNull(strings, "Strings should not be null.");
+
+		for (String string : strings) {
+			Objects.requireNonNull(string, "String should not be null.");
+		}
+
+		if (exactSizing) {
+			long length = 0;
+
+			for (String string : strings) {
+				length += romanizer.romanizedLength(null, string, 0, string.length(), counter);
+			}
+
+			reserve(length);
+		}
+
+		for (String string : strings) {
+			append(null, string, 0, string.length());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Romanize the records of an input arena laid out like the output, and append them as records.
+	 *
+	 * @param input
+	 * 		the characters of the input records.
+	 * @param inputOffsets
+	 * 		the offsets of the input records, where record {@code i} spans from {@code inputOffsets[i]} to {@code inputOffsets[i + 1]}.
+	 * @param count
+	 * 		the number of input records.
+	 * @return this batch
+	 * @throws NullPointerException
+	 * 		if input or inputOffsets is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if count is negative, or a record is out of the input
+	 */
+	public RomanizedBatch romanizeAll(char[] input, int[] inputOffsets, int count) {
+		Objects.requireNonNull(input, "Input should not be null.");
+		Objects.requireNonNull(inputOffsets, "InputOffsets should not be null.");
+
+		if (count < 0 || count >= inputOffsets.length) {
+			throw new IndexOutOfBoundsException("Count should be between 0 and " + (inputOffsets.length - 1) + ": " + count);
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (inputOffsets[i] < 0 || inputOffsets[i] > inputOffsets[i + 1] || inputOffsets[i + 1] > input.length) {
+				throw new IndexOutOfBoundsException("Record " + i + " is out of the input: " + inputOffsets[i] + " to " + inputOffsets[i + 1]);
+			}
+		}
+
+		if (exactSizing) {
+			long length = 0;
+
+			for (int i = 0; i < count; i++) {
+				length += romanizer.romanizedLength(input, null, inputOffsets[i], inputOffsets[i + 1], counter);
+			}
+
+			reserve(length);
+		}
+
+		for (int i = 0; i < count; i++) {
+			append(input, null, inputOffsets[i], inputOffsets[i + 1]);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Remove all records, keeping the arena to reuse.
+	 */
+	public void clear() {
+		size = 0;
+		((Buffer) output).clear();
+	}
+
+	/**
+	 * @return the number of records.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of characters of all records.
+	 */
+	public int length() {
+		return offsets[size];
+	}
+
+	/**
+	 * @return the arena, whose first {@link #length()} characters are the records. It is replaced as the batch grows.
+	 */
+	public char[] getCharacters() {
+		return characters;
+	}
+
+	/**
+	 * @return the offsets of the records, whose first {@link #size()}{@code  + 1} elements are valid. It is replaced as the batch grows.
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * @param index
+	 * 		the index of the record.
+	 * @return the romanized record as a new string.
+	 * @throws IndexOutOfBoundsException
+	 * 		if index is out of range
+	 */
+	public String get(int index) {
+		checkIndex(index);
+		return new String(characters, offsets[index], offsets[index + 1] - offsets[index]);
+	}
+
+	/**
+	 * Append a romanized record to the output, without creating a string.
+	 *
+	 * @param index
+	 * 		the index of the record.
+	 * @param output
+	 * 		the output to append to.
+	 * @param <T>
+	 * 		the type of output
+	 * @return the output
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws IndexOutOfBoundsException
+	 * 		if index is out of range
+	 * @throws NullPointerException
+	 * 		if output parameter is null
+	 */
+	public <T extends Appendable> T appendTo(int index, T output) throws IOException {
+		checkIndex(index);
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		RomanizationTable.write(characters, offsets[index], offsets[index + 1] - offsets[index], output);
+		return output;
+	}
+
+	@Override
+	public String toString() {
+		return "RomanizedBatch(" + romanizer + ", " + size + " records, " + length() + " of " + characters.length + " characters)";
+	}
+
+	private void append(char[] input, CharSequence sequence, int start, int end) {
+		if (!exactSizing) {
+			reserve(romanizer.maxRomanizedLength(end - start));
+		}
+
+		if (size + 1 == offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+
+		try {
+			romanizer.romanize(input, sequence, start, end, output);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		offsets[++size] = output.position();
+	}
+
+	/**
+	 * Grow the arena to fit that many more characters.
+	 */
+	private void reserve(long length) {
+		long required = output.position() + length;
+
+		if (required > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Batch should not exceed " + (Integer.MAX_VALUE - 8) + " characters: " + required);
+		}
+
+		if (required > characters.length) {
+			int capacity = exactSizing ? (int) required : (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, characters.length * 2L));
+			setCharacters(Arrays.copyOf(characters, capacity), output.position());
+		}
+	}
+
+	private void setCharacters(char[] characters, int position) {
+		this.characters = characters;
+		this.output = CharBuffer.wrap(characters);
+		((Buffer) output).position(position);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index should be between 0 and " + (size - 1) + ": " + index);
+		}
+	}
+}
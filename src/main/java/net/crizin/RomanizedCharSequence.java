@@ -0,0 +1,163 @@
+package net.crizin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * A romanized view of a text which romanizes the text only as far as it is read.
+ * <p>
+ * The text is romanized in chunks of about {@value ChunkSize} characters and the romanized characters are kept,
+ * so reading the first characters, {@link #startsWith(CharSequence)} and {@link #truncate(int)} only pay for the part they read.
+ * Chunks end right before non-Hangul characters, where no pronunciation rule applies across, so the characters are always the same as
+ * {@link Romanizer#romanize(String)}. {@link #length()} and {@link #toString()} romanize the whole text.
+ * <p>
+ * {@link KoreanCharacter.Type#District District}, {@link KoreanCharacter.Type#Name Name} and
+ * {@link KoreanCharacter.Type#NameTypical NameTypical} normalize the text as a whole, so they romanize the whole text on the first read,
+ * as does a romanizer with a {@link RomanizationDictionary}, whose words may contain non-Hangul characters.
+ * <p>
+ * The text should not change while it is read. Instances are not thread-safe.
+ */
+public final class RomanizedCharSequence implements CharSequence {
+	/**
+	 * Number of characters romanized at once, unless a run of Hangul syllables continues.
+	 */
+	private static final int ChunkSize = 256;
+
+	private final CharSequence source;
+	private final Romanizer romanizer;
+	private final boolean wholeText;
+	private final StringBuilder romanized;
+
+	/**
+	 * The index of the first source character not romanized yet.
+	 */
+	private int sourceIndex;
+
+	/**
+	 * Create a romanized view of a text.
+	 *
+	 * @param source
+	 * 		the text to convert.
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @throws NullPointerException
+	 * 		if source or romanizer parameter is null
+	 */
+	public RomanizedCharSequence(CharSequence source, Romanizer romanizer) {
+		this.source = Objects.requireNonNull(source, "Source should not be null.");
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+
+		this.wholeText = romanizer.isWholeText();
+		this.romanized = new StringBuilder(Math.min(source.length(), ChunkSize) * 3);
+	}
+
+	/**
+	 * Romanizes the whole text.
+	 */
+	@Override
+	public int length() {
+		romanize(Integer.MAX_VALUE);
+		return romanized.length();
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || !romanize(index + 1)) {
+			throw new IndexOutOfBoundsException("index " + index);
+		}
+
+		return romanized.charAt(index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || start > end || !romanize(end)) {
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end);
+		}
+
+		return romanized.substring(start, end);
+	}
+
+	/**
+	 * @param prefix
+	 * 		the prefix to check.
+	 * @return true if the romanized text starts with the prefix.
+	 * @throws NullPointerException
+	 * 		if prefix parameter is null
+	 */
+	public boolean startsWith(CharSequence prefix) {
+		Objects.requireNonNull(prefix, "Prefix should not be null.");
+
+		if (!romanize(prefix.length())) {
+			return false;
+		}
+
+		for (int i = 0; i < prefix.length(); i++) {
+			if (romanized.charAt(i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param maxLength
+	 * 		the maximum number of characters.
+	 * @return the romanized text, cut to at most the number of characters.
+	 * @throws IllegalArgumentException
+	 * 		if maxLength is negative
+	 */
+	public String truncate(int maxLength) {
+		if (maxLength < 0) {
+			throw new IllegalArgumentException("Max length should not be negative: " + maxLength);
+		}
+
+		romanize(maxLength);
+		return romanized.substring(0, Math.min(maxLength, romanized.length()));
+	}
+
+	/**
+	 * Romanizes the whole text.
+	 */
+	@Override
+	public String toString() {
+		romanize(Integer.MAX_VALUE);
+		return romanized.toString();
+	}
+
+	/**
+	 * Romanizes chunks until at least the number of characters are romanized or the text ends.
+	 *
+	 * @return true if at least the number of characters are romanized.
+	 */
+	private boolean romanize(int length) {
+		while (romanized.length() < length && sourceIndex < source.length()) {
+			int end = wholeText ? source.length() : getChunkEnd(sourceIndex);
+
+			try {
+				romanizer.romanize(null, source, sourceIndex, end, romanized);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			sourceIndex = end;
+		}
+
+		return romanized.length() >= length;
+	}
+
+	/**
+	 * @return the index after the chunk starting at the index, which is the end of the text or a character neither Hangul nor a composed jamo.
+	 */
+	private int getChunkEnd(int start) {
+		int end = (int) Math.min(source.length(), (long) start + ChunkSize);
+
+		while (end < source.length() && !romanizer.isBoundary(source.charAt(end))) {
+			end++;
+		}
+
+		return end;
+	}
+}
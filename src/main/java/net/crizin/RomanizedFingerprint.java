@@ -0,0 +1,350 @@
+package net.crizin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Objects;
+
+/**
+ * Stable 64-bit hashes of romanized strings, for deduplicating records by their romanization without creating it.
+ * <p>
+ * The romanized characters are normalized and hashed as the romanizer appends them, so no string is built.
+ * A fingerprint is the <a href="https://github.com/Cyan4973/xxHash">XXH64</a> hash of the UTF-8 bytes of the normalized romanized string
+ * with the seed, so it is the same on every JVM and can be computed by any XXH64 implementation, and it only changes if the
+ * romanization itself changes. Lone surrogates are hashed as {@code ?}, like {@link String#getBytes(java.nio.charset.Charset)} encodes them.
+ * <pre>
+ * RomanizedFingerprint fingerprint = new RomanizedFingerprint(Romanizer.of(null, null), RomanizedFingerprint.Option.values());
+ * fingerprint.fingerprint("중앙") == fingerprint.fingerprint("중 앙"); // both hash "jungang"
+ * </pre>
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class RomanizedFingerprint {
+	/**
+	 * Normalizations of the romanized string before hashing. They only change ASCII characters,
+	 * so that fingerprints do not depend on the Unicode version of the JVM.
+	 */
+	public enum Option {
+		/**
+		 * Hash the ASCII letters in lower case.
+		 */
+		LowerCase,
+
+		/**
+		 * Skip hyphens.
+		 */
+		StripHyphens,
+
+		/**
+		 * Skip ASCII whitespace: space, tab, line feed, vertical tab, form feed and carriage return.
+		 */
+		StripWhitespace
+	}
+
+	private final Romanizer romanizer;
+	private final long seed;
+	private final EnumSet<Option> options;
+	private final Hasher hasher;
+
+	/**
+	 * Create fingerprints with seed 0.
+	 *
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @param options
+	 * 		the normalizations of the romanized string.
+	 * @throws NullPointerException
+	 * 		if romanizer or any of the options is null
+	 */
+	public RomanizedFingerprint(Romanizer romanizer, Option... options) {
+		this(romanizer, 0, options);
+	}
+
+	/**
+	 * Create fingerprints.
+	 *
+	 * @param romanizer
+	 * 		the romanizer to convert with.
+	 * @param seed
+	 * 		the seed of the hash.
+	 * @param options
+	 * 		the normalizations of the romanized string.
+	 * @throws NullPointerException
+	 * 		if romanizer or any of the options is null
+	 */
+	public RomanizedFingerprint(Romanizer romanizer, long seed, Option... options) {
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+		this.seed = seed;
+		this.options = EnumSet.noneOf(Option.class);
+
+		for (Option option : options) {
+			this.options.add(Objects.requireNonNull(option, "Option should not be null."));
+		}
+
+		this.hasher = new Hasher(this.options.contains(Option.LowerCase), this.options.contains(Option.StripHyphens), this.options.contains(Option.StripWhitespace));
+	}
+
+	/**
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @return the fingerprint of the romanized string.
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 */
+	public long fingerprint(CharSequence string) {
+		Objects.requireNonNull(string, "String should not be null.");
+		return fingerprint(string, 0, string.length());
+	}
+
+	/**
+	 * @param strings
+	 * 		the strings to convert.
+	 * @return the fingerprints of the romanized strings, in the same order.
+	 * @throws NullPointerException
+	 * 		if strings or any of its elements is null
+	 */
+	public long[] fingerprintAll(String[] strings) {
+		Objects.requireNonNull(strings, "Strings should not be null.");
+
+		for (String string : strings) {
+			Objects.requireNonNull(string, "String should not be null.");
+		}
+
+		long[] fingerprints = new long[strings.length];
+
+		for (int i = 0; i < strings.length; i++) {
+			fingerprints[i] = fingerprint(strings[i], 0, strings[i].length());
+		}
+
+		return fingerprints;
+	}
+
+	/**
+	 * @return the normalizations of the romanized string.
+	 */
+	public EnumSet<Option> getOptions() {
+		return EnumSet.copyOf(options);
+	}
+
+	/**
+	 * @return the seed of the hash.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public String toString() {
+		return "RomanizedFingerprint(" + romanizer + ", " + seed + ", " + options + ")";
+	}
+
+	private long fingerprint(CharSequence string, int start, int end) {
+		hasher.reset(seed);
+
+		try {
+			romanizer.romanize(null, string, start, end, hasher);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return hasher.finish();
+	}
+
+	/**
+	 * Normalizes the appended characters, encodes them in UTF-8 and hashes the bytes with XXH64.
+	 */
+	static final class Hasher implements Appendable {
+		private static final long Prime1 = 0x9E3779B185EBCA87L;
+		private static final long Prime2 = 0xC2B2AE3D27D4EB4FL;
+		private static final long Prime3 = 0x165667B19E3779F9L;
+		private static final long Prime4 = 0x85EBCA77C2B2AE63L;
+		private static final long Prime5 = 0x27D4EB2F165667C5L;
+
+		private static final int StripeLength = 32;
+
+		private final boolean lowerCase;
+		private final boolean stripHyphens;
+		private final boolean stripWhitespace;
+
+		/**
+		 * The bytes of the stripe being filled.
+		 */
+		private final byte[] stripe = new byte[StripeLength];
+
+		private long seed;
+		private long accumulator1;
+		private long accumulator2;
+		private long accumulator3;
+		private long accumulator4;
+		private long length;
+		private int buffered;
+
+		/**
+		 * A high surrogate waiting for the low one, or 0.
+		 */
+		private char highSurrogate;
+
+		Hasher(boolean lowerCase, boolean stripHyphens, boolean stripWhitespace) {
+			this.lowerCase = lowerCase;
+			this.stripHyphens = stripHyphens;
+			this.stripWhitespace = stripWhitespace;
+		}
+
+		void reset(long seed) {
+			this.seed = seed;
+			accumulator1 = seed + Prime1 + Prime2;
+			accumulator2 = seed + Prime2;
+			accumulator3 = seed;
+			accumulator4 = seed - Prime1;
+			length = 0;
+			buffered = 0;
+			highSurrogate = 0;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			String string = String.valueOf(csq);
+			return append(string, 0, string.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			for (int i = start; i < end; i++) {
+				append(csq.charAt(i));
+			}
+
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			if (c < 0x80) {
+				// Stripped characters are removed before encoding, so they may split a surrogate pair.
+				if ((stripHyphens && c == '-') || (stripWhitespace && (c == ' ' || (c >= '\t' && c <= '\r')))) {
+					return this;
+				}
+
+				if (highSurrogate != 0) {
+					flushSurrogate();
+				}
+
+				update((byte) ((lowerCase && c >= 'A' && c <= 'Z') ? c + ('a' - 'A') : c));
+			} else if (Character.isHighSurrogate(c)) {
+				if (highSurrogate != 0) {
+					flushSurrogate();
+				}
+
+				highSurrogate = c;
+			} else if (Character.isLowSurrogate(c)) {
+				if (highSurrogate == 0) {
+					update((byte) '?');
+				} else {
+					int codePoint = Character.toCodePoint(highSurrogate, c);
+					highSurrogate = 0;
+					update((byte) (0xF0 | (codePoint >> 18)));
+					update((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+					update((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+					update((byte) (0x80 | (codePoint & 0x3F)));
+				}
+			} else {
+				if (highSurrogate != 0) {
+					flushSurrogate();
+				}
+
+				if (c < 0x800) {
+					update((byte) (0xC0 | (c >> 6)));
+				} else {
+					update((byte) (0xE0 | (c >> 12)));
+					update((byte) (0x80 | ((c >> 6) & 0x3F)));
+				}
+
+				update((byte) (0x80 | (c & 0x3F)));
+			}
+
+			return this;
+		}
+
+		/**
+		 * @return the hash of the bytes since {@link #reset(long)}.
+		 */
+		long finish() {
+			if (highSurrogate != 0) {
+				flushSurrogate();
+			}
+
+			long hash;
+
+			if (length >= StripeLength) {
+				hash = Long.rotateLeft(accumulator1, 1) + Long.rotateLeft(accumulator2, 7) + Long.rotateLeft(accumulator3, 12) + Long.rotateLeft(accumulator4, 18);
+				hash = merge(hash, accumulator1);
+				hash = merge(hash, accumulator2);
+				hash = merge(hash, accumulator3);
+				hash = merge(hash, accumulator4);
+			} else {
+				hash = seed + Prime5;
+			}
+
+			hash += length;
+
+			int i = 0;
+
+			for (; i + 8 <= buffered; i += 8) {
+				hash ^= round(0, readLong(i));
+				hash = Long.rotateLeft(hash, 27) * Prime1 + Prime4;
+			}
+
+			if (i + 4 <= buffered) {
+				hash ^= (readInt(i) & 0xFFFFFFFFL) * Prime1;
+				hash = Long.rotateLeft(hash, 23) * Prime2 + Prime3;
+				i += 4;
+			}
+
+			for (; i < buffered; i++) {
+				hash ^= (stripe[i] & 0xFF) * Prime5;
+				hash = Long.rotateLeft(hash, 11) * Prime1;
+			}
+
+			hash ^= hash >>> 33;
+			hash *= Prime2;
+			hash ^= hash >>> 29;
+			hash *= Prime3;
+			hash ^= hash >>> 32;
+
+			return hash;
+		}
+
+		private void flushSurrogate() {
+			highSurrogate = 0;
+			update((byte) '?');
+		}
+
+		void update(byte value) {
+			stripe[buffered++] = value;
+			length++;
+
+			if (buffered == StripeLength) {
+				accumulator1 = round(accumulator1, readLong(0));
+				accumulator2 = round(accumulator2, readLong(8));
+				accumulator3 = round(accumulator3, readLong(16));
+				accumulator4 = round(accumulator4, readLong(24));
+				buffered = 0;
+			}
+		}
+
+		private long readLong(int index) {
+			return (readInt(index) & 0xFFFFFFFFL) | ((long) readInt(index + 4) << 32);
+		}
+
+		private int readInt(int index) {
+			return (stripe[index] & 0xFF) | (stripe[index + 1] & 0xFF) << 8 | (stripe[index + 2] & 0xFF) << 16 | (stripe[index + 3] & 0xFF) << 24;
+		}
+
+		private static long round(long accumulator, long input) {
+			return Long.rotateLeft(accumulator + input * Prime2, 31) * Prime1;
+		}
+
+		private static long merge(long hash, long accumulator) {
+			return (hash ^ round(0, accumulator)) * Prime1 + Prime4;
+		}
+	}
+}
@@ -0,0 +1,509 @@
+package net.crizin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An autocomplete index which finds Hangul entries by prefixes of their romanizations, like {@code seo} for {@code 서울}.
+ * <p>
+ * Every entry is indexed under its romanizations with both {@link KoreanCharacter.ConsonantAssimilation} types,
+ * in lower case. The distinct romanizations are sorted and packed into a single character array, and the entries under
+ * each of them are kept in an array of ranks, where a smaller rank means a larger weight.
+ * A prefix selects a contiguous range of the ranks with two binary searches, and the {@code k} smallest ranks of the range are
+ * found with a sparse table of the minimums of fixed-size blocks, so lookups take a few microseconds however many entries match.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public class RomanizedPrefixIndex {
+	/**
+	 * Number of ranks summarized by an element of the sparse table.
+	 */
+	private static final int BlockSize = 32;
+
+	private final String[] entries;
+	private final char[] keyCharacters;
+	private final int[] keyOffsets;
+	private final int[] keyRowStarts;
+	private final int[] ranks;
+
+	/**
+	 * {@code blockMinimums[j][b]} is the index of the smallest rank in blocks {@code b} to {@code b + 2^j - 1}.
+	 */
+	private final int[][] blockMinimums;
+
+	private final long buildNanos;
+
+	private RomanizedPrefixIndex(String[] entries, List<String> keys, List<int[]> keyRanks, long buildStartTime) {
+		this.entries = entries;
+
+		int characterCount = 0;
+		int rowCount = 0;
+
+		for (int i = 0; i < keys.size(); i++) {
+			characterCount += keys.get(i).length();
+			rowCount += keyRanks.get(i).length;
+		}
+
+		keyCharacters = new char[characterCount];
+		keyOffsets = new int[keys.size() + 1];
+		keyRowStarts = new int[keys.size() + 1];
+		ranks = new int[rowCount];
+
+		for (int i = 0; i < keys.size(); i++) {
+			String key = keys.get(i);
+			int[] rowRanks = keyRanks.get(i);
+
+			key.getChars(0, key.length(), keyCharacters, keyOffsets[i]);
+			keyOffsets[i + 1] = keyOffsets[i] + key.length();
+			System.arraycopy(rowRanks, 0, ranks, keyRowStarts[i], rowRanks.length);
+			keyRowStarts[i + 1] = keyRowStarts[i] + rowRanks.length;
+		}
+
+		blockMinimums = buildBlockMinimums();
+		buildNanos = System.nanoTime() - buildStartTime;
+	}
+
+	/**
+	 * Create a builder of an index.
+	 *
+	 * @return a new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Find the entries with the largest weights among those with a romanization starting with the prefix, ignoring case.
+	 *
+	 * @param prefix
+	 * 		the romanized prefix typed.
+	 * @param limit
+	 * 		the maximum number of entries to find.
+	 * @return the entries in descending order of weight, entries with the same weight in the order they were added.
+	 * @throws NullPointerException
+	 * 		if prefix parameter is null
+	 * @throws IllegalArgumentException
+	 * 		if limit is negative
+	 */
+	public List<String> lookup(CharSequence prefix, int limit) {
+		Objects.requireNonNull(prefix, "Prefix should not be null.");
+
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit should not be negative: " + limit);
+		}
+
+		limit = Math.min(limit, entries.length);
+
+		int firstKey = searchKey(prefix, false);
+		int lastKey = searchKey(prefix, true);
+		List<String> results = new ArrayList<>(Math.min(limit, 16));
+
+		if (firstKey == lastKey || limit == 0) {
+			return results;
+		}
+
+		// Ranges of rows are kept in a binary heap ordered by their smallest ranks, each split in two when its smallest rank is taken.
+		// An entry has at most two rows, so at most twice the limit of ranges are taken and the heap never outgrows its capacity.
+		int capacity = limit * 2 + 2;
+		int[] heapStarts = new int[capacity];
+		int[] heapEnds = new int[capacity];
+		int[] heapMinimums = new int[capacity];
+		int[] found = new int[limit];
+		int heapSize = push(heapStarts, heapEnds, heapMinimums, 0, keyRowStarts[firstKey], keyRowStarts[lastKey]);
+
+		while (heapSize > 0 && results.size() < limit) {
+			int start = heapStarts[0];
+			int end = heapEnds[0];
+			int minimum = heapMinimums[0];
+			heapSize = pop(heapStarts, heapEnds, heapMinimums, heapSize);
+
+			// An entry appears twice when its romanizations differ only after the prefix.
+			if (!contains(found, results.size(), ranks[minimum])) {
+				found[results.size()] = ranks[minimum];
+				results.add(entries[ranks[minimum]]);
+			}
+
+			heapSize = push(heapStarts, heapEnds, heapMinimums, heapSize, start, minimum);
+			heapSize = push(heapStarts, heapEnds, heapMinimums, heapSize, minimum + 1, end);
+		}
+
+		return results;
+	}
+
+	/**
+	 * @return the number of entries.
+	 */
+	public int size() {
+		return entries.length;
+	}
+
+	/**
+	 * @return the number of distinct romanizations.
+	 */
+	public int getKeyCount() {
+		return keyOffsets.length - 1;
+	}
+
+	/**
+	 * @return the nanoseconds taken to romanize the entries and build the index.
+	 */
+	public long getBuildNanos() {
+		return buildNanos;
+	}
+
+	/**
+	 * @return the approximate number of bytes of the index structure, not counting the entry strings themselves.
+	 */
+	public long getMemoryUsage() {
+		long bytes = arrayBytes(entries.length, 4) + arrayBytes(keyCharacters.length, 2) + arrayBytes(keyOffsets.length, 4)
+				+ arrayBytes(keyRowStarts.length, 4) + arrayBytes(ranks.length, 4) + arrayBytes(blockMinimums.length, 4);
+
+		for (int[] level : blockMinimums) {
+			bytes += arrayBytes(level.length, 4);
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * @return the approximate number of bytes of the index structure per entry.
+	 */
+	public double getMemoryUsagePerEntry() {
+		return (entries.length == 0) ? 0 : (double) getMemoryUsage() / entries.length;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RomanizedPrefixIndex(%,d entries, %,d keys, %,d bytes, %.1f bytes/entry, built in %.3f ms)",
+				size(), getKeyCount(), getMemoryUsage(), getMemoryUsagePerEntry(), buildNanos / 1e6);
+	}
+
+	/**
+	 * @param after
+	 * 		whether to find the first key after the keys starting with the prefix rather than the first of them.
+	 * @return the index of the key.
+	 */
+	private int searchKey(CharSequence prefix, boolean after) {
+		int low = 0;
+		int high = keyOffsets.length - 1;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int comparison = comparePrefix(middle, prefix);
+
+			if (comparison < 0 || (after && comparison == 0)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * @return the comparison of the key cut to the length of the prefix with the prefix in lower case.
+	 */
+	private int comparePrefix(int key, CharSequence prefix) {
+		int offset = keyOffsets[key];
+		int length = keyOffsets[key + 1] - offset;
+
+		for (int i = 0; i < prefix.length(); i++) {
+			if (i == length) {
+				return -1;
+			}
+
+			char character = prefix.charAt(i);
+			character = (character >= 'A' && character <= 'Z') ? (char) (character + ('a' - 'A')) : Character.toLowerCase(character);
+
+			if (keyCharacters[offset + i] != character) {
+				return keyCharacters[offset + i] - character;
+			}
+		}
+
+		return 0;
+	}
+
+	private int[][] buildBlockMinimums() {
+		int blockCount = (ranks.length + BlockSize - 1) / BlockSize;
+		int levels = (blockCount == 0) ? 0 : 32 - Integer.numberOfLeadingZeros(blockCount);
+		int[][] minimums = new int[levels][];
+
+		if (levels > 0) {
+			minimums[0] = new int[blockCount];
+
+			for (int block = 0; block < blockCount; block++) {
+				minimums[0][block] = scanMinimum(block * BlockSize, Math.min(ranks.length, (block + 1) * BlockSize));
+			}
+		}
+
+		for (int level = 1; level < levels; level++) {
+			int span = 1 << (level - 1);
+			minimums[level] = new int[blockCount - (1 << level) + 1];
+
+			for (int block = 0; block < minimums[level].length; block++) {
+				minimums[level][block] = smaller(minimums[level - 1][block], minimums[level - 1][block + span]);
+			}
+		}
+
+		return minimums;
+	}
+
+	/**
+	 * @return the index of the smallest rank in the rows from start to end, exclusive.
+	 */
+	private int minimum(int start, int end) {
+		int firstBlock = (start + BlockSize - 1) / BlockSize;
+		int lastBlock = end / BlockSize;
+
+		if (firstBlock >= lastBlock) {
+			return scanMinimum(start, end);
+		}
+
+		int level = 31 - Integer.numberOfLeadingZeros(lastBlock - firstBlock);
+		int minimum = smaller(blockMinimums[level][firstBlock], blockMinimums[level][lastBlock - (1 << level)]);
+
+		if (start < firstBlock * BlockSize) {
+			minimum = smaller(scanMinimum(start, firstBlock * BlockSize), minimum);
+		}
+
+		if (lastBlock * BlockSize < end) {
+			minimum = smaller(minimum, scanMinimum(lastBlock * BlockSize, end));
+		}
+
+		return minimum;
+	}
+
+	private int scanMinimum(int start, int end) {
+		int minimum = start;
+
+		for (int i = start + 1; i < end; i++) {
+			if (ranks[i] < ranks[minimum]) {
+				minimum = i;
+			}
+		}
+
+		return minimum;
+	}
+
+	private int smaller(int row1, int row2) {
+		return (ranks[row2] < ranks[row1]) ? row2 : row1;
+	}
+
+	private int push(int[] starts, int[] ends, int[] minimums, int size, int start, int end) {
+		if (start >= end) {
+			return size;
+		}
+
+		int minimum = minimum(start, end);
+		int index = size;
+
+		while (index > 0 && ranks[minimums[(index - 1) / 2]] > ranks[minimum]) {
+			int parent = (index - 1) / 2;
+			starts[index] = starts[parent];
+			ends[index] = ends[parent];
+			minimums[index] = minimums[parent];
+			index = parent;
+		}
+
+		starts[index] = start;
+		ends[index] = end;
+		minimums[index] = minimum;
+		return size + 1;
+	}
+
+	private int pop(int[] starts, int[] ends, int[] minimums, int size) {
+		size--;
+
+		int start = starts[size];
+		int end = ends[size];
+		int minimum = minimums[size];
+		int index = 0;
+
+		while (index * 2 + 1 < size) {
+			int child = index * 2 + 1;
+
+			if (child + 1 < size && ranks[minimums[child + 1]] < ranks[minimums[child]]) {
+				child++;
+			}
+
+			if (ranks[minimums[child]] >= ranks[minimum]) {
+				break;
+			}
+
+			starts[index] = starts[child];
+			ends[index] = ends[child];
+			minimums[index] = minimums[child];
+			index = child;
+		}
+
+		starts[index] = start;
+		ends[index] = end;
+		minimums[index] = minimum;
+		return size;
+	}
+
+	private static boolean contains(int[] values, int size, int value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static long arrayBytes(int length, int elementSize) {
+		return 16 + (long) length * elementSize;
+	}
+
+	/**
+	 * Builds {@link RomanizedPrefixIndex}es.
+	 */
+	public static final class Builder {
+		private final Map<String, Long> weights = new HashMap<>();
+		private final List<String> entries = new ArrayList<>();
+		private KoreanCharacter.Type type;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param type
+		 * 		the type of word to romanize the entries as, or null for {@link KoreanCharacter.Type#Typical Typical}.
+		 * @return this builder
+		 */
+		public Builder type(KoreanCharacter.Type type) {
+			this.type = type;
+			return this;
+		}
+
+		/**
+		 * Add an entry. An entry added again keeps the larger weight.
+		 *
+		 * @param entry
+		 * 		the Hangul string to find.
+		 * @param weight
+		 * 		the weight of the entry, where larger weights are found first.
+		 * @return this builder
+		 * @throws NullPointerException
+		 * 		if entry parameter is null
+		 */
+		public Builder add(String entry, long weight) {
+			Objects.requireNonNull(entry, "Entry should not be null.");
+
+			Long previousWeight = weights.get(entry);
+
+			if (previousWeight == null) {
+				entries.add(entry);
+				weights.put(entry, weight);
+			} else if (previousWeight < weight) {
+				weights.put(entry, weight);
+			}
+
+			return this;
+		}
+
+		/**
+		 * Add entries with the same weight.
+		 *
+		 * @param entries
+		 * 		the Hangul strings to find.
+		 * @param weight
+		 * 		the weight of the entries.
+		 * @return this builder
+		 * @throws NullPointerException
+		 * 		if entries or any of its elements is null
+		 */
+		public Builder addAll(Iterable<String> entries, long weight) {
+			Objects.requireNonNull(entries, "Entries should not be null.");
+
+			for (String entry : entries) {
+				add(entry, weight);
+			}
+
+			return this;
+		}
+
+		/**
+		 * @return the index of the entries added so far.
+		 */
+		public RomanizedPrefixIndex build() {
+			long startTime = System.nanoTime();
+
+			// Ranks follow descending weights, ties keeping the order of addition.
+			String[] rankedEntries = entries.toArray(new String[0]);
+			Long[] rankedWeights = new Long[rankedEntries.length];
+
+			for (int i = 0; i < rankedEntries.length; i++) {
+				rankedWeights[i] = weights.get(rankedEntries[i]);
+			}
+
+			Integer[] order = new Integer[rankedEntries.length];
+
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+
+			Arrays.sort(order, (i, j) -> Long.compare(rankedWeights[j], rankedWeights[i]));
+
+			String[] sortedEntries = new String[order.length];
+			int[] rowRanks = new int[order.length * 2];
+			String[] romanizations = new String[order.length * 2];
+			int rowCount = 0;
+
+			for (int rank = 0; rank < order.length; rank++) {
+				sortedEntries[rank] = rankedEntries[order[rank]];
+
+				for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : KoreanCharacter.ConsonantAssimilation.values()) {
+					String romanized = Romanizer.of(type, consonantAssimilation).romanize(sortedEntries[rank]).toLowerCase(Locale.ROOT);
+
+					if (rowCount == 0 || rowRanks[rowCount - 1] != rank || !romanizations[rowCount - 1].equals(romanized)) {
+						romanizations[rowCount] = romanized;
+						rowRanks[rowCount++] = rank;
+					}
+				}
+			}
+
+			Integer[] rows = new Integer[rowCount];
+
+			for (int i = 0; i < rowCount; i++) {
+				rows[i] = i;
+			}
+
+			Arrays.sort(rows, (i, j) -> {
+				int comparison = romanizations[i].compareTo(romanizations[j]);
+				return (comparison != 0) ? comparison : Integer.compare(rowRanks[i], rowRanks[j]);
+			});
+
+			List<String> distinctKeys = new ArrayList<>();
+			List<int[]> keyRanks = new ArrayList<>();
+
+			for (int i = 0; i < rows.length; ) {
+				String key = romanizations[rows[i]];
+				int end = i;
+
+				while (end < rows.length && romanizations[rows[end]].equals(key)) {
+					end++;
+				}
+
+				int[] ranksOfKey = new int[end - i];
+
+				for (int row = i; row < end; row++) {
+					ranksOfKey[row - i] = rowRanks[rows[row]];
+				}
+
+				distinctKeys.add(key);
+				keyRanks.add(ranksOfKey);
+				i = end;
+			}
+
+			return new RomanizedPrefixIndex(sortedEntries, distinctKeys, keyRanks, startTime);
+		}
+	}
+}
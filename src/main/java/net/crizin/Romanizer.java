@@ -0,0 +1,1239 @@
+package net.crizin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A romanizer of a {@link KoreanCharacter.Type} and a {@link KoreanCharacter.ConsonantAssimilation}.
+ * The options are resolved once when it is built, so romanizing does not branch on them again.
+ * <p>
+ * Instances are immutable and thread-safe, and built instances of the same options are shared.
+ *
+ * <pre>
+ * Romanizer romanizer = Romanizer.builder().type(KoreanCharacter.Type.District).build();
+ * String romanized = romanizer.romanize("종로2가");
+ * </pre>
+ */
+public final class Romanizer {
+	/**
+	 * Whether syllables are romanized with {@link RomanizationTable} by default, see {@link KoreanRomanizer}.
+	 */
+	static final boolean useRomanizationTableByDefault = !"character".equals(System.getProperty("net.crizin.KoreanRomanizer.engine"));
+
+	/**
+	 * Runs of non-Hangul bytes at least this long are copied with a bulk {@link ByteBuffer#put(ByteBuffer)}.
+	 */
+	private static final int BulkCopyThreshold = 16;
+
+	/**
+	 * No syllable is romanized into more characters than this.
+	 */
+	private static final int MaxRomanizedSyllableLength = 9;
+
+	private static final KoreanCharacter.Type[] types = KoreanCharacter.Type.values();
+	private static final KoreanCharacter.ConsonantAssimilation[] consonantAssimilations = KoreanCharacter.ConsonantAssimilation.values();
+	private static final Romanizer[] instances = new Romanizer[types.length * consonantAssimilations.length];
+
+	/**
+	 * The listeners notified of every romanization, replaced as a whole when changed.
+	 */
+	private static volatile RomanizationListener[] listeners = new RomanizationListener[0];
+
+	static {
+		for (KoreanCharacter.Type type : types) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : consonantAssimilations) {
+				instances[type.ordinal() * consonantAssimilations.length + consonantAssimilation.ordinal()] = new Romanizer(type, consonantAssimilation, useRomanizationTableByDefault, false, false, null);
+			}
+		}
+	}
+
+	/**
+	 * How the whole input is rearranged before its syllables are romanized.
+	 */
+	private enum Normalization {
+		None, District, Name
+	}
+
+	private final KoreanCharacter.Type type;
+	private final KoreanCharacter.ConsonantAssimilation consonantAssimilation;
+	private final Normalization normalization;
+	private final boolean typicalSurname;
+
+	/**
+	 * Whether words after a hyphen or a digit start with a lower case letter, like {@code 2-ga} of the district names.
+	 */
+	private final boolean lowerCaseAfterHyphenOrDigit;
+
+	/**
+	 * The compiled rules, or null to romanize with {@link KoreanCharacter}.
+	 */
+	private final RomanizationTable table;
+
+	/**
+	 * Whether conjoining jamo are composed into syllables, see {@link JamoComposer}.
+	 */
+	private final boolean conjoiningJamo;
+
+	/**
+	 * Whether compatibility jamo are composed into syllables or romanized as letters, see {@link JamoComposer}.
+	 */
+	private final boolean compatibilityJamo;
+
+	/**
+	 * The words whose romanizations are forced, or null.
+	 */
+	private final RomanizationDictionary dictionary;
+
+	/**
+	 * The largest number of romanized characters per character, including the forced romanizations of the dictionary.
+	 */
+	private final int maxExpansion;
+
+	private Romanizer(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, boolean useRomanizationTable, boolean conjoiningJamo, boolean compatibilityJamo,
+			RomanizationDictionary dictionary) {
+		this.type = type;
+		this.consonantAssimilation = consonantAssimilation;
+		this.conjoiningJamo = conjoiningJamo;
+		this.compatibilityJamo = compatibilityJamo;
+		this.dictionary = dictionary;
+		this.maxExpansion = (dictionary != null) ? Math.max(MaxRomanizedSyllableLength, dictionary.getMaxExpansion()) : MaxRomanizedSyllableLength;
+		this.typicalSurname = (type == KoreanCharacter.Type.NameTypical);
+		this.lowerCaseAfterHyphenOrDigit = (type == KoreanCharacter.Type.District);
+		this.table = useRomanizationTable ? RomanizationTable.of(type, consonantAssimilation) : null;
+
+		switch (type) {
+			case District:
+				normalization = Normalization.District;
+				break;
+			case Name:
+			case NameTypical:
+				normalization = Normalization.Name;
+				break;
+			default:
+				normalization = Normalization.None;
+		}
+	}
+
+	/**
+	 * @return a new builder of the default options, {@link KoreanCharacter.Type#Typical Typical} and {@link KoreanCharacter.ConsonantAssimilation#Regressive Regressive}.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word, or null for {@link KoreanCharacter.Type#Typical Typical}.
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type, or null for {@link KoreanCharacter.ConsonantAssimilation#Regressive Regressive}.
+	 * @return the shared romanizer of the options.
+	 */
+	public static Romanizer of(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		type = (type == null) ? KoreanCharacter.Type.Typical : type;
+		consonantAssimilation = (consonantAssimilation == null) ? KoreanCharacter.ConsonantAssimilation.Regressive : consonantAssimilation;
+
+		return instances[type.ordinal() * consonantAssimilations.length + consonantAssimilation.ordinal()];
+	}
+
+	/**
+	 * @param useRomanizationTable
+	 * 		whether to romanize with the compiled {@link RomanizationTable} rather than {@link KoreanCharacter}.
+	 * @return the romanizer of the options and the engine.
+	 */
+	static Romanizer of(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, boolean useRomanizationTable) {
+		Romanizer romanizer = of(type, consonantAssimilation);
+		return (useRomanizationTable == useRomanizationTableByDefault) ? romanizer : new Romanizer(romanizer.type, romanizer.consonantAssimilation, useRomanizationTable, false, false, null);
+	}
+
+	/**
+	 * @return the romanizer of the same options composing jamo as specified, with the engine of this romanizer.
+	 */
+	Romanizer withJamo(boolean conjoiningJamo, boolean compatibilityJamo) {
+		if (conjoiningJamo == this.conjoiningJamo && compatibilityJamo == this.compatibilityJamo) {
+			return this;
+		}
+
+		return new Romanizer(type, consonantAssimilation, table != null, conjoiningJamo, compatibilityJamo, dictionary);
+	}
+
+	/**
+	 * @return the romanizer of the same options forcing the romanizations of the dictionary, with the engine of this romanizer.
+	 */
+	Romanizer withDictionary(RomanizationDictionary dictionary) {
+		if (dictionary == this.dictionary) {
+			return this;
+		}
+
+		return new Romanizer(type, consonantAssimilation, table != null, conjoiningJamo, compatibilityJamo, dictionary);
+	}
+
+	/**
+	 * @see KoreanRomanizer#addListener(RomanizationListener)
+	 */
+	static synchronized void addListener(RomanizationListener listener) {
+		Objects.requireNonNull(listener, "Listener should not be null.");
+
+		RomanizationListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+		newListeners[listeners.length] = listener;
+		listeners = newListeners;
+	}
+
+	/**
+	 * @see KoreanRomanizer#removeListener(RomanizationListener)
+	 */
+	static synchronized void removeListener(RomanizationListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				RomanizationListener[] newListeners = new RomanizationListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the type of word.
+	 */
+	public KoreanCharacter.Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the consonant assimilation type.
+	 */
+	public KoreanCharacter.ConsonantAssimilation getConsonantAssimilation() {
+		return consonantAssimilation;
+	}
+
+	/**
+	 * @return whether conjoining jamo (U+1100–U+11FF) are composed into syllables.
+	 */
+	public boolean isConjoiningJamoComposed() {
+		return conjoiningJamo;
+	}
+
+	/**
+	 * @return whether compatibility jamo (U+3131–U+3163) are composed into syllables or romanized as letters.
+	 */
+	public boolean isCompatibilityJamoRomanized() {
+		return compatibilityJamo;
+	}
+
+	/**
+	 * @return the words whose romanizations are forced, or null if there is none.
+	 */
+	public RomanizationDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Romanize string.
+	 *
+	 * @param string
+	 * 		the string to convert.
+	 * @return Romanized string
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 */
+	public String romanize(String string) {
+		Objects.requireNonNull(string, "String should not be null.");
+		return romanize(string, new StringBuilder(string.length() * 3)).toString();
+	}
+
+	/**
+	 * Romanize character sequence and append the result to the output.
+	 * <p>
+	 * Once warmed up, no objects are allocated unless the type is {@link KoreanCharacter.Type#District District}
+	 * and a postfix is separated, which allocates only the separated district name.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @param output
+	 * 		the output to append romanized string to.
+	 * @param <T>
+	 * 		the type of output
+	 * @return the output
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if string or output parameter is null
+	 */
+	public <T extends Appendable> T romanize(CharSequence string, T output) throws IOException {
+		Objects.requireNonNull(string, "String should not be null.");
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		romanize(null, string, 0, string.length(), output);
+		return output;
+	}
+
+	/**
+	 * Romanize character sequence and append the result to the string builder.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @param output
+	 * 		the string builder to append romanized string to.
+	 * @return the output
+	 * @throws NullPointerException
+	 * 		if string or output parameter is null
+	 * @see #romanize(CharSequence, Appendable)
+	 */
+	public StringBuilder romanize(CharSequence string, StringBuilder output) {
+		try {
+			romanize(string, (Appendable) output);
+			return output;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Romanize characters of an array and append the result to the output.
+	 *
+	 * @param characters
+	 * 		the array containing characters to convert.
+	 * @param offset
+	 * 		the index of the first character to convert.
+	 * @param length
+	 * 		the number of characters to convert.
+	 * @param output
+	 * 		the output to append romanized string to.
+	 * @param <T>
+	 * 		the type of output
+	 * @return the output
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if characters or output parameter is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if offset and length are out of the array bounds
+	 * @see #romanize(CharSequence, Appendable)
+	 */
+	public <T extends Appendable> T romanize(char[] characters, int offset, int length, T output) throws IOException {
+		Objects.requireNonNull(characters, "Characters should not be null.");
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		if (offset < 0 || length < 0 || offset > characters.length - length) {
+			throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array length " + characters.length);
+		}
+
+		romanize(characters, null, offset, offset + length, output);
+		return output;
+	}
+
+	/**
+	 * Romanize characters of an array and append the result to the string builder.
+	 *
+	 * @param characters
+	 * 		the array containing characters to convert.
+	 * @param offset
+	 * 		the index of the first character to convert.
+	 * @param length
+	 * 		the number of characters to convert.
+	 * @param output
+	 * 		the string builder to append romanized string to.
+	 * @return the output
+	 * @throws NullPointerException
+	 * 		if characters or output parameter is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if offset and length are out of the array bounds
+	 * @see #romanize(CharSequence, Appendable)
+	 */
+	public StringBuilder romanize(char[] characters, int offset, int length, StringBuilder output) {
+		try {
+			romanize(characters, offset, length, (Appendable) output);
+			return output;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Romanize character sequence, append the result to the output and fill the offsets between the source and the output.
+	 * <p>
+	 * {@code sourceToOutput[i]} is the offset of the output where the romanized string of {@code string.charAt(i)} starts,
+	 * and {@code outputToSource[j]} is the index of the source character the {@code j}-th appended character comes from.
+	 * Both offsets are relative to the start of the appended string, and the last entries map the ends to each other,
+	 * so the number of appended characters is {@code sourceToOutput[string.length()]}.
+	 * <p>
+	 * Characters inserted by the romanization, like the hyphens of district names and the space after a surname,
+	 * come from the following source character. Source characters dropped by the romanization start where the next one does.
+	 * The offsets are recorded in the same pass, allocating nothing per character.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @param output
+	 * 		the output to append romanized string to.
+	 * @param sourceToOutput
+	 * 		the array to fill, at least {@code string.length() + 1} long.
+	 * @param outputToSource
+	 * 		the array to fill, at least the number of appended characters plus one long,
+	 * 		which is never more than {@link #maxRomanizedLength(int) maxRomanizedLength(string.length())} {@code + 1}.
+	 * @param <T>
+	 * 		the type of output
+	 * @return the output
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if any parameter is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if an array is too short, in which case the output may be partially appended
+	 */
+	public <T extends Appendable> T romanize(CharSequence string, T output, int[] sourceToOutput, int[] outputToSource) throws IOException {
+		Objects.requireNonNull(string, "String should not be null.");
+		Objects.requireNonNull(output, "Output should not be null.");
+		Objects.requireNonNull(sourceToOutput, "Source to output offsets should not be null.");
+		Objects.requireNonNull(outputToSource, "Output to source offsets should not be null.");
+
+		if (sourceToOutput.length <= string.length()) {
+			throw new IndexOutOfBoundsException("Source to output offsets should be longer than the string: " + sourceToOutput.length);
+		}
+
+		if (isComposedBeforeNormalization(null, string, 0, string.length())) {
+			romanizeComposed(string, output, sourceToOutput, outputToSource);
+			return output;
+		}
+
+		OffsetAlignment alignment = new OffsetAlignment(output, null, string, 0, string.length(), sourceToOutput, outputToSource);
+		romanize(null, string, 0, string.length(), alignment, alignment);
+		alignment.finish();
+		return output;
+	}
+
+	/**
+	 * Romanize the composed jamo of character sequence, mapping the offsets of the composed characters back to the source.
+	 * The output of a syllable composed of several jamo comes from the first of them.
+	 */
+	private void romanizeComposed(CharSequence string, Appendable output, int[] sourceToOutput, int[] outputToSource) throws IOException {
+		int[] sourceIndexes = new int[string.length() + 1];
+		char[] composed = JamoComposer.compose(null, string, 0, string.length(), conjoiningJamo, compatibilityJamo, sourceIndexes);
+		int[] composedToOutput = new int[composed.length + 1];
+		int[] outputToComposed = new int[maxRomanizedLength(composed.length) + 1];
+
+		OffsetAlignment alignment = new OffsetAlignment(output, composed, null, 0, composed.length, composedToOutput, outputToComposed);
+		romanize(composed, null, 0, composed.length, alignment, alignment);
+		int length = alignment.finish();
+
+		if (outputToSource.length <= length) {
+			throw new IndexOutOfBoundsException("Output to source offsets should be longer than the output: " + outputToSource.length);
+		}
+
+		for (int i = 0; i < composed.length; i++) {
+			sourceToOutput[sourceIndexes[i]] = composedToOutput[i];
+
+			for (int j = sourceIndexes[i] + 1; j < sourceIndexes[i + 1]; j++) {
+				sourceToOutput[j] = composedToOutput[i + 1];
+			}
+		}
+
+		sourceToOutput[string.length()] = length;
+
+		for (int i = 0; i <= length; i++) {
+			outputToSource[i] = sourceIndexes[outputToComposed[i]];
+		}
+	}
+
+	/**
+	 * Romanize character sequence, append the result to the string builder and fill the offsets between the source and the output.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @param output
+	 * 		the string builder to append romanized string to.
+	 * @param sourceToOutput
+	 * 		the array to fill, at least {@code string.length() + 1} long.
+	 * @param outputToSource
+	 * 		the array to fill, at least the number of appended characters plus one long.
+	 * @return the output
+	 * @throws NullPointerException
+	 * 		if any parameter is null
+	 * @throws IndexOutOfBoundsException
+	 * 		if an array is too short, in which case the output may be partially appended
+	 * @see #romanize(CharSequence, Appendable, int[], int[])
+	 */
+	public StringBuilder romanize(CharSequence string, StringBuilder output, int[] sourceToOutput, int[] outputToSource) {
+		try {
+			romanize(string, (Appendable) output, sourceToOutput, outputToSource);
+			return output;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @param length
+	 * 		the number of characters to convert.
+	 * @return the largest number of characters the romanization of that many characters can have with this romanizer,
+	 * which grows with the longest forced romanization per character of the dictionary.
+	 */
+	public int maxRomanizedLength(int length) {
+		return length * maxExpansion + 3;
+	}
+
+	/**
+	 * Count the characters of the romanization of a character sequence without keeping them,
+	 * so that an output can be sized exactly before romanizing into it. Counting is not reported to the listeners.
+	 *
+	 * @param string
+	 * 		the character sequence to convert.
+	 * @return the length of the romanized string.
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 */
+	public int romanizedLength(CharSequence string) {
+		Objects.requireNonNull(string, "String should not be null.");
+		return romanizedLength(null, string, 0, string.length(), new LengthCounter());
+	}
+
+	/**
+	 * @param counter
+	 * 		the counter to count with, which is reset first.
+	 * @see #romanizedLength(CharSequence)
+	 */
+	int romanizedLength(char[] characters, CharSequence sequence, int start, int end, LengthCounter counter) {
+		counter.length = 0;
+
+		try {
+			if (isComposedBeforeNormalization(characters, sequence, start, end)) {
+				char[] composed = JamoComposer.compose(characters, sequence, start, end, conjoiningJamo, compatibilityJamo, null);
+				romanizeUninstrumented(composed, null, 0, composed.length, counter, null);
+			} else {
+				romanizeUninstrumented(characters, sequence, start, end, counter, null);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return counter.length;
+	}
+
+	/**
+	 * Romanize the remaining UTF-8 bytes of the input and put the result to the output,
+	 * advancing the positions of both buffers.
+	 * <p>
+	 * Hangul syllables are decoded in place and the other bytes are copied as they are, so ASCII input gives ASCII output
+	 * and no object is allocated. The input is romanized as a whole text, like a {@link String}.
+	 * {@link KoreanCharacter.Type#District District}, {@link KoreanCharacter.Type#Name Name} and
+	 * {@link KoreanCharacter.Type#NameTypical NameTypical}, which normalize the whole input, decode it into characters first,
+	 * replacing malformed bytes with {@code U+FFFD}.
+	 * <p>
+	 * An output of {@code 3 * input.remaining() + 3} bytes is always enough without a dictionary,
+	 * and one of {@code 3 * }{@link #maxRomanizedLength(int) maxRomanizedLength}{@code (input.remaining())} bytes with one.
+	 *
+	 * @param input
+	 * 		the UTF-8 bytes to convert.
+	 * @param output
+	 * 		the buffer to put romanized bytes to.
+	 * @throws BufferOverflowException
+	 * 		if the output does not have enough space, in which case neither position is changed
+	 * @throws java.nio.ReadOnlyBufferException
+	 * 		if the output is read-only
+	 * @throws NullPointerException
+	 * 		if input or output parameter is null
+	 */
+	public void romanize(ByteBuffer input, ByteBuffer output) {
+		Objects.requireNonNull(input, "Input should not be null.");
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		int inputPosition = input.position();
+		int outputPosition = output.position();
+
+		try {
+			if (table != null && normalization == Normalization.None && !conjoiningJamo && !compatibilityJamo && dictionary == null) {
+				RomanizationListener[] currentListeners = listeners;
+
+				if (currentListeners.length == 0) {
+					romanizeByTable(input, output);
+				} else {
+					long startTime = System.nanoTime();
+					romanizeByTable(input, output);
+					notifyByteBuffer(input, inputPosition, System.nanoTime() - startTime, currentListeners);
+				}
+			} else {
+				CharBuffer characters = StandardCharsets.UTF_8.decode(input);
+				output.put(StandardCharsets.UTF_8.encode(CharBuffer.wrap(romanize(characters, new StringBuilder(characters.remaining() * 3)))));
+			}
+		} catch (BufferOverflowException e) {
+			((Buffer) input).position(inputPosition);
+			((Buffer) output).position(outputPosition);
+			throw e;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Romanizer(" + type + ", " + consonantAssimilation + (conjoiningJamo ? ", conjoining jamo" : "") + (compatibilityJamo ? ", compatibility jamo" : "")
+				+ ((dictionary != null) ? ", " + dictionary.size() + " forced words" : "") + ")";
+	}
+
+	/**
+	 * @param prevCharacter
+	 * 		the non-Hangul character preceding a word.
+	 * @return true if the first letter of the word should not be capitalized.
+	 */
+	boolean isLowerCaseAfter(char prevCharacter) {
+		return lowerCaseAfterHyphenOrDigit && (prevCharacter == '-' || Character.isDigit(prevCharacter));
+	}
+
+	/**
+	 * Text can be split before a character neither Hangul nor a jamo composed by this romanizer, and the romanized pieces
+	 * joined together are the same as the romanized text, unless {@link #isWholeText()}.
+	 *
+	 * @param character
+	 * 		the character to check.
+	 * @return true if text can be split before the character.
+	 */
+	boolean isBoundary(char character) {
+		return !KoreanCharacter.isKoreanCharacter(character) && !JamoComposer.isJamo(character, conjoiningJamo, compatibilityJamo);
+	}
+
+	/**
+	 * @return true if the text should be romanized as a whole, because the type normalizes the whole text
+	 * or the words of the dictionary may span boundaries.
+	 */
+	boolean isWholeText() {
+		return normalization != Normalization.None || dictionary != null;
+	}
+
+	/**
+	 * @return the compiled rules, or null if this romanizes with {@link KoreanCharacter}.
+	 */
+	RomanizationTable getTable() {
+		return table;
+	}
+
+	/**
+	 * Romanize a range of either a character array or a character sequence.
+	 * Arrays are read directly rather than wrapped, so that no object is allocated for them.
+	 */
+	void romanize(char[] characters, CharSequence sequence, int start, int end, Appendable output) throws IOException {
+		if (isComposedBeforeNormalization(characters, sequence, start, end)) {
+			char[] composed = JamoComposer.compose(characters, sequence, start, end, conjoiningJamo, compatibilityJamo, null);
+			romanize(composed, null, 0, composed.length, output, null);
+		} else {
+			romanize(characters, sequence, start, end, output, null);
+		}
+	}
+
+	/**
+	 * The surnames, the district postfixes and the words of the dictionary are found in syllables, so the types which normalize
+	 * the whole text and the romanizers with a dictionary compose its jamo first. The others compose them while romanizing.
+	 */
+	private boolean isComposedBeforeNormalization(char[] characters, CharSequence sequence, int start, int end) {
+		return (conjoiningJamo || compatibilityJamo) && (normalization != Normalization.None || dictionary != null)
+				&& JamoComposer.containsJamo(characters, sequence, start, end, conjoiningJamo, compatibilityJamo);
+	}
+
+	/**
+	 * @param alignment
+	 * 		the alignment to record the offsets to, which is also the output, or null.
+	 */
+	private void romanize(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment) throws IOException {
+		RomanizationListener[] currentListeners = listeners;
+
+		if (currentListeners.length == 0) {
+			romanizeUninstrumented(characters, sequence, start, end, output, alignment);
+		} else {
+			romanizeInstrumented(characters, sequence, start, end, output, alignment, currentListeners);
+		}
+	}
+
+	private void romanizeUninstrumented(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment) throws IOException {
+		switch (normalization) {
+			case Name:
+				romanizeName(characters, sequence, start, end, findDoubleSurname(characters, sequence, start, end), output, alignment);
+				break;
+			case District:
+				romanizeDistrict(characters, sequence, start, end, DistrictNormalizer.normalize(characters, sequence, start, end), output, alignment);
+				break;
+			default:
+				romanizeNormalized(characters, sequence, start, end, output, alignment);
+		}
+	}
+
+	/**
+	 * Romanize characters, measuring the time and notifying the listeners.
+	 */
+	private void romanizeInstrumented(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment, RomanizationListener[] currentListeners) throws IOException {
+		long startTime = System.nanoTime();
+		long normalizationNanos = 0;
+
+		switch (normalization) {
+			case Name:
+				long doubleSurname = findDoubleSurname(characters, sequence, start, end);
+				normalizationNanos = System.nanoTime() - startTime;
+				romanizeName(characters, sequence, start, end, doubleSurname, output, alignment);
+				break;
+			case District:
+				char[] normalizedDistrict = DistrictNormalizer.normalize(characters, sequence, start, end);
+				normalizationNanos = System.nanoTime() - startTime;
+				romanizeDistrict(characters, sequence, start, end, normalizedDistrict, output, alignment);
+				break;
+			default:
+				romanizeNormalized(characters, sequence, start, end, output, alignment);
+		}
+
+		long elapsedNanos = System.nanoTime() - startTime;
+		int syllables = 0;
+
+		for (int i = start; i < end; i++) {
+			if (KoreanCharacter.isKoreanCharacter(KoreanRomanizer.charAt(characters, sequence, i))) {
+				syllables++;
+			}
+		}
+
+		for (RomanizationListener listener : currentListeners) {
+			listener.romanized(type, end - start, syllables, normalizationNanos, elapsedNanos);
+		}
+	}
+
+	/**
+	 * @param normalizedDistrict
+	 * 		the result of {@link DistrictNormalizer#normalize(char[], CharSequence, int, int)}.
+	 */
+	private void romanizeDistrict(char[] characters, CharSequence sequence, int start, int end, char[] normalizedDistrict, Appendable output, OffsetAlignment alignment) throws IOException {
+		if (normalizedDistrict == null) {
+			romanizeNormalized(characters, sequence, start, end, output, alignment);
+			return;
+		}
+
+		if (alignment != null) {
+			alignment.setNormalized(normalizedDistrict);
+		}
+
+		romanizeNormalized(normalizedDistrict, null, 0, normalizedDistrict.length, output, alignment);
+	}
+
+	/**
+	 * A two syllable surname after leading white spaces is separated if the rest of the line is 1 to 10 code points,
+	 * otherwise the first character is.
+	 *
+	 * @return the index of the two syllable surname in the upper half and the index after the given name in the lower half,
+	 * or -1 if the surname is the first character.
+	 */
+	private static long findDoubleSurname(char[] characters, CharSequence sequence, int start, int end) {
+		int surnameStart = start;
+
+		while (surnameStart < end && KoreanRomanizer.isWhitespace(KoreanRomanizer.charAt(characters, sequence, surnameStart))) {
+			surnameStart++;
+		}
+
+		if (surnameStart + 2 <= end && Surnames.isDoubleSurname(KoreanRomanizer.charAt(characters, sequence, surnameStart), KoreanRomanizer.charAt(characters, sequence, surnameStart + 1))) {
+			int givenNameEnd = getGivenNameEnd(characters, sequence, surnameStart + 2, end);
+
+			if (givenNameEnd >= 0) {
+				return ((long) surnameStart << 32) | givenNameEnd;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Romanize a name as its surname, a space and its given name.
+	 * {@link KoreanCharacter.Type#NameTypical NameTypical} writes the typical romanization of the surname if any.
+	 *
+	 * @param doubleSurname
+	 * 		the result of {@link #findDoubleSurname(char[], CharSequence, int, int)}.
+	 */
+	private void romanizeName(char[] characters, CharSequence sequence, int start, int end, long doubleSurname, Appendable output, OffsetAlignment alignment) throws IOException {
+		int surnameStart;
+		int surnameEnd;
+		int givenNameEnd;
+		String typicalRomanizedSurname = null;
+
+		// An empty name has no surname, and its romanization is empty like that of any other empty text.
+		if (start == end) {
+			return;
+		}
+
+		if (doubleSurname < 0) {
+			surnameStart = start;
+			surnameEnd = start + 1;
+			givenNameEnd = end;
+
+			if (typicalSurname) {
+				typicalRomanizedSurname = Surnames.getTypical(KoreanRomanizer.charAt(characters, sequence, start));
+			}
+		} else {
+			surnameStart = (int) (doubleSurname >>> 32);
+			surnameEnd = surnameStart + 2;
+			givenNameEnd = (int) doubleSurname;
+
+			if (typicalSurname) {
+				typicalRomanizedSurname = Surnames.getTypical(KoreanRomanizer.charAt(characters, sequence, surnameStart), KoreanRomanizer.charAt(characters, sequence, surnameStart + 1));
+			}
+		}
+
+		if (typicalRomanizedSurname != null) {
+			romanizeNormalized(characters, sequence, start, surnameStart, output, alignment);
+
+			if (alignment != null) {
+				alignment.map(surnameStart);
+			}
+
+			output.append(typicalRomanizedSurname);
+		} else {
+			romanizeNormalized(characters, sequence, start, surnameEnd, output, alignment);
+		}
+
+		if (alignment != null) {
+			alignment.insert();
+		}
+
+		output.append(' ');
+		romanizeNormalized(characters, sequence, surnameEnd, givenNameEnd, output, alignment);
+	}
+
+	/**
+	 * The given name following a two syllable surname should be 1 to 10 code points without line terminators,
+	 * followed by the end or a line terminator at the end, which is dropped.
+	 *
+	 * @return the index after the given name, or -1 if the characters are not a given name.
+	 */
+	private static int getGivenNameEnd(char[] characters, CharSequence sequence, int start, int end) {
+		int index = start;
+
+		for (int codePoints = 0; codePoints < 10 && index < end && !KoreanRomanizer.isLineTerminator(KoreanRomanizer.charAt(characters, sequence, index)); codePoints++) {
+			boolean surrogatePair = Character.isHighSurrogate(KoreanRomanizer.charAt(characters, sequence, index)) && index + 1 < end && Character.isLowSurrogate(KoreanRomanizer.charAt(characters, sequence, index + 1));
+			index += surrogatePair ? 2 : 1;
+		}
+
+		if (index > start && (index == end || (index == end - 1 && KoreanRomanizer.isLineTerminator(KoreanRomanizer.charAt(characters, sequence, index)))
+				|| (index == end - 2 && KoreanRomanizer.charAt(characters, sequence, index) == '\r' && KoreanRomanizer.charAt(characters, sequence, index + 1) == '\n'))) {
+			return index;
+		}
+
+		return -1;
+	}
+
+	private void romanizeNormalized(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment) throws IOException {
+		if (conjoiningJamo || compatibilityJamo || dictionary != null) {
+			romanizeWithOptions(characters, sequence, start, end, output, alignment);
+		} else if (table != null) {
+			romanizeByTable(characters, sequence, start, end, output, alignment);
+		} else {
+			romanizeByCharacter(characters, sequence, start, end, output, alignment);
+		}
+	}
+
+	/**
+	 * Romanize normalized characters with {@link RomanizationTable}.
+	 */
+	private void romanizeByTable(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment) throws IOException {
+		int prevSyllable;
+		int currentSyllable = -1;
+		int nextSyllable = (start < end) ? RomanizationTable.syllableOf(KoreanRomanizer.charAt(characters, sequence, start)) : -1;
+
+		for (int i = start; i < end; i++) {
+			prevSyllable = currentSyllable;
+			currentSyllable = nextSyllable;
+			nextSyllable = (i < end - 1) ? RomanizationTable.syllableOf(KoreanRomanizer.charAt(characters, sequence, i + 1)) : -1;
+
+			if (alignment != null) {
+				alignment.map(i);
+			}
+
+			if (currentSyllable >= 0) {
+				table.append(prevSyllable, currentSyllable, nextSyllable, prevSyllable < 0 && !isLowerCaseAfter(characters, sequence, start, i), output);
+			} else if (nextSyllable < 0 && alignment == null) {
+				int runEnd = findSyllable(characters, sequence, i + 1, end);
+				appendRun(characters, sequence, i, runEnd, output);
+				i = runEnd - 1;
+				nextSyllable = (runEnd < end) ? RomanizationTable.syllableOf(KoreanRomanizer.charAt(characters, sequence, runEnd)) : -1;
+			} else {
+				output.append(KoreanRomanizer.charAt(characters, sequence, i));
+			}
+		}
+	}
+
+	/**
+	 * Romanize UTF-8 bytes with {@link RomanizationTable}.
+	 */
+	private void romanizeByTable(ByteBuffer input, ByteBuffer output) {
+		int limit = input.limit();
+		int index = input.position();
+		int prevSyllable = -1;
+		int currentSyllable = RomanizationTable.syllableOf(input, index, limit);
+
+		while (index < limit) {
+			if (currentSyllable >= 0) {
+				int nextSyllable = RomanizationTable.syllableOf(input, index + 3, limit);
+				table.put(prevSyllable, currentSyllable, nextSyllable, prevSyllable < 0, output);
+				prevSyllable = currentSyllable;
+				currentSyllable = nextSyllable;
+				index += 3;
+			} else {
+				int runEnd = index + 1;
+
+				while (runEnd < limit && (currentSyllable = RomanizationTable.syllableOf(input, runEnd, limit)) < 0) {
+					runEnd++;
+				}
+
+				putRun(input, index, runEnd, output);
+				index = runEnd;
+				prevSyllable = -1;
+			}
+		}
+
+		((Buffer) input).position(limit);
+	}
+
+	/**
+	 * Notifies the listeners of romanized UTF-8 bytes, counting the characters they encode.
+	 */
+	private void notifyByteBuffer(ByteBuffer input, int start, long elapsedNanos, RomanizationListener[] currentListeners) {
+		int characters = 0;
+		int syllables = 0;
+
+		for (int i = start; i < input.limit(); i++) {
+			int value = input.get(i) & 0xFF;
+
+			if ((value & 0xC0) != 0x80) {
+				characters += (value >= 0xF0) ? 2 : 1;
+			}
+
+			if (RomanizationTable.syllableOf(input, i, input.limit()) >= 0) {
+				syllables++;
+			}
+		}
+
+		for (RomanizationListener listener : currentListeners) {
+			listener.romanized(type, characters, syllables, 0, elapsedNanos);
+		}
+	}
+
+	/**
+	 * Romanize normalized characters with {@link KoreanCharacter}.
+	 */
+	private void romanizeByCharacter(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment) throws IOException {
+		KoreanCharacter prevCharacter;
+		KoreanCharacter currentCharacter = null;
+		KoreanCharacter nextCharacter = getKoreanCharacter(characters, sequence, start, end);
+
+		for (int i = start; i < end; i++) {
+			prevCharacter = currentCharacter;
+			currentCharacter = nextCharacter;
+			nextCharacter = getKoreanCharacter(characters, sequence, i + 1, end);
+
+			if (alignment != null) {
+				alignment.map(i);
+			}
+
+			if (currentCharacter != null) {
+				if (RuleProfiler.Enabled && prevCharacter != null) {
+					RomanizationTable.of(type, consonantAssimilation).profile(prevCharacter.getCharacter() - KoreanCharacter.KoreanLowerValue, currentCharacter.getCharacter() - KoreanCharacter.KoreanLowerValue);
+				}
+
+				String pronunciation = currentCharacter.getRomanizedString(prevCharacter, nextCharacter, consonantAssimilation, type);
+
+				if (prevCharacter == null && !isLowerCaseAfter(characters, sequence, start, i)) {
+					output.append(Character.toUpperCase(pronunciation.charAt(0)));
+					output.append(pronunciation, 1, pronunciation.length());
+				} else {
+					output.append(pronunciation);
+				}
+			} else if (nextCharacter == null && alignment == null) {
+				int runEnd = findSyllable(characters, sequence, i + 1, end);
+				appendRun(characters, sequence, i, runEnd, output);
+				i = runEnd - 1;
+				currentCharacter = null;
+				nextCharacter = getKoreanCharacter(characters, sequence, runEnd, end);
+			} else {
+				output.append(KoreanRomanizer.charAt(characters, sequence, i));
+			}
+		}
+	}
+
+	/**
+	 * Romanize normalized characters, composing jamo into syllables on the way with {@link JamoComposer}
+	 * and splicing the forced romanizations of the words of the dictionary.
+	 * Jamo which do not compose into a syllable are romanized as letters without neighbors.
+	 * Syllables next to a word of the dictionary are romanized as if the word was not Hangul, but they are not capitalized after it.
+	 */
+	private void romanizeWithOptions(char[] characters, CharSequence sequence, int start, int end, Appendable output, OffsetAlignment alignment) throws IOException {
+		int prevSyllable = -1;
+		boolean prevHangul = false;
+		long match = (dictionary != null) ? dictionary.find(characters, sequence, start, end) : -1;
+		int matchStart = (match < 0) ? end : (int) (match >>> 32);
+		int current = (start < matchStart) ? JamoComposer.syllableAt(characters, sequence, start, matchStart, conjoiningJamo, compatibilityJamo) : -1;
+
+		for (int i = start; i < end; ) {
+			if (alignment != null) {
+				alignment.map(i);
+			}
+
+			if (i == matchStart) {
+				int entry = (int) match;
+				dictionary.appendRomanization(entry, output);
+				i += dictionary.getWordLength(entry);
+
+				match = dictionary.find(characters, sequence, i, end);
+				matchStart = (match < 0) ? end : (int) (match >>> 32);
+				prevSyllable = -1;
+				prevHangul = true;
+				current = (i < matchStart) ? JamoComposer.syllableAt(characters, sequence, i, matchStart, conjoiningJamo, compatibilityJamo) : -1;
+				continue;
+			}
+
+			boolean capitalize = !prevHangul && !isLowerCaseAfter(characters, sequence, start, i);
+
+			if (current >= 0) {
+				int syllable = JamoComposer.syllable(current);
+				int nextIndex = i + JamoComposer.length(current);
+				int next = (nextIndex < matchStart) ? JamoComposer.syllableAt(characters, sequence, nextIndex, matchStart, conjoiningJamo, compatibilityJamo) : -1;
+
+				appendSyllable(prevSyllable, syllable, (next >= 0) ? JamoComposer.syllable(next) : -1, capitalize, output);
+				prevSyllable = syllable;
+				prevHangul = true;
+				current = next;
+				i = nextIndex;
+				continue;
+			}
+
+			char character = KoreanRomanizer.charAt(characters, sequence, i);
+			String letter = JamoComposer.letterOf(character, conjoiningJamo, compatibilityJamo);
+
+			if (letter == null) {
+				output.append(character);
+			} else if (capitalize) {
+				output.append(Character.toUpperCase(letter.charAt(0)));
+				output.append(letter, 1, letter.length());
+			} else {
+				output.append(letter);
+			}
+
+			prevSyllable = -1;
+			prevHangul = (letter != null);
+			current = (++i < matchStart) ? JamoComposer.syllableAt(characters, sequence, i, matchStart, conjoiningJamo, compatibilityJamo) : -1;
+		}
+	}
+
+	/**
+	 * Append the romanized string of a syllable with the engine of this romanizer.
+	 *
+	 * @param prev
+	 * 		the syllable index of the previous character, or -1 if it is not Hangul.
+	 * @param current
+	 * 		the syllable index of the character to romanize.
+	 * @param next
+	 * 		the syllable index of the next character, or -1 if it is not Hangul.
+	 */
+	private void appendSyllable(int prev, int current, int next, boolean capitalize, Appendable output) throws IOException {
+		if (table != null) {
+			table.append(prev, current, next, capitalize, output);
+			return;
+		}
+
+		if (RuleProfiler.Enabled && prev >= 0) {
+			RomanizationTable.of(type, consonantAssimilation).profile(prev, current);
+		}
+
+		KoreanCharacter prevCharacter = (prev >= 0) ? KoreanCharacter.valueOf((char) (KoreanCharacter.KoreanLowerValue + prev)) : null;
+		KoreanCharacter nextCharacter = (next >= 0) ? KoreanCharacter.valueOf((char) (KoreanCharacter.KoreanLowerValue + next)) : null;
+		String pronunciation = KoreanCharacter.valueOf((char) (KoreanCharacter.KoreanLowerValue + current)).getRomanizedString(prevCharacter, nextCharacter, consonantAssimilation, type);
+
+		if (capitalize) {
+			output.append(Character.toUpperCase(pronunciation.charAt(0)));
+			output.append(pronunciation, 1, pronunciation.length());
+		} else {
+			output.append(pronunciation);
+		}
+	}
+
+	/**
+	 * @return the index of the first Hangul syllable from the index, or end if there is none.
+	 */
+	private static int findSyllable(char[] characters, CharSequence sequence, int index, int end) {
+		while (index < end && !KoreanCharacter.isKoreanCharacter(KoreanRomanizer.charAt(characters, sequence, index))) {
+			index++;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Append a run of characters which are not romanized at once.
+	 */
+	private static void appendRun(char[] characters, CharSequence sequence, int start, int end, Appendable output) throws IOException {
+		if (end - start == 1) {
+			output.append(KoreanRomanizer.charAt(characters, sequence, start));
+		} else if (characters != null) {
+			RomanizationTable.write(characters, start, end - start, output);
+		} else if (output instanceof CharBuffer && sequence instanceof String) {
+			// CharBuffer.append wraps the sequence into another buffer.
+			((CharBuffer) output).put((String) sequence, start, end);
+		} else {
+			output.append(sequence, start, end);
+		}
+	}
+
+	/**
+	 * Put a run of bytes which are not romanized at once.
+	 *
+	 * @throws BufferOverflowException
+	 * 		if there is insufficient space in output
+	 */
+	private static void putRun(ByteBuffer input, int start, int end, ByteBuffer output) {
+		if (end - start < BulkCopyThreshold) {
+			for (int i = start; i < end; i++) {
+				output.put(input.get(i));
+			}
+		} else {
+			ByteBuffer run = input.duplicate();
+			((Buffer) run).limit(end).position(start);
+			output.put(run);
+		}
+	}
+
+	/**
+	 * Whether a word starting after a non-Hangul character keeps its first letter lower case.
+	 *
+	 * @param characters
+	 * 		the normalized characters, or null if they are in the sequence.
+	 * @param sequence
+	 * 		the normalized character sequence.
+	 * @param start
+	 * 		the index of the first character.
+	 * @param index
+	 * 		the index of the first Hangul character of the word.
+	 * @return true if the first letter should not be capitalized.
+	 */
+	private boolean isLowerCaseAfter(char[] characters, CharSequence sequence, int start, int index) {
+		return lowerCaseAfterHyphenOrDigit && index > start && isLowerCaseAfter(KoreanRomanizer.charAt(characters, sequence, index - 1));
+	}
+
+	/**
+	 * @param characters
+	 * 		the characters to read, or null if they are in the sequence.
+	 * @param sequence
+	 * 		the character sequence to read.
+	 * @param index
+	 * 		the index of the character.
+	 * @param end
+	 * 		the index after the last character.
+	 * @return the shared {@link KoreanCharacter} at the index, or null if the index is out of range or the character is not Hangul.
+	 */
+	private static KoreanCharacter getKoreanCharacter(char[] characters, CharSequence sequence, int index, int end) {
+		if (index < end && KoreanCharacter.isKoreanCharacter(KoreanRomanizer.charAt(characters, sequence, index))) {
+			return KoreanCharacter.valueOf(KoreanRomanizer.charAt(characters, sequence, index));
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * An output which only counts the characters appended to it.
+	 */
+	static final class LengthCounter implements Appendable {
+		int length;
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			length += String.valueOf(csq).length();
+			return this;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			length += end - start;
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			length++;
+			return this;
+		}
+	}
+
+	/**
+	 * Builds {@link Romanizer}s.
+	 */
+	public static final class Builder {
+		private KoreanCharacter.Type type;
+		private KoreanCharacter.ConsonantAssimilation consonantAssimilation;
+		private boolean conjoiningJamo;
+		private boolean compatibilityJamo;
+		private RomanizationDictionary dictionary;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param type
+		 * 		the type of word, or null for {@link KoreanCharacter.Type#Typical Typical}.
+		 * @return this builder
+		 */
+		public Builder type(KoreanCharacter.Type type) {
+			this.type = type;
+			return this;
+		}
+
+		/**
+		 * @param consonantAssimilation
+		 * 		the consonant assimilation type, or null for {@link KoreanCharacter.ConsonantAssimilation#Regressive Regressive}.
+		 * @return this builder
+		 */
+		public Builder consonantAssimilation(KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+			this.consonantAssimilation = consonantAssimilation;
+			return this;
+		}
+
+		/**
+		 * Compose conjoining jamo (U+1100–U+11FF) into syllables while romanizing, so that NFD text like the file names of macOS
+		 * is romanized as if it was NFC, without normalizing it first. Disabled by default.
+		 *
+		 * @param conjoiningJamo
+		 * 		whether conjoining jamo are composed.
+		 * @return this builder
+		 */
+		public Builder conjoiningJamo(boolean conjoiningJamo) {
+			this.conjoiningJamo = conjoiningJamo;
+			return this;
+		}
+
+		/**
+		 * Compose compatibility jamo (U+3131–U+3163) like {@code ㅎㅏㄴ} into syllables while romanizing,
+		 * and romanize the jamo left alone like {@code ㅋ} as letters. Disabled by default.
+		 *
+		 * @param compatibilityJamo
+		 * 		whether compatibility jamo are romanized.
+		 * @return this builder
+		 */
+		public Builder compatibilityJamo(boolean compatibilityJamo) {
+			this.compatibilityJamo = compatibilityJamo;
+			return this;
+		}
+
+		/**
+		 * Force the romanizations of the words of a dictionary, like brand names, instead of romanizing them by the rules.
+		 * The leftmost longest word is chosen where words overlap. Jamo composed by this romanizer are composed before words are found,
+		 * so NFD text matches the precomposed words.
+		 *
+		 * @param dictionary
+		 * 		the words whose romanizations are forced, or null for none.
+		 * @return this builder
+		 */
+		public Builder dictionary(RomanizationDictionary dictionary) {
+			this.dictionary = dictionary;
+			return this;
+		}
+
+		/**
+		 * @return the romanizer of the options.
+		 */
+		public Romanizer build() {
+			return of(type, consonantAssimilation).withJamo(conjoiningJamo, compatibilityJamo).withDictionary(dictionary);
+		}
+	}
+}
@@ -0,0 +1,327 @@
+package net.crizin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A pipeline stage romanizing a stream of strings asynchronously, created by {@link AsyncRomanizer#newStage(int, int, Consumer)}.
+ * <p>
+ * Strings are {@link #submit(String) submitted} by the upstream and romanized on the executor in micro-batches.
+ * A batch is dispatched as soon as it is full, or right away while no batch is running, so that batches grow only under load
+ * and a quiet stream is not delayed. The romanized strings are passed to the downstream in the order of submission,
+ * one at a time, on the threads of the executor.
+ * <p>
+ * At most {@code maxInFlight} strings are admitted but not emitted yet. Each submission returns a future completed when its string
+ * is admitted, so the upstream applies backpressure by waiting for it before submitting more, without blocking a thread.
+ * Strings submitted without waiting are queued until they are admitted.
+ * <p>
+ * If romanizing or the downstream fails, the stage stops emitting and every future of the stage completes exceptionally.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class RomanizingStage {
+	private final Romanizer romanizer;
+	private final Executor executor;
+	private final int batchSize;
+	private final int maxInFlight;
+	private final Consumer<? super String> downstream;
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	/**
+	 * Strings submitted but not admitted yet, with the futures to complete on admission.
+	 */
+	private final ArrayDeque<Object[]> waiting = new ArrayDeque<>();
+
+	/**
+	 * Strings admitted but not dispatched yet.
+	 */
+	private final List<String> pending = new ArrayList<>();
+
+	/**
+	 * Romanized batches waiting for the batches before them, by sequence number.
+	 */
+	private final Map<Long, String[]> romanized = new HashMap<>();
+
+	private long nextSequence;
+	private long nextEmission;
+	private int inFlight;
+	private int running;
+	private boolean emitting;
+	private boolean completing;
+	private Throwable failure;
+
+	RomanizingStage(Romanizer romanizer, Executor executor, int batchSize, int maxInFlight, Consumer<? super String> downstream) {
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+		this.executor = Objects.requireNonNull(executor, "Executor should not be null.");
+		this.downstream = Objects.requireNonNull(downstream, "Downstream should not be null.");
+
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size should be positive: " + batchSize);
+		}
+
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Max in flight should be positive: " + maxInFlight);
+		}
+
+		this.batchSize = batchSize;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Submit a string to romanize.
+	 *
+	 * @param string
+	 * 		the string to convert.
+	 * @return the future completed when the string is admitted, which the upstream should wait for before submitting more.
+	 * It completes exceptionally if the stage has failed.
+	 * @throws NullPointerException
+	 * 		if string parameter is null
+	 * @throws IllegalStateException
+	 * 		if the stage is already completed by {@link #complete()}
+	 */
+	public CompletableFuture<Void> submit(String string) {
+		Objects.requireNonNull(string, "String should not be null.");
+
+		CompletableFuture<Void> admission = new CompletableFuture<>();
+		List<CompletableFuture<Void>> admissions;
+		List<Runnable> batches;
+
+		synchronized (this) {
+			if (completing) {
+				throw new IllegalStateException("Stage should not be completed.");
+			} else if (failure != null) {
+				admission.completeExceptionally(failure);
+				return admission;
+			}
+
+			waiting.add(new Object[]{string, admission});
+			admissions = admit();
+			batches = dispatch();
+		}
+
+		run(admissions, batches);
+		return admission;
+	}
+
+	/**
+	 * Signal that no more strings are submitted, romanizing the strings left.
+	 *
+	 * @return the future completed when all strings are emitted, or exceptionally if the stage fails.
+	 */
+	public CompletableFuture<Void> complete() {
+		List<Runnable> batches;
+
+		synchronized (this) {
+			completing = true;
+			batches = dispatch();
+		}
+
+		run(null, batches);
+		completeIfDone();
+		return completion;
+	}
+
+	/**
+	 * @return the future completed when all strings are emitted after {@link #complete()}, or exceptionally if the stage fails.
+	 */
+	public CompletableFuture<Void> getCompletion() {
+		return completion;
+	}
+
+	/**
+	 * @return the number of strings admitted but not emitted yet.
+	 */
+	public synchronized int getInFlightCount() {
+		return inFlight;
+	}
+
+	@Override
+	public String toString() {
+		return "RomanizingStage(" + romanizer + ", batch size " + batchSize + ", max in flight " + maxInFlight + ")";
+	}
+
+	/**
+	 * Admit the waiting strings while there is room.
+	 *
+	 * @return the futures to complete outside the lock.
+	 */
+	private List<CompletableFuture<Void>> admit() {
+		List<CompletableFuture<Void>> admissions = null;
+
+		while (!waiting.isEmpty() && inFlight < maxInFlight) {
+			Object[] entry = waiting.remove();
+			pending.add((String) entry[0]);
+			inFlight++;
+
+			if (admissions == null) {
+				admissions = new ArrayList<>();
+			}
+
+			@SuppressWarnings("unchecked")
+			CompletableFuture<Void> admission = (CompletableFuture<Void>) entry[1];
+			admissions.add(admission);
+		}
+
+		return admissions;
+	}
+
+	/**
+	 * Cut the pending strings into batches: full ones, and the rest if no batch is running or the stage is completing.
+	 *
+	 * @return the tasks to execute outside the lock.
+	 */
+	private List<Runnable> dispatch() {
+		List<Runnable> batches = null;
+
+		while (!pending.isEmpty() && (pending.size() >= batchSize || running == 0 || completing)) {
+			int size = Math.min(batchSize, pending.size());
+			String[] batch = pending.subList(0, size).toArray(new String[0]);
+			long sequence = nextSequence++;
+
+			pending.subList(0, size).clear();
+			running++;
+
+			if (batches == null) {
+				batches = new ArrayList<>();
+			}
+
+			batches.add(() -> romanize(sequence, batch));
+		}
+
+		return batches;
+	}
+
+	private void run(List<CompletableFuture<Void>> admissions, List<Runnable> batches) {
+		if (admissions != null) {
+			for (CompletableFuture<Void> admission : admissions) {
+				admission.complete(null);
+			}
+		}
+
+		if (batches != null) {
+			for (Runnable batch : batches) {
+				try {
+					executor.execute(batch);
+				} catch (RuntimeException e) {
+					fail(e);
+				}
+			}
+		}
+	}
+
+	private void romanize(long sequence, String[] batch) {
+		try {
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = romanizer.romanize(batch[i]);
+			}
+		} catch (RuntimeException | Error e) {
+			fail(e);
+			return;
+		}
+
+		List<Runnable> batches;
+
+		synchronized (this) {
+			running--;
+			romanized.put(sequence, batch);
+			batches = dispatch();
+		}
+
+		run(null, batches);
+		emit();
+	}
+
+	/**
+	 * Emit the romanized batches in order, unless another thread is emitting.
+	 */
+	private void emit() {
+		synchronized (this) {
+			if (emitting) {
+				return;
+			}
+
+			emitting = true;
+		}
+
+		while (true) {
+			String[] batch;
+
+			synchronized (this) {
+				batch = (failure == null) ? romanized.remove(nextEmission) : null;
+
+				if (batch == null) {
+					emitting = false;
+					break;
+				}
+
+				nextEmission++;
+			}
+
+			try {
+				for (String string : batch) {
+					downstream.accept(string);
+				}
+			} catch (RuntimeException | Error e) {
+				synchronized (this) {
+					emitting = false;
+				}
+
+				fail(e);
+				return;
+			}
+
+			List<CompletableFuture<Void>> admissions;
+			List<Runnable> batches;
+
+			synchronized (this) {
+				inFlight -= batch.length;
+				admissions = admit();
+				batches = dispatch();
+			}
+
+			run(admissions, batches);
+		}
+
+		completeIfDone();
+	}
+
+	private void completeIfDone() {
+		synchronized (this) {
+			if (!completing || failure != null || !waiting.isEmpty() || inFlight > 0) {
+				return;
+			}
+		}
+
+		completion.complete(null);
+	}
+
+	private void fail(Throwable throwable) {
+		Object[][] failed;
+
+		synchronized (this) {
+			if (failure != null) {
+				return;
+			}
+
+			failure = throwable;
+			failed = waiting.toArray(new Object[0][]);
+			waiting.clear();
+			pending.clear();
+			romanized.clear();
+		}
+
+		for (Object[] entry : Arrays.asList(failed)) {
+			((CompletableFuture<?>) entry[1]).completeExceptionally(throwable);
+		}
+
+		completion.completeExceptionally(throwable);
+	}
+}
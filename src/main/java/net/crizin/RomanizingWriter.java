@@ -0,0 +1,308 @@
+package net.crizin;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * A writer that romanizes the characters written to it before passing them to the underlying writer.
+ * <p>
+ * The romanized string of a syllable depends on the next character, so the last Hangul syllable written is held back
+ * until the next character or {@link #finish()}. Only that syllable is kept in memory, so arbitrarily large text
+ * can be romanized in constant memory no matter how it is split into writes.
+ * <p>
+ * {@link KoreanCharacter.Type#District District}, {@link KoreanCharacter.Type#Name Name} and
+ * {@link KoreanCharacter.Type#NameTypical NameTypical} normalize their input as a whole, so with those types
+ * each line is buffered and romanized separately as the command line interface has always done.
+ * So is each line with a romanizer forcing the romanizations of a {@link RomanizationDictionary}.
+ * With a romanizer composing jamo, each run of Hangul and jamo is buffered until the character following it,
+ * since a syllable may continue in the next write. So is each run of Hangul with a romanizer of the {@code character} engine,
+ * see {@link KoreanRomanizer}, which romanizes the runs with {@link KoreanCharacter} instead of the compiled tables.
+ */
+public class RomanizingWriter extends FilterWriter {
+	private static final int ChunkSize = 1024;
+
+	private final Romanizer romanizer;
+	/**
+	 * The compiled rules of the romanizer, or null if it romanizes with {@link KoreanCharacter}.
+	 */
+	private final RomanizationTable table;
+
+	/**
+	 * The current line of a romanizer romanizing whole texts, or null for the others.
+	 */
+	private final StringBuilder line;
+
+	/**
+	 * The current run of Hangul and jamo of a romanizer composing jamo, or null if the romanizer does not compose them.
+	 */
+	private final StringBuilder hangulRun;
+
+	/**
+	 * The buffer to copy strings into, allocated on the first {@link #write(String, int, int)}.
+	 */
+	private char[] chunk;
+
+	/**
+	 * The syllable index of the held back syllable, or -1 if the last character was not Hangul.
+	 */
+	private int pendingSyllable = -1;
+
+	/**
+	 * The syllable index of the character preceding the held back syllable, or -1 if it was not Hangul.
+	 */
+	private int pendingPrevSyllable = -1;
+
+	/**
+	 * Whether the first letter of the held back syllable should be upper case.
+	 */
+	private boolean pendingCapitalized;
+
+	/**
+	 * The last character written, which decides the capitalization of the following syllable.
+	 */
+	private int lastCharacter = -1;
+
+	/**
+	 * Create a writer romanizing with default options.
+	 *
+	 * @param out
+	 * 		the writer to write romanized string to.
+	 * @throws NullPointerException
+	 * 		if out is null
+	 */
+	public RomanizingWriter(Writer out) {
+		this(out, null, null);
+	}
+
+	/**
+	 * Create a writer romanizing with consonant assimilation and type option.
+	 *
+	 * @param out
+	 * 		the writer to write romanized string to.
+	 * @param type
+	 * 		the type of word
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @throws NullPointerException
+	 * 		if out is null
+	 */
+	public RomanizingWriter(Writer out, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		this(out, Romanizer.of(type, consonantAssimilation));
+	}
+
+	/**
+	 * Create a writer romanizing with the romanizer.
+	 *
+	 * @param out
+	 * 		the writer to write romanized string to.
+	 * @param romanizer
+	 * 		the romanizer of the options.
+	 * @throws NullPointerException
+	 * 		if out or romanizer is null
+	 */
+	public RomanizingWriter(Writer out, Romanizer romanizer) {
+		super(Objects.requireNonNull(out, "Writer should not be null."));
+
+		this.romanizer = Objects.requireNonNull(romanizer, "Romanizer should not be null.");
+		this.table = romanizer.getTable();
+
+		line = romanizer.isWholeText() ? new StringBuilder() : null;
+
+		hangulRun = (line == null && (table == null || romanizer.isConjoiningJamoComposed() || romanizer.isCompatibilityJamoRomanized())) ? new StringBuilder() : null;
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		synchronized (lock) {
+			if (line != null) {
+				appendLine((char) c);
+			} else if (hangulRun != null) {
+				appendHangulRun((char) c);
+			} else {
+				romanize((char) c);
+			}
+		}
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off > cbuf.length - len) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		synchronized (lock) {
+			if (line != null) {
+				for (int i = off; i < off + len; i++) {
+					appendLine(cbuf[i]);
+				}
+
+				return;
+			}
+
+			if (hangulRun != null) {
+				for (int i = off; i < off + len; i++) {
+					appendHangulRun(cbuf[i]);
+				}
+
+				return;
+			}
+
+			int runStart = off;
+
+			for (int i = off; i < off + len; i++) {
+				if (KoreanCharacter.isKoreanCharacter(cbuf[i])) {
+					writeRun(cbuf, runStart, i);
+					romanize(cbuf[i]);
+					runStart = i + 1;
+				}
+			}
+
+			writeRun(cbuf, runStart, off + len);
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off > str.length() - len) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		synchronized (lock) {
+			if (chunk == null) {
+				chunk = new char[ChunkSize];
+			}
+
+			for (int start = off; start < off + len; start += ChunkSize) {
+				int end = Math.min(start + ChunkSize, off + len);
+				str.getChars(start, end, chunk, 0);
+				write(chunk, 0, end - start);
+			}
+		}
+	}
+
+	/**
+	 * Flushes the underlying writer. The held back syllable is not written since its romanized string is not decided yet.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 */
+	@Override
+	public void flush() throws IOException {
+		super.flush();
+	}
+
+	/**
+	 * Writes the held back syllable or line as the end of the text, without closing the underlying writer.
+	 * Characters written after this method are romanized as a new text.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 */
+	public void finish() throws IOException {
+		synchronized (lock) {
+			if (line != null) {
+				romanizeLine();
+			} else if (hangulRun != null) {
+				romanizeHangulRun();
+			} else if (pendingSyllable >= 0) {
+				table.append(pendingPrevSyllable, pendingSyllable, -1, pendingCapitalized, out);
+			}
+
+			pendingSyllable = -1;
+			lastCharacter = -1;
+		}
+	}
+
+	/**
+	 * Finishes the text and closes the underlying writer.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			finish();
+			super.close();
+		}
+	}
+
+	private void romanize(char character) throws IOException {
+		int syllable = RomanizationTable.syllableOf(character);
+
+		if (pendingSyllable >= 0) {
+			table.append(pendingPrevSyllable, pendingSyllable, syllable, pendingCapitalized, out);
+		}
+
+		if (syllable >= 0) {
+			pendingCapitalized = pendingSyllable < 0 && (lastCharacter < 0 || !romanizer.isLowerCaseAfter((char) lastCharacter));
+			pendingPrevSyllable = pendingSyllable;
+		} else {
+			out.write(character);
+		}
+
+		pendingSyllable = syllable;
+		lastCharacter = character;
+	}
+
+	/**
+	 * Writes a run of non-Hangul characters at once.
+	 */
+	private void writeRun(char[] cbuf, int start, int end) throws IOException {
+		if (start < end) {
+			romanize(cbuf[start]);
+
+			if (start + 1 < end) {
+				out.write(cbuf, start + 1, end - start - 1);
+				lastCharacter = cbuf[end - 1];
+			}
+		}
+	}
+
+	private void appendLine(char character) throws IOException {
+		if (character != '\n') {
+			line.append(character);
+			return;
+		}
+
+		boolean carriageReturn = line.length() > 0 && line.charAt(line.length() - 1) == '\r';
+
+		if (carriageReturn) {
+			line.setLength(line.length() - 1);
+		}
+
+		romanizeLine();
+
+		if (carriageReturn) {
+			out.write('\r');
+		}
+
+		out.write('\n');
+	}
+
+	private void romanizeLine() throws IOException {
+		if (line.length() > 0) {
+			romanizer.romanize(null, line, 0, line.length(), out);
+			line.setLength(0);
+		}
+	}
+
+	private void appendHangulRun(char character) throws IOException {
+		if (!romanizer.isBoundary(character)) {
+			hangulRun.append(character);
+			return;
+		}
+
+		romanizeHangulRun();
+		out.write(character);
+	}
+
+	private void romanizeHangulRun() throws IOException {
+		if (hangulRun.length() > 0) {
+			romanizer.romanize(null, hangulRun, 0, hangulRun.length(), out);
+			hangulRun.setLength(0);
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package net.crizin;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts which pronunciation rules fire while romanizing, to find the junctions real texts hit.
+ * <p>
+ * Profiling is enabled by starting the JVM with {@code -Dnet.crizin.KoreanRomanizer.profile=true}.
+ * {@link #Enabled} is a constant, so the JIT compiler removes the profiling code entirely when it is disabled.
+ * For every pair of adjacent Hangul syllables romanized with the contextual types, the profiler counts
+ * <ul>
+ * <li>{@code junction}: the final consonant of the previous syllable met the initial consonant of the next one,</li>
+ * <li>{@code changed}: the rules changed the pronunciation of either consonant at the junction, including hyphens,</li>
+ * <li>{@code hyphen}: a hyphen was inserted before the initial consonant,</li>
+ * <li>{@code vowelHyphen}: a hyphen was inserted between two vowels, counted by the vowels.</li>
+ * </ul>
+ * Both engines are counted the same way, so the heat map does not depend on
+ * {@code net.crizin.KoreanRomanizer.engine}.
+ */
+public final class RuleProfiler {
+	/**
+	 * Whether the rules are counted, set by the system property {@code net.crizin.KoreanRomanizer.profile}.
+	 */
+	public static final boolean Enabled = Boolean.getBoolean("net.crizin.KoreanRomanizer.profile");
+
+	private static final KoreanCharacter.Type[] types = KoreanCharacter.Type.values();
+	private static final KoreanCharacter.ConsonantAssimilation[] consonantAssimilations = KoreanCharacter.ConsonantAssimilation.values();
+
+	/**
+	 * Numbers of the jamo, as constants so that the rule enums are not loaded with {@link #Enabled}.
+	 */
+	private static final int ChosungCount = 19;
+	private static final int JungsungCount = 21;
+	private static final int JongsungCount = 28;
+
+	private static final int VariantCount = types.length * consonantAssimilations.length;
+	private static final int JunctionCount = JongsungCount * ChosungCount;
+	private static final int VowelPairCount = JungsungCount * JungsungCount;
+
+	private static final String[] rules = {"junction", "changed", "hyphen", "vowelHyphen"};
+
+	/**
+	 * Counters of each rule, indexed by the variant and the junction or the pair of vowels.
+	 */
+	private static final AtomicLongArray[] counts = {
+			new AtomicLongArray(Enabled ? VariantCount * JunctionCount : 0),
+			new AtomicLongArray(Enabled ? VariantCount * JunctionCount : 0),
+			new AtomicLongArray(Enabled ? VariantCount * JunctionCount : 0),
+			new AtomicLongArray(Enabled ? VariantCount * VowelPairCount : 0)
+	};
+
+	private RuleProfiler() {
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word.
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @return the index of the options in the counters.
+	 */
+	static int variant(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation) {
+		Objects.requireNonNull(type, "Type should not be null.");
+		Objects.requireNonNull(consonantAssimilation, "ConsonantAssimilation should not be null.");
+
+		return type.ordinal() * consonantAssimilations.length + consonantAssimilation.ordinal();
+	}
+
+	/**
+	 * Count a junction of two Hangul syllables.
+	 *
+	 * @param variant
+	 * 		the index of the options from {@link #variant(KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)}.
+	 * @param jongsung
+	 * 		the final consonant of the previous syllable.
+	 * @param chosung
+	 * 		the initial consonant of the current syllable.
+	 * @param changed
+	 * 		whether the rules changed the pronunciation of either consonant.
+	 * @param hyphen
+	 * 		whether a hyphen was inserted before the initial consonant.
+	 */
+	static void countJunction(int variant, int jongsung, int chosung, boolean changed, boolean hyphen) {
+		int index = variant * JunctionCount + jongsung * ChosungCount + chosung;
+
+		counts[0].incrementAndGet(index);
+
+		if (changed) {
+			counts[1].incrementAndGet(index);
+		}
+
+		if (hyphen) {
+			counts[2].incrementAndGet(index);
+		}
+	}
+
+	/**
+	 * Count a hyphen inserted between two vowels.
+	 *
+	 * @param variant
+	 * 		the index of the options from {@link #variant(KoreanCharacter.Type, KoreanCharacter.ConsonantAssimilation)}.
+	 * @param prevJungsung
+	 * 		the vowel of the previous syllable.
+	 * @param jungsung
+	 * 		the vowel of the current syllable.
+	 */
+	static void countVowelHyphen(int variant, int prevJungsung, int jungsung) {
+		counts[3].incrementAndGet(variant * VowelPairCount + prevJungsung * JungsungCount + jungsung);
+	}
+
+	/**
+	 * @return whether the rules are counted.
+	 */
+	public static boolean isEnabled() {
+		return Enabled;
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word.
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param jongsung
+	 * 		the final consonant of the previous syllable.
+	 * @param chosung
+	 * 		the initial consonant of the next syllable.
+	 * @return the number of times the junction was romanized, or 0 if profiling is disabled.
+	 * @throws NullPointerException
+	 * 		if any parameter is null
+	 */
+	public static long getJunctionCount(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, KoreanCharacter.Jongsung jongsung, KoreanCharacter.Chosung chosung) {
+		return get(0, type, consonantAssimilation, jongsung, chosung);
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word.
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param jongsung
+	 * 		the final consonant of the previous syllable.
+	 * @param chosung
+	 * 		the initial consonant of the next syllable.
+	 * @return the number of times the rules changed the pronunciation at the junction, or 0 if profiling is disabled.
+	 * @throws NullPointerException
+	 * 		if any parameter is null
+	 */
+	public static long getChangedCount(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, KoreanCharacter.Jongsung jongsung, KoreanCharacter.Chosung chosung) {
+		return get(1, type, consonantAssimilation, jongsung, chosung);
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word.
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param jongsung
+	 * 		the final consonant of the previous syllable.
+	 * @param chosung
+	 * 		the initial consonant of the next syllable.
+	 * @return the number of hyphens inserted at the junction, or 0 if profiling is disabled.
+	 * @throws NullPointerException
+	 * 		if any parameter is null
+	 */
+	public static long getHyphenCount(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, KoreanCharacter.Jongsung jongsung, KoreanCharacter.Chosung chosung) {
+		return get(2, type, consonantAssimilation, jongsung, chosung);
+	}
+
+	/**
+	 * @param type
+	 * 		the type of word.
+	 * @param consonantAssimilation
+	 * 		the consonant assimilation type.
+	 * @param prevJungsung
+	 * 		the vowel of the previous syllable.
+	 * @param jungsung
+	 * 		the vowel of the next syllable.
+	 * @return the number of hyphens inserted between the vowels, or 0 if profiling is disabled.
+	 * @throws NullPointerException
+	 * 		if any parameter is null
+	 */
+	public static long getVowelHyphenCount(KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, KoreanCharacter.Jungsung prevJungsung, KoreanCharacter.Jungsung jungsung) {
+		Objects.requireNonNull(prevJungsung, "PrevJungsung should not be null.");
+		Objects.requireNonNull(jungsung, "Jungsung should not be null.");
+
+		return Enabled ? counts[3].get(variant(type, consonantAssimilation) * VowelPairCount + prevJungsung.ordinal() * JungsungCount + jungsung.ordinal()) : 0;
+	}
+
+	/**
+	 * Resets all counters.
+	 */
+	public static void reset() {
+		for (AtomicLongArray array : counts) {
+			for (int i = 0; i < array.length(); i++) {
+				array.set(i, 0);
+			}
+		}
+	}
+
+	/**
+	 * Write the non-zero counters as CSV with the header {@code type,consonantAssimilation,rule,left,right,count}.
+	 * {@code left} and {@code right} are the final and the initial consonants, or the two vowels for {@code vowelHyphen}.
+	 *
+	 * @param output
+	 * 		the output to write to.
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if output parameter is null
+	 */
+	public static void writeCsv(Appendable output) throws IOException {
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		output.append("type,consonantAssimilation,rule,left,right,count\n");
+		write(output, false);
+	}
+
+	/**
+	 * Write the non-zero counters as a JSON array of objects with the fields of {@link #writeCsv(Appendable)}.
+	 *
+	 * @param output
+	 * 		the output to write to.
+	 * @throws IOException
+	 * 		if an I/O error occurs while appending to output
+	 * @throws NullPointerException
+	 * 		if output parameter is null
+	 */
+	public static void writeJson(Appendable output) throws IOException {
+		Objects.requireNonNull(output, "Output should not be null.");
+
+		output.append('[');
+		write(output, true);
+		output.append("\n]\n");
+	}
+
+	private static void write(Appendable output, boolean json) throws IOException {
+		KoreanCharacter.Chosung[] chosungs = KoreanCharacter.Chosung.values();
+		KoreanCharacter.Jungsung[] jungsungs = KoreanCharacter.Jungsung.values();
+		KoreanCharacter.Jongsung[] jongsungs = KoreanCharacter.Jongsung.values();
+		boolean first = true;
+
+		for (int variant = 0; variant < VariantCount; variant++) {
+			for (int rule = 0; rule < rules.length; rule++) {
+				boolean vowels = (rule == 3);
+				int rightCount = vowels ? jungsungs.length : chosungs.length;
+				int size = vowels ? VowelPairCount : JunctionCount;
+
+				for (int i = 0; i < size; i++) {
+					long count = counts[rule].get(variant * size + i);
+
+					if (count == 0) {
+						continue;
+					}
+
+					String type = types[variant / consonantAssimilations.length].name();
+					String consonantAssimilation = consonantAssimilations[variant % consonantAssimilations.length].name();
+					String left = vowels ? jungsungs[i / rightCount].name() : jongsungs[i / rightCount].name();
+					String right = vowels ? jungsungs[i % rightCount].name() : chosungs[i % rightCount].name();
+
+					if (json) {
+						output.append(first ? "\n" : ",\n");
+						output.append("{\"type\":\"").append(type)
+								.append("\",\"consonantAssimilation\":\"").append(consonantAssimilation)
+								.append("\",\"rule\":\"").append(rules[rule])
+								.append("\",\"left\":\"").append(left)
+								.append("\",\"right\":\"").append(right)
+								.append("\",\"count\":").append(Long.toString(count)).append('}');
+					} else {
+						output.append(type).append(',').append(consonantAssimilation).append(',').append(rules[rule])
+								.append(',').append(left).append(',').append(right).append(',').append(Long.toString(count)).append('\n');
+					}
+
+					first = false;
+				}
+			}
+		}
+	}
+
+	private static long get(int rule, KoreanCharacter.Type type, KoreanCharacter.ConsonantAssimilation consonantAssimilation, KoreanCharacter.Jongsung jongsung, KoreanCharacter.Chosung chosung) {
+		Objects.requireNonNull(jongsung, "Jongsung should not be null.");
+		Objects.requireNonNull(chosung, "Chosung should not be null.");
+
+		return Enabled ? counts[rule].get(variant(type, consonantAssimilation) * JunctionCount + jongsung.ordinal() * ChosungCount + chosung.ordinal()) : 0;
+	}
+}
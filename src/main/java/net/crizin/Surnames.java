@@ -0,0 +1,183 @@
+package net.crizin;
+
+import java.util.Arrays;
+
+/**
+ * Surnames addressed by syllable index, so that names are split and typical surnames are found
+ * without regular expressions, hashing or intermediate strings.
+ */
+final class Surnames {
+	private static final int SyllableCount = RomanizationTable.SyllableCount;
+
+	/**
+	 * Two syllable surnames, which are separated from the given name as a whole.
+	 */
+	private static final String[] doubleSurnames = {"강전", "남궁", "독고", "동방", "등정", "망절", "무본", "사공", "서문", "선우", "소봉", "어금", "장곡", "제갈", "황목", "황보"};
+
+	private static final int DoubleSurnameHashBits = 5;
+
+	/**
+	 * The keys of two syllable surnames in their perfect hash slots, or -1 for empty slots.
+	 */
+	private static final int[] doubleSurnameKeys = new int[1 << DoubleSurnameHashBits];
+	private static final String[] doubleSurnameTypicals = new String[1 << DoubleSurnameHashBits];
+	private static final int doubleSurnameMultiplier;
+
+	/**
+	 * Indexes of {@link #typicalSurnames} plus one by syllable index, or 0 if the syllable has no typical romanization.
+	 */
+	private static final byte[] typicalSurnameIndexes = new byte[SyllableCount];
+	private static final String[] typicalSurnames = new String[Byte.MAX_VALUE];
+	private static int typicalSurnameCount;
+
+	static {
+		int multiplier = 0x9E3779B9;
+
+		while (!isPerfectHash(multiplier)) {
+			multiplier += 2;
+		}
+
+		doubleSurnameMultiplier = multiplier;
+		Arrays.fill(doubleSurnameKeys, -1);
+
+		for (String surname : doubleSurnames) {
+			int key = key(surname.charAt(0), surname.charAt(1));
+			doubleSurnameKeys[slot(key, multiplier)] = key;
+		}
+
+		putTypical("가", "Ka");
+		putTypical("간", "Kan");
+		putTypical("갈", "Kal");
+		putTypical("감", "Kam");
+		putTypical("강", "Kang");
+		putTypical("강전", "Kangjun");
+		putTypical("견", "Kyun");
+		putTypical("경", "Kyung");
+		putTypical("계", "Kye");
+		putTypical("고", "Ko");
+		putTypical("공", "Kong");
+		putTypical("곽", "Kwak");
+		putTypical("구", "Koo");
+		putTypical("국", "Kook");
+		putTypical("군", "Kun");
+		putTypical("궁", "Koong");
+		putTypical("궉", "Kwok");
+		putTypical("권", "Kwon");
+		putTypical("근", "Keun");
+		putTypical("금", "Keum");
+		putTypical("기", "Ki");
+		putTypical("길", "Kil");
+		putTypical("김", "Kim");
+		putTypical("노", "Noh");
+		putTypical("두", "Doo");
+		putTypical("란", "Lan");
+		putTypical("뢰", "Loi");
+		putTypical("루", "Lu");
+		putTypical("망절", "Mangjul");
+		putTypical("명", "Myung");
+		putTypical("문", "Moon");
+		putTypical("박", "Park");
+		putTypical("변", "Byun");
+		putTypical("부", "Boo");
+		putTypical("선", "Sun");
+		putTypical("선우", "Sunwoo");
+		putTypical("성", "Sung");
+		putTypical("순", "Soon");
+		putTypical("신", "Shin");
+		putTypical("심", "Shim");
+		putTypical("아", "Ah");
+		putTypical("어금", "Eokum");
+		putTypical("오", "Oh");
+		putTypical("우", "Woo");
+		putTypical("운", "Woon");
+		putTypical("유", "Yoo");
+		putTypical("윤", "Yoon");
+		putTypical("이", "Lee");
+		putTypical("임", "Lim");
+		putTypical("정", "Jung");
+		putTypical("조", "Cho");
+		putTypical("주", "Joo");
+		putTypical("준", "June");
+		putTypical("즙", "Chup");
+		putTypical("최", "Choi");
+		putTypical("편", "Pyun");
+		putTypical("평", "Pyung");
+		putTypical("풍", "Poong");
+		putTypical("현", "Hyun");
+		putTypical("형", "Hyung");
+		putTypical("흥", "Hong");
+	}
+
+	private Surnames() {
+	}
+
+	/**
+	 * @return true if the syllables are a two syllable surname.
+	 */
+	static boolean isDoubleSurname(char first, char second) {
+		return doubleSurnameSlot(first, second) >= 0;
+	}
+
+	/**
+	 * @return the typical romanization of the single syllable surname, or null if it has none.
+	 */
+	static String getTypical(char surname) {
+		if (!KoreanCharacter.isKoreanCharacter(surname)) {
+			return null;
+		}
+
+		int index = typicalSurnameIndexes[surname - KoreanCharacter.KoreanLowerValue];
+		return (index == 0) ? null : typicalSurnames[index - 1];
+	}
+
+	/**
+	 * @return the typical romanization of the two syllable surname, or null if it has none.
+	 */
+	static String getTypical(char first, char second) {
+		int slot = doubleSurnameSlot(first, second);
+		return (slot < 0) ? null : doubleSurnameTypicals[slot];
+	}
+
+	private static void putTypical(String surname, String romanized) {
+		if (surname.length() == 1) {
+			typicalSurnames[typicalSurnameCount++] = romanized;
+			typicalSurnameIndexes[surname.charAt(0) - KoreanCharacter.KoreanLowerValue] = (byte) typicalSurnameCount;
+		} else {
+			doubleSurnameTypicals[doubleSurnameSlot(surname.charAt(0), surname.charAt(1))] = romanized;
+		}
+	}
+
+	private static int doubleSurnameSlot(char first, char second) {
+		if (!KoreanCharacter.isKoreanCharacter(first) || !KoreanCharacter.isKoreanCharacter(second)) {
+			return -1;
+		}
+
+		int key = key(first, second);
+		int slot = slot(key, doubleSurnameMultiplier);
+		return (doubleSurnameKeys[slot] == key) ? slot : -1;
+	}
+
+	private static int key(char first, char second) {
+		return (first - KoreanCharacter.KoreanLowerValue) * SyllableCount + (second - KoreanCharacter.KoreanLowerValue);
+	}
+
+	private static int slot(int key, int multiplier) {
+		return (key * multiplier) >>> (Integer.SIZE - DoubleSurnameHashBits);
+	}
+
+	private static boolean isPerfectHash(int multiplier) {
+		int usedSlots = 0;
+
+		for (String surname : doubleSurnames) {
+			int slot = 1 << slot(key(surname.charAt(0), surname.charAt(1)), multiplier);
+
+			if ((usedSlots & slot) != 0) {
+				return false;
+			}
+
+			usedSlots |= slot;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,166 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncRomanizerTest {
+	@Test
+	public void testRomanizeAsync() throws Exception {
+		AsyncRomanizer asyncRomanizer = new AsyncRomanizer(Romanizer.of(null, null));
+
+		assertEquals("Sillamyeon", asyncRomanizer.romanizeAsync("신라면").get(10, TimeUnit.SECONDS));
+		assertThrows(NullPointerException.class, () -> asyncRomanizer.romanizeAsync(null));
+		assertThrows(NullPointerException.class, () -> new AsyncRomanizer(null));
+		assertThrows(NullPointerException.class, () -> new AsyncRomanizer(Romanizer.of(null, null), null));
+	}
+
+	@Test
+	public void testVirtualThreadExecutor() throws Exception {
+		ExecutorService executor;
+
+		try {
+			executor = AsyncRomanizer.newVirtualThreadExecutor();
+		} catch (UnsupportedOperationException e) {
+			return;
+		}
+
+		try {
+			assertEquals("Sillamyeon", new AsyncRomanizer(Romanizer.of(null, null), executor).romanizeAsync("신라면").get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testStage() throws Exception {
+		String[] fragments = {"신라", "면", "색연필", "종로2가", " ", "-", "a", "ㅋ"};
+		Random random = new Random(0);
+		Romanizer romanizer = Romanizer.of(null, null);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			for (int batchSize : new int[]{1, 3, 64}) {
+				for (int maxInFlight : new int[]{1, 10, 1000}) {
+					List<String> strings = new ArrayList<>();
+					List<String> emitted = new ArrayList<>();
+					AtomicInteger concurrent = new AtomicInteger();
+					RomanizingStage stage = new AsyncRomanizer(romanizer, executor).newStage(batchSize, maxInFlight, string -> {
+						assertEquals(1, concurrent.incrementAndGet());
+						emitted.add(string);
+						concurrent.decrementAndGet();
+					});
+
+					for (int i = 0; i < 2000; i++) {
+						StringBuilder string = new StringBuilder();
+
+						for (int j = 1 + random.nextInt(4); j > 0; j--) {
+							string.append(fragments[random.nextInt(fragments.length)]);
+						}
+
+						strings.add(string.toString());
+
+						CompletableFuture<Void> admission = stage.submit(string.toString());
+
+						if (i % 2 == 0) {
+							admission.get(10, TimeUnit.SECONDS);
+							assertTrue(stage.getInFlightCount() <= maxInFlight);
+						}
+					}
+
+					stage.complete().get(10, TimeUnit.SECONDS);
+
+					assertEquals(strings.size(), emitted.size());
+					assertEquals(0, stage.getInFlightCount());
+
+					for (int i = 0; i < strings.size(); i++) {
+						assertEquals(romanizer.romanize(strings.get(i)), emitted.get(i));
+					}
+
+					assertThrows(IllegalStateException.class, () -> stage.submit("신라면"));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch latch = new CountDownLatch(1);
+		List<String> emitted = new ArrayList<>();
+
+		try {
+			RomanizingStage stage = new AsyncRomanizer(Romanizer.of(null, null), executor).newStage(2, 3, string -> {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+
+				emitted.add(string);
+			});
+
+			for (int i = 0; i < 3; i++) {
+				assertTrue(stage.submit("신라면").isDone());
+			}
+
+			CompletableFuture<Void> admission = stage.submit("색연필");
+
+			assertFalse(admission.isDone());
+			assertEquals(3, stage.getInFlightCount());
+
+			latch.countDown();
+			admission.get(10, TimeUnit.SECONDS);
+			stage.complete().get(10, TimeUnit.SECONDS);
+
+			assertEquals(4, emitted.size());
+			assertEquals("Saegyeonpil", emitted.get(3));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			RomanizingStage stage = new AsyncRomanizer(Romanizer.of(null, null), executor).newStage(1, 1, string -> {
+				throw new IllegalStateException(string);
+			});
+
+			stage.submit("신라면");
+
+			ExecutionException exception = assertThrows(ExecutionException.class, () -> stage.getCompletion().get(10, TimeUnit.SECONDS));
+
+			assertEquals("Sillamyeon", exception.getCause().getMessage());
+			assertTrue(stage.submit("색연필").isCompletedExceptionally());
+			assertTrue(stage.complete().isCompletedExceptionally());
+		} finally {
+			executor.shutdown();
+		}
+
+		AsyncRomanizer asyncRomanizer = new AsyncRomanizer(Romanizer.of(null, null));
+
+		assertThrows(NullPointerException.class, () -> asyncRomanizer.newStage(1, 1, null));
+		assertThrows(IllegalArgumentException.class, () -> asyncRomanizer.newStage(0, 1, string -> {
+		}));
+		assertThrows(IllegalArgumentException.class, () -> asyncRomanizer.newStage(1, 0, string -> {
+		}));
+		assertThrows(NullPointerException.class, () -> asyncRomanizer.newStage(1, 1, string -> {
+		}).submit(null));
+	}
+}
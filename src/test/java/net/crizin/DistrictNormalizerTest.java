@@ -0,0 +1,84 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistrictNormalizerTest {
+	private static final Pattern districtPostfixes = Pattern.compile("^(.{1,20}?)(특별자치도|특별자치시|특별시|광역시|대로|구|군|도|동|리|면|시|읍|가|길|로)(\\s*)$");
+	private static final Pattern districtPostfixesWithNumbers1 = Pattern.compile("^(.{0,20}?)(\\d+)(\\s*)(가길|가|번길|로|단지|동)(\\s*)$");
+	private static final Pattern districtPostfixesWithNumbers2 = Pattern.compile("^(.{0,20}?)(대?로)\\s*(\\d+[가번]?)(길)(\\s*)$");
+
+	private static final String[] fragments = {
+			"특별자치도", "특별자치시", "특별시", "광역시", "특별", "자치", "대로", "대", "로", "구", "군", "도", "동", "리", "면", "시", "읍",
+			"가", "길", "가길", "번길", "번", "단지", "종", "성남", "서울", "1", "2", "23", "0", " ", "  ", "\t", "\n", "\r", "\r\n",
+			"\u0085", "\u2028", "\u2029", "-", "a", "😀", "\uD83D", "\uDE00", "１"
+	};
+
+	@Test
+	public void testNormalize() {
+		assertNormalized("서울특별시");
+		assertNormalized("특별시");
+		assertNormalized("종로 2가");
+		assertNormalized("2가");
+		assertNormalized("성남대로 2번길  ");
+		assertNormalized("세종로3길");
+		assertNormalized("종로구 ");
+		assertNormalized("가나다라마바사아자차카타파하가나다라마바사아자차구");
+		assertNormalized("가나다라마바사아자차카타파하가나다라마바사아자구");
+		assertNormalized("😀나다라마바사아자차카타파하가나다라마바사아자구");
+		assertNormalized("");
+	}
+
+	@Test
+	public void testRandomDistricts() {
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 200_000; trial++) {
+			StringBuilder district = new StringBuilder();
+			int count = random.nextInt(12);
+
+			for (int i = 0; i < count; i++) {
+				district.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			assertNormalized(district.toString());
+		}
+	}
+
+	private static void assertNormalized(String district) {
+		char[] normalized = DistrictNormalizer.normalize(null, district, 0, district.length());
+		assertEquals(normalizeByPatterns(district), (normalized == null) ? district : new String(normalized), district);
+
+		char[] characters = ("(" + district + ")").toCharArray();
+		normalized = DistrictNormalizer.normalize(characters, null, 1, characters.length - 1);
+		assertEquals(normalizeByPatterns(district), (normalized == null) ? district : new String(normalized), district);
+	}
+
+	/**
+	 * The former implementation.
+	 */
+	private static String normalizeByPatterns(String string) {
+		Matcher matcher = districtPostfixesWithNumbers2.matcher(string);
+
+		if (matcher.find()) {
+			return matcher.group(1) + "-" + matcher.group(2) + " " + matcher.group(3) + "-" + matcher.group(4) + matcher.group(5);
+		} else {
+			matcher = districtPostfixesWithNumbers1.matcher(string);
+			if (matcher.find()) {
+				return matcher.group(1) + (matcher.group(1).endsWith(" ") ? "" : " ") + matcher.group(2) + "-" + matcher.group(3) + matcher.group(4);
+			} else {
+				matcher = districtPostfixes.matcher(string);
+				if (matcher.find()) {
+					return matcher.group(1) + "-" + matcher.group(2) + matcher.group(3);
+				}
+			}
+		}
+
+		return string;
+	}
+}
@@ -0,0 +1,95 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JamoComposerTest {
+	@Test
+	public void testConjoiningJamo() throws IOException {
+		String[] fragments = {"신라", "면", "색연필", "종로2가", "선우은숙", "학여울", "해운대", "구", " ", "-", "2", "a", "\n", "😀", "ㅋ"};
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 1000; trial++) {
+			StringBuilder text = new StringBuilder();
+			int count = 1 + random.nextInt(10);
+
+			for (int i = 0; i < count; i++) {
+				text.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			String composed = text.toString();
+			String decomposed = Normalizer.normalize(composed, Normalizer.Form.NFD);
+
+			for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+				for (boolean useRomanizationTable : new boolean[]{true, false}) {
+					Romanizer romanizer = Romanizer.of(type, null, useRomanizationTable).withJamo(true, false);
+					String expected = Romanizer.of(type, null, useRomanizationTable).romanize(composed);
+
+					assertEquals(expected, romanizer.romanize(decomposed), decomposed);
+					assertEquals(expected, romanizer.romanize(decomposed.toCharArray(), 0, decomposed.length(), new StringBuilder()).toString());
+					assertEquals(expected, new RomanizedCharSequence(decomposed, romanizer).toString());
+					RomanizerTest.assertOffsets(romanizer, decomposed, expected, null, null);
+
+					StringWriter writer = new StringWriter();
+
+					try (RomanizingWriter romanizingWriter = new RomanizingWriter(writer, romanizer)) {
+						for (int i = 0; i < decomposed.length(); ) {
+							int end = Math.min(decomposed.length(), i + 1 + random.nextInt(4));
+							romanizingWriter.write(decomposed, i, end - i);
+							i = end;
+						}
+					}
+
+					StringWriter expectedWriter = new StringWriter();
+
+					try (RomanizingWriter romanizingWriter = new RomanizingWriter(expectedWriter, Romanizer.of(type, null, useRomanizationTable))) {
+						romanizingWriter.write(composed);
+					}
+
+					assertEquals(expectedWriter.toString(), writer.toString());
+
+					byte[] bytes = decomposed.getBytes(StandardCharsets.UTF_8);
+					ByteBuffer output = ByteBuffer.allocate(bytes.length * 3 + 3);
+					romanizer.romanize(ByteBuffer.wrap(bytes), output);
+					assertEquals(new String(expected.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), new String(output.array(), 0, output.position(), StandardCharsets.UTF_8));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCompatibilityJamo() {
+		Romanizer romanizer = Romanizer.builder().compatibilityJamo(true).build();
+
+		Romanizer plain = Romanizer.of(null, null);
+
+		assertEquals(plain.romanize("한글"), romanizer.romanize("ㅎㅏㄴㄱㅡㄹ"));
+		assertEquals(plain.romanize("안녕"), romanizer.romanize("ㅇㅏㄴㄴㅕㅇ"));
+		assertEquals(plain.romanize("신라면 학여울"), romanizer.romanize("ㅅㅣㄴㄹㅏㅁㅕㄴ ㅎㅏㄱㅇㅕㅇㅜㄹ"));
+		assertEquals(plain.romanize("한글"), romanizer.romanize("한ㄱㅡㄹ"));
+		assertEquals("Kk", romanizer.romanize("ㅋㅋ"));
+		assertEquals("G, A, Ng, K", romanizer.romanize("ㄱ, ㅏ, ㅇ, ㄳ"));
+		assertEquals("ㅎㅏㄴ", Romanizer.of(null, null).romanize("ㅎㅏㄴ"));
+		assertEquals("Jongno-gu", Romanizer.builder().type(KoreanCharacter.Type.District).compatibilityJamo(true).build().romanize("ㅈㅗㅇㄹㅗㄱㅜ"));
+	}
+
+	@Test
+	public void testBuilder() {
+		Romanizer romanizer = Romanizer.builder().type(KoreanCharacter.Type.District).conjoiningJamo(true).build();
+
+		assertTrue(romanizer.isConjoiningJamoComposed());
+		assertFalse(romanizer.isCompatibilityJamoRomanized());
+		assertEquals(KoreanCharacter.Type.District, romanizer.getType());
+		assertEquals("Romanizer(District, Regressive, conjoining jamo)", romanizer.toString());
+		assertSame(Romanizer.of(null, null), Romanizer.builder().conjoiningJamo(false).compatibilityJamo(false).build());
+		assertEquals("한", Romanizer.of(null, null).romanize("한"));
+	}
+}
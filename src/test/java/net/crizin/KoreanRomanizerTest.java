@@ -2,7 +2,16 @@ package net.crizin;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.CharBuffer;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class KoreanRomanizerTest {
 	@Test
@@ -30,6 +39,21 @@ public class KoreanRomanizerTest {
 		assertEquals("가", ga.toString());
 	}
 
+	@Test
+	public void testValueOf() {
+		for (char c = (char) KoreanCharacter.KoreanLowerValue; c <= KoreanCharacter.KoreanUpperValue; c++) {
+			KoreanCharacter character = KoreanCharacter.valueOf(c);
+			assertSame(character, KoreanCharacter.valueOf(c));
+			assertEquals(new KoreanCharacter(c), character);
+			assertEquals(new KoreanCharacter(c).getRomanizedString(), character.getRomanizedString());
+		}
+
+		assertSame(KoreanCharacter.valueOf('A'), KoreanCharacter.valueOf('A'));
+		assertFalse(KoreanCharacter.valueOf('A').isKoreanCharacter());
+		assertEquals(new KoreanCharacter('“'), KoreanCharacter.valueOf('“'));
+		assertEquals(KoreanCharacter.Jongsung.ㄺ, KoreanCharacter.valueOf('닭').getJongsung());
+	}
+
 	@Test
 	public void testException() {
 		Throwable exception = assertThrows(NullPointerException.class, () -> KoreanRomanizer.romanize(null));
@@ -227,6 +251,151 @@ public class KoreanRomanizerTest {
 		assertEquals("Choi Siwon", KoreanRomanizer.romanize("최시원", KoreanCharacter.Type.NameTypical));
 		assertEquals("Seonu Eunsuk", KoreanRomanizer.romanize("선우은숙", KoreanCharacter.Type.Name));
 		assertEquals("Sunwoo Eunsuk", KoreanRomanizer.romanize("선우은숙", KoreanCharacter.Type.NameTypical));
+		assertEquals("Namgung Min", KoreanRomanizer.romanize("남궁민", KoreanCharacter.Type.NameTypical));
+		assertEquals("Eokum Jeong", KoreanRomanizer.romanize("어금정", KoreanCharacter.Type.NameTypical));
+		assertEquals("  Hwangbo Gwan", KoreanRomanizer.romanize("  황보관\n", KoreanCharacter.Type.Name));
+		assertEquals("Seon U", KoreanRomanizer.romanize("선우", KoreanCharacter.Type.Name));
+		assertEquals("Sun U", KoreanRomanizer.romanize("선우", KoreanCharacter.Type.NameTypical));
+		assertEquals("", KoreanRomanizer.romanize("", KoreanCharacter.Type.Name));
+	}
+
+	@Test
+	public void testRandomNames() {
+		Pattern doubleSurnames = Pattern.compile("^(\\s*)(강전|남궁|독고|동방|등정|망절|무본|사공|서문|선우|소봉|어금|장곡|제갈|황목|황보)(.{1,10})$");
+		String[] fragments = {"선우", "황보", "제갈", "김", "이", "박", "선", "우", "민", "준", "하", " ", "\t", "\n", "\r", "\r\n", "\u2028", "a", "1", "😀"};
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 100_000; trial++) {
+			StringBuilder name = new StringBuilder();
+			int count = 1 + random.nextInt(12);
+
+			for (int i = 0; i < count; i++) {
+				name.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			Matcher matcher = doubleSurnames.matcher(name);
+			String surname;
+			String rest;
+			String typicalSurname;
+
+			if (matcher.find()) {
+				surname = matcher.group(1) + matcher.group(2);
+				rest = matcher.group(3);
+				typicalSurname = Surnames.getTypical(matcher.group(2).charAt(0), matcher.group(2).charAt(1));
+				typicalSurname = (typicalSurname == null) ? surname : matcher.group(1) + typicalSurname;
+			} else {
+				surname = name.substring(0, 1);
+				rest = name.substring(1);
+				typicalSurname = Surnames.getTypical(name.charAt(0));
+				typicalSurname = (typicalSurname == null) ? surname : typicalSurname;
+			}
+
+			assertEquals(romanizeNameParts(surname, rest, KoreanCharacter.Type.Name), KoreanRomanizer.romanize(name.toString(), KoreanCharacter.Type.Name));
+			assertEquals(romanizeNameParts(typicalSurname, rest, KoreanCharacter.Type.NameTypical), KoreanRomanizer.romanize(name.toString(), KoreanCharacter.Type.NameTypical));
+		}
+	}
+
+	/**
+	 * Romanize "surname given-name" as the former implementation did after normalizing. Names are romanized regardless of neighboring syllables.
+	 */
+	private static String romanizeNameParts(String surname, String givenName, KoreanCharacter.Type type) {
+		String normalized = surname + " " + givenName;
+		StringBuilder romanized = new StringBuilder();
+
+		for (int i = 0; i < normalized.length(); i++) {
+			char character = normalized.charAt(i);
+
+			if (KoreanCharacter.isKoreanCharacter(character)) {
+				String pronunciation = new KoreanCharacter(character).getRomanizedString(null, null, KoreanCharacter.ConsonantAssimilation.Regressive, type);
+
+				if (i == 0 || !KoreanCharacter.isKoreanCharacter(normalized.charAt(i - 1))) {
+					pronunciation = Character.toUpperCase(pronunciation.charAt(0)) + pronunciation.substring(1);
+				}
+
+				romanized.append(pronunciation);
+			} else {
+				romanized.append(character);
+			}
+		}
+
+		return romanized.toString();
+	}
+
+	@Test
+	public void testRomanizationTable() {
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : KoreanCharacter.ConsonantAssimilation.values()) {
+				for (KoreanCharacter.Jungsung prevJungsung : KoreanCharacter.Jungsung.values()) {
+					for (KoreanCharacter.Jongsung prevJongsung : KoreanCharacter.Jongsung.values()) {
+						StringBuilder pairs = new StringBuilder();
+						char prev = new KoreanCharacter(KoreanCharacter.Chosung.ㄱ, prevJungsung, prevJongsung).getCharacter();
+
+						for (KoreanCharacter.Chosung chosung : KoreanCharacter.Chosung.values()) {
+							for (KoreanCharacter.Jungsung jungsung : KoreanCharacter.Jungsung.values()) {
+								pairs.append(prev).append(new KoreanCharacter(chosung, jungsung, KoreanCharacter.Jongsung.ㄴ).getCharacter()).append(prev).append(' ');
+							}
+						}
+
+						String string = pairs.toString();
+						assertEquals(KoreanRomanizer.romanize(string, type, consonantAssimilation, false), KoreanRomanizer.romanize(string, type, consonantAssimilation, true));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAppendable() throws IOException {
+		assertEquals("[Sillamyeon]", KoreanRomanizer.romanize("신라면", null, null, new StringBuilder("[")).append(']').toString());
+		assertEquals("Sinnamyeon", KoreanRomanizer.romanize(new StringBuilder("신라면"), null, KoreanCharacter.ConsonantAssimilation.Progressive, new StringWriter()).toString());
+		assertEquals("Seongnam-daero 2beon-gil", KoreanRomanizer.romanize("성남대로2번길", KoreanCharacter.Type.District, null, new StringBuilder()).toString());
+		assertEquals("Jegal Gongmyeong", KoreanRomanizer.romanize("제갈공명", KoreanCharacter.Type.Name, null, new StringBuilder()).toString());
+
+		char[] characters = "[닭고기]".toCharArray();
+		assertEquals("Dalkkogi", KoreanRomanizer.romanize(characters, 1, 3, null, null, new StringBuilder()).toString());
+		assertEquals("Dalkkogi", ((CharBuffer) KoreanRomanizer.romanize(characters, 1, 3, null, null, CharBuffer.allocate(16)).flip()).toString());
+		assertEquals("Jongno 2-ga", KoreanRomanizer.romanize("(종로2가)".toCharArray(), 1, 4, KoreanCharacter.Type.District, null, new StringBuilder()).toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> KoreanRomanizer.romanize(characters, 3, 3, null, null, new StringBuilder()));
+		assertThrows(NullPointerException.class, () -> KoreanRomanizer.romanize("", null, null, (StringBuilder) null));
+	}
+
+	@Test
+	public void testAllocation() {
+		String string = "여름장이란 애시당초에 글러서, 해는 아직 중천에 있건만 장판은 벌써 쓸쓸하고 더운 햇발이 벌여놓은 전 휘장 밑으로 등줄기를 훅훅 볶는다.";
+		char[] characters = string.toCharArray();
+		StringBuilder output = new StringBuilder(string.length() * 4);
+		int iterations = 10000;
+
+		long allocatedBytes = allocatedBytes(iterations, () -> {
+			output.setLength(0);
+			KoreanRomanizer.romanize(string, null, null, output);
+			KoreanRomanizer.romanize(characters, 0, characters.length, KoreanCharacter.Type.Compound, null, output);
+		});
+
+		assertEquals(KoreanRomanizer.romanize(string) + KoreanRomanizer.romanize(string, KoreanCharacter.Type.Compound), output.toString());
+		assertTrue(allocatedBytes < iterations, "Allocated " + allocatedBytes + " bytes");
+	}
+
+	/**
+	 * Run the task to warm it up, then measure the bytes allocated by the current thread while running it as many times again.
+	 * The test is skipped if the JVM cannot measure them.
+	 */
+	static long allocatedBytes(int iterations, Runnable task) {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		for (int i = 0; i < iterations; i++) {
+			task.run();
+		}
+
+		long allocatedBytes = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+		for (int i = 0; i < iterations; i++) {
+			task.run();
+		}
+
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBytes;
 	}
 
 	@Test
@@ -0,0 +1,103 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileRomanizerTest {
+	private static final String[] fragments = {"신라", "면", "색연필", "종로2가", "선우은숙", "박보검", " ", "-", "2", "a", "\n", "\r\n", "\r", "é", "漢", "😀"};
+
+	private static final ForkJoinPool pool = new ForkJoinPool(3);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testRomanize() throws IOException {
+		Random random = new Random(0);
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 20000; i++) {
+			text.append(fragments[random.nextInt(fragments.length)]);
+		}
+
+		assertRomanized(text.toString());
+		assertRomanized(text.toString() + '\n');
+		assertRomanized("");
+		assertRomanized("박보검");
+	}
+
+	@Test
+	public void testGrowingOutput() throws IOException {
+		StringBuilder text = new StringBuilder();
+
+		// Romanizing these lines grows them by more than half, overflowing the first output buffer.
+		for (int i = 0; i < 1000; i++) {
+			text.append("광명동\n");
+		}
+
+		assertRomanized(text.toString());
+	}
+
+	@Test
+	public void testExpandingDictionary() throws IOException {
+		RomanizationDictionary dictionary = RomanizationDictionary.builder().put("삼성", "Samsung Electronics Company Limited").build();
+		Random random = new Random(0);
+		StringBuilder text = new StringBuilder("삼성 가\n");
+
+		for (int i = 0; i < 2000; i++) {
+			text.append(random.nextBoolean() ? "삼성" : (random.nextBoolean() ? "가" : "\n"));
+		}
+
+		Path input = directory.resolve("input.txt");
+		Path output = directory.resolve("output.txt");
+		Files.write(input, text.toString().getBytes(StandardCharsets.UTF_8));
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			for (int regionSize : new int[]{1, 100, MappedFileRomanizer.DefaultRegionSize}) {
+				Romanizer romanizer = Romanizer.builder().type(type).dictionary(dictionary).build();
+				new MappedFileRomanizer(romanizer, pool, regionSize).romanize(input, output);
+
+				StringWriter expected = new StringWriter();
+
+				try (RomanizingWriter writer = new RomanizingWriter(expected, romanizer)) {
+					writer.write(text.toString());
+				}
+
+				assertEquals(expected.toString(), new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private void assertRomanized(String text) throws IOException {
+		Path input = directory.resolve("input.txt");
+		Path output = directory.resolve("output.txt");
+		Files.write(input, text.getBytes(StandardCharsets.UTF_8));
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			for (int regionSize : new int[]{1, 100, MappedFileRomanizer.DefaultRegionSize}) {
+				Romanizer romanizer = Romanizer.of(type, null);
+				MappedFileRomanizer.Statistics statistics = new MappedFileRomanizer(romanizer, pool, regionSize).romanize(input, output);
+
+				StringWriter expected = new StringWriter();
+				KoreanRomanizer.romanize(new StringReader(text), expected, type, null);
+
+				// Names split after the first character, which may leave unpaired surrogates that UTF-8 can only replace.
+				assertEquals(new String(expected.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+				assertEquals(Files.size(input), statistics.getBytesRead());
+				assertEquals(Files.size(output), statistics.getBytesWritten());
+				assertEquals(text.chars().filter(c -> KoreanCharacter.isKoreanCharacter((char) c)).count(), statistics.getSyllables());
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelRomanizerTest {
+	private static final String text = "여름장이란 애시당초에 글러서, 해는 아직 중천에 있건만 장판은 벌써 쓸쓸하고 더운 햇발이 벌여놓은 전 휘장 밑으로 등줄기를 훅훅 볶는다.\n"
+			+ "“생원, 시침을 떼두 다 아네…. 충주집 말야.” 신라면 색연필 콩엿 백로 학여울 ABC123 묵호";
+
+	@Test
+	public void testRomanizeAll() {
+		String[] strings = new String[5000];
+
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = text.substring(i % 50, i % 50 + 1 + i % 70);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+				String[] results = new ParallelRomanizer(pool).romanizeAll(strings, type, null);
+
+				for (int i = 0; i < strings.length; i++) {
+					assertEquals(KoreanRomanizer.romanize(strings[i], type), results[i]);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		List<String> results = KoreanRomanizer.romanizeAll(Arrays.asList("신라면", "박보검", "신라면"), null, KoreanCharacter.ConsonantAssimilation.Progressive);
+		assertEquals(Arrays.asList("Sinnamyeon", "Bakbogeom", "Sinnamyeon"), results);
+		assertSame(results.get(0), results.get(2));
+
+		Throwable exception = assertThrows(NullPointerException.class, () -> KoreanRomanizer.romanizeAll(new String[]{"가", null}, null, null));
+		assertEquals("String should not be null.", exception.getMessage());
+	}
+
+	@Test
+	public void testSplitDocument() {
+		StringBuilder document = new StringBuilder();
+
+		while (document.length() < 100000) {
+			document.append(text);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			for (int splitThreshold : new int[]{1, 1000, ParallelRomanizer.DefaultSplitThreshold}) {
+				ParallelRomanizer romanizer = new ParallelRomanizer(pool, splitThreshold);
+
+				for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+					assertEquals(KoreanRomanizer.romanize(document.toString(), type), romanizer.romanize(document.toString(), type, null));
+				}
+
+				assertEquals("Sillamyeon", romanizer.romanize("신라면", null, null));
+				assertEquals("", romanizer.romanize("", null, null));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizationCacheTest {
+	@Test
+	public void testRomanize() {
+		RomanizationCache cache = new RomanizationCache(100);
+
+		assertEquals("Sillamyeon", cache.romanize("신라면", null, null));
+		assertEquals("Sinnamyeon", cache.romanize("신라면", null, KoreanCharacter.ConsonantAssimilation.Progressive));
+		assertEquals("Sillamyeon", cache.romanize("신라면", KoreanCharacter.Type.Typical, KoreanCharacter.ConsonantAssimilation.Regressive));
+		assertEquals("Park Bogeom", cache.romanize("박보검", KoreanCharacter.Type.NameTypical, null));
+		assertEquals("Bak Bogeom", cache.romanize("박보검", KoreanCharacter.Type.Name, null));
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+		assertEquals(4, cache.size());
+		assertEquals(0.2, cache.getHitRate(), 1e-9);
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertThrows(IllegalArgumentException.class, () -> new RomanizationCache(0));
+	}
+
+	@Test
+	public void testRomanizeWords() {
+		RomanizationCache cache = new RomanizationCache(1000);
+		String text = "  여름장이란 애시당초에 글러서,\t해는 아직 중천에 있건만\n장판은 벌써 쓸쓸하고 아직 중천에 ABC 2-가 ";
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : KoreanCharacter.ConsonantAssimilation.values()) {
+				assertEquals(KoreanRomanizer.romanize(text, type, consonantAssimilation), cache.romanizeWords(text, type, consonantAssimilation));
+			}
+		}
+
+		assertTrue(cache.getHitCount() > 0);
+	}
+
+	@Test
+	public void testFrequencyAwareEviction() {
+		RomanizationCache cache = new RomanizationCache(10);
+		String[] popular = {"김", "이", "박", "최", "정"};
+
+		for (int round = 0; round < 5; round++) {
+			for (String name : popular) {
+				cache.romanize(name, null, null);
+			}
+		}
+
+		// Each popular name is requested once every 20 one-off inputs, which would evict it from a plain LRU cache.
+		int popularHits = 0;
+
+		for (int i = 0; i < 1000; i++) {
+			cache.romanize("가" + (char) ('가' + i), null, null);
+
+			if (i % 4 == 0) {
+				long hits = cache.getHitCount();
+				cache.romanize(popular[i / 4 % popular.length], null, null);
+				popularHits += (int) (cache.getHitCount() - hits);
+			}
+		}
+
+		assertTrue(popularHits >= 225, "Popular hits: " + popularHits);
+
+		assertTrue(cache.size() <= 10);
+		assertTrue(cache.getEvictionCount() > 0);
+	}
+
+	@Test
+	public void testConcurrency() throws Exception {
+		RomanizationCache cache = new RomanizationCache(64);
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+
+			for (int thread = 0; thread < 8; thread++) {
+				int seed = thread;
+				futures.add(executorService.submit(() -> {
+					for (int i = 0; i < 20000; i++) {
+						String string = String.valueOf((char) ('가' + (i * (seed + 1)) % 200)) + '라';
+						assertEquals(KoreanRomanizer.romanize(string), cache.romanize(string, null, null));
+					}
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executorService.shutdown();
+		}
+
+		assertEquals(160000, cache.getHitCount() + cache.getMissCount());
+		assertTrue(cache.size() <= 64);
+	}
+}
@@ -0,0 +1,382 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizationDictionaryTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testBuilder() throws IOException {
+		Map<String, String> romanizations = new HashMap<>();
+		romanizations.put("삼성", "Samsung");
+		romanizations.put("현대", "Hyundai");
+
+		RomanizationDictionary dictionary = RomanizationDictionary.builder()
+				.putAll(romanizations)
+				.put("카카오", "Kakao")
+				.put("카카오", "KAKAO")
+				.load(new StringReader("# brands\n\n카카오톡\tKakaoTalk\nK팝\tK-pop\n"))
+				.build();
+
+		assertEquals(5, dictionary.size());
+		assertEquals("Samsung", dictionary.get("삼성"));
+		assertEquals("KAKAO", dictionary.get("카카오"));
+		assertEquals("KakaoTalk", dictionary.get("카카오톡"));
+		assertEquals("K-pop", dictionary.get("K팝"));
+		assertNull(dictionary.get("카카"));
+		assertNull(dictionary.get("카카오톡톡"));
+		assertNull(dictionary.get(""));
+		assertTrue(dictionary.getMemoryUsage() > 0);
+		assertTrue(dictionary.getMemoryUsagePerEntry() > 0);
+		assertTrue(dictionary.getStateCount() > 5);
+		assertTrue(dictionary.toString().startsWith("RomanizationDictionary(5 words"));
+
+		assertEquals(0, RomanizationDictionary.builder().build().size());
+		assertNull(RomanizationDictionary.builder().build().get("삼성"));
+
+		assertThrows(IllegalArgumentException.class, () -> RomanizationDictionary.builder().put("", "Empty"));
+		assertThrows(NullPointerException.class, () -> RomanizationDictionary.builder().put("삼성", null));
+		assertThrows(IllegalArgumentException.class, () -> RomanizationDictionary.builder().load(new StringReader("삼성\tSamsung\n현대 Hyundai\n")));
+		assertThrows(IllegalArgumentException.class, () -> RomanizationDictionary.builder().load(new StringReader("\tSamsung\n")));
+	}
+
+	@Test
+	public void testFind() {
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 500; trial++) {
+			RomanizationDictionary.Builder builder = RomanizationDictionary.builder();
+			List<String> words = new ArrayList<>();
+			int wordCount = 1 + random.nextInt(20);
+
+			for (int i = 0; i < wordCount; i++) {
+				String word = randomText(random, 1 + random.nextInt(5));
+				words.add(word);
+				builder.put(word, "<" + word + ">");
+			}
+
+			RomanizationDictionary dictionary = builder.build();
+			String text = randomText(random, random.nextInt(40));
+
+			for (String word : words) {
+				assertEquals("<" + word + ">", dictionary.get(word));
+			}
+
+			for (int from = 0; from <= text.length(); from++) {
+				long match = dictionary.find(null, text, from, text.length());
+				long expected = findLeftmostLongest(words, text, from);
+
+				assertEquals(expected, (match < 0) ? -1 : (match >>> 32) * 100 + dictionary.getWordLength((int) match), text + " " + words);
+				assertEquals(match, dictionary.find(text.toCharArray(), null, from, text.length()));
+			}
+		}
+	}
+
+	@Test
+	public void testLargeDictionary() {
+		Random random = new Random(0);
+		Map<String, String> romanizations = new HashMap<>();
+
+		while (romanizations.size() < 50000) {
+			StringBuilder word = new StringBuilder();
+
+			for (int i = 1 + random.nextInt(4); i > 0; i--) {
+				word.append((char) (KoreanCharacter.KoreanLowerValue + random.nextInt(11172)));
+			}
+
+			romanizations.put(word.toString(), "W" + romanizations.size());
+		}
+
+		RomanizationDictionary dictionary = RomanizationDictionary.builder().putAll(romanizations).build();
+
+		assertEquals(romanizations.size(), dictionary.size());
+
+		for (Map.Entry<String, String> entry : romanizations.entrySet()) {
+			assertEquals(entry.getValue(), dictionary.get(entry.getKey()));
+
+			String longer = entry.getKey() + "a";
+			assertNull(dictionary.get(longer));
+			assertEquals(0, dictionary.find(null, longer, 0, longer.length()) >>> 32);
+		}
+	}
+
+	@Test
+	public void testSaveAndOpen() throws IOException {
+		RomanizationDictionary dictionary = RomanizationDictionary.builder()
+				.put("카카오", "Kakao")
+				.put("카카오톡", "KakaoTalk")
+				.put("라면", "Ramyun")
+				.put("K팝", "K-pop")
+				.build();
+		Path path = directory.resolve("words.dic");
+
+		dictionary.save(path);
+
+		RomanizationDictionary opened = RomanizationDictionary.open(path);
+
+		assertTrue(opened.isMapped());
+		assertFalse(dictionary.isMapped());
+		assertEquals(Files.size(path), opened.getMemoryUsage());
+		assertEquals(dictionary.size(), opened.size());
+		assertEquals(dictionary.getStateCount(), opened.getStateCount());
+		assertEquals("KakaoTalk", opened.get("카카오톡"));
+		assertNull(opened.get("카카"));
+
+		String text = "카카오톡으로 신라면, K팝 카카오";
+		assertEquals(Romanizer.builder().dictionary(dictionary).build().romanize(text), Romanizer.builder().dictionary(opened).build().romanize(text));
+
+		Path copy = directory.resolve("copy.dic");
+		opened.save(copy);
+		assertArrayEquals(Files.readAllBytes(path), Files.readAllBytes(copy));
+
+		RomanizationDictionary empty = RomanizationDictionary.builder().build();
+		empty.save(path);
+		assertEquals(0, RomanizationDictionary.open(path).size());
+		assertNull(RomanizationDictionary.open(path).get("카카오"));
+
+		byte[] bytes = Files.readAllBytes(copy);
+		bytes[4] = 2;
+		Files.write(path, bytes);
+		assertEquals("Unsupported dictionary version: 2", assertThrows(IOException.class, () -> RomanizationDictionary.open(path)).getMessage());
+
+		Files.write(path, Arrays.copyOf(Files.readAllBytes(copy), bytes.length - 2));
+		assertThrows(IOException.class, () -> RomanizationDictionary.open(path));
+
+		Files.write(path, "카카오\tKakao\n".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> RomanizationDictionary.open(path));
+	}
+
+	@Test
+	public void testRomanize() throws IOException {
+		RomanizationDictionary dictionary = RomanizationDictionary.builder()
+				.put("카카오", "Kakao")
+				.put("카카오톡", "KakaoTalk")
+				.put("라면", "Ramyun")
+				.put("K팝", "K-pop")
+				.build();
+		Romanizer romanizer = Romanizer.builder().dictionary(dictionary).build();
+
+		assertSame(dictionary, romanizer.getDictionary());
+		assertNull(Romanizer.of(null, null).getDictionary());
+		assertEquals("KakaoTalkeuro Bonaeseyo", romanizer.romanize("카카오톡으로 보내세요"));
+		assertEquals("Kakaoga", romanizer.romanize("카카오가"));
+		assertEquals("SinRamyun", romanizer.romanize("신라면"));
+		assertEquals("Sillamyeon", Romanizer.of(null, null).romanize("신라면"));
+		assertEquals("K-pop Ramyun", romanizer.romanize("K팝 라면"));
+		assertEquals("Kakao Kakao", romanizer.romanize("카카오 카카오"));
+		assertEquals("Seoul Kakao", Romanizer.builder().type(KoreanCharacter.Type.District).dictionary(dictionary).build().romanize("서울 카카오"));
+
+		RomanizerTest.assertOffsets(romanizer, "신라면", "SinRamyun", new int[]{0, 3, 9, 9}, new int[]{0, 0, 0, 1, 1, 1, 1, 1, 1, 3});
+	}
+
+	@Test
+	public void testExpandingRomanizations() throws IOException {
+		RomanizationDictionary dictionary = RomanizationDictionary.builder().put("삼성", "Samsung Electronics Company Limited").put("가", "Ga").build();
+		Path path = directory.resolve("words.dic");
+		dictionary.save(path);
+
+		Romanizer romanizer = Romanizer.builder().dictionary(dictionary).build();
+		Romanizer opened = Romanizer.builder().dictionary(RomanizationDictionary.open(path)).build();
+
+		assertEquals(Romanizer.of(null, null).maxRomanizedLength(2), Romanizer.builder().dictionary(RomanizationDictionary.builder().build()).build().maxRomanizedLength(2));
+		assertEquals(romanizer.maxRomanizedLength(2), opened.maxRomanizedLength(2));
+		assertTrue(romanizer.maxRomanizedLength(2) >= "Samsung Electronics Company Limited".length());
+		assertEquals("Samsung Electronics Company Limited", romanizer.romanize("삼성", new StringBuilder(), new int[3], new int[romanizer.maxRomanizedLength(2) + 1]).toString());
+
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 100; trial++) {
+			StringBuilder text = new StringBuilder();
+
+			for (int i = random.nextInt(10); i >= 0; i--) {
+				text.append(random.nextBoolean() ? "삼성" : "가");
+			}
+
+			String expected = romanizer.romanize(text.toString());
+			RomanizerTest.assertOffsets(romanizer, text.toString(), expected, null, null);
+			RomanizerTest.assertOffsets(opened, text.toString(), expected, null, null);
+
+			byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+			ByteBuffer output = ByteBuffer.allocate(3 * romanizer.maxRomanizedLength(bytes.length));
+			romanizer.romanize(ByteBuffer.wrap(bytes), output);
+			assertEquals(expected, new String(output.array(), 0, output.position(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testComposedJamo() throws IOException {
+		RomanizationDictionary dictionary = RomanizationDictionary.builder().put("삼성", "Samsung").put("라면", "Ramyun").build();
+		Romanizer romanizer = Romanizer.builder().conjoiningJamo(true).compatibilityJamo(true).dictionary(dictionary).build();
+		String text = "삼성 신라면";
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+
+		assertEquals("Samsung SinRamyun", romanizer.romanize(text));
+		assertEquals("Samsung SinRamyun", romanizer.romanize(decomposed));
+		assertEquals("Samsung SinRamyun", romanizer.romanize("ㅅㅏㅁㅅㅓㅇ ㅅㅣㄴ라면"));
+		assertEquals("Samsung SinRamyun", romanizer.romanize(decomposed.toCharArray(), 0, decomposed.length(), new StringBuilder()).toString());
+		assertEquals("Samsung SinRamyun", new RomanizedCharSequence(decomposed, romanizer).toString());
+		assertEquals(17, romanizer.romanizedLength(decomposed));
+		assertEquals("Samseong", Romanizer.builder().conjoiningJamo(true).build().romanize(Normalizer.normalize("삼성", Normalizer.Form.NFD)));
+
+		int[] sourceToOutput = new int[decomposed.length() + 1];
+		romanizer.romanize(decomposed, new StringBuilder(), sourceToOutput, new int[romanizer.maxRomanizedLength(decomposed.length()) + 1]);
+		assertEquals(0, sourceToOutput[0]);
+		assertEquals(17, sourceToOutput[decomposed.length()]);
+
+		StringWriter writer = new StringWriter();
+
+		try (RomanizingWriter romanizingWriter = new RomanizingWriter(writer, romanizer)) {
+			for (int i = 0; i < decomposed.length(); i++) {
+				romanizingWriter.write(decomposed.charAt(i));
+			}
+		}
+
+		assertEquals("Samsung SinRamyun", writer.toString());
+
+		byte[] bytes = decomposed.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer output = ByteBuffer.allocate(bytes.length * 3 + 3);
+		romanizer.romanize(ByteBuffer.wrap(bytes), output);
+		assertEquals("Samsung SinRamyun", new String(output.array(), 0, output.position(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testRomanizeSegments() throws IOException {
+		String[] fragments = {"신라", "면", "카카오", "톡", "라", "색연필", "학여울", "K", "팝", " ", "-", "2", "a", "\n", "😀", "ㅋ"};
+		String[] words = {"카카오", "카카오톡", "라면", "K팝", "면 라", "오톡"};
+		RomanizationDictionary.Builder builder = RomanizationDictionary.builder();
+
+		for (String word : words) {
+			builder.put(word, "[" + word.length() + "]");
+		}
+
+		RomanizationDictionary dictionary = builder.build();
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 1000; trial++) {
+			StringBuilder text = new StringBuilder();
+			int count = 1 + random.nextInt(10);
+
+			for (int i = 0; i < count; i++) {
+				text.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			String string = text.toString();
+
+			for (boolean useRomanizationTable : new boolean[]{true, false}) {
+				Romanizer plain = Romanizer.of(null, null, useRomanizationTable);
+				Romanizer romanizer = plain.withDictionary(dictionary);
+				String expected = romanizeSegments(plain, dictionary, string);
+
+				assertEquals(expected, romanizer.romanize(string), string);
+				assertEquals(expected, romanizer.romanize(string.toCharArray(), 0, string.length(), new StringBuilder()).toString());
+				assertEquals(expected, new RomanizedCharSequence(string, romanizer).toString());
+				RomanizerTest.assertOffsets(romanizer, string, expected, null, null);
+
+				StringWriter writer = new StringWriter();
+
+				try (RomanizingWriter romanizingWriter = new RomanizingWriter(writer, romanizer)) {
+					for (int i = 0; i < string.length(); ) {
+						int end = Math.min(string.length(), i + 1 + random.nextInt(4));
+						romanizingWriter.write(string, i, end - i);
+						i = end;
+					}
+				}
+
+				assertEquals(expected, writer.toString());
+
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				ByteBuffer output = ByteBuffer.allocate(bytes.length * 3 + 3);
+				romanizer.romanize(ByteBuffer.wrap(bytes), output);
+				assertEquals(expected, new String(output.array(), 0, output.position(), StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	/**
+	 * Romanize the text between the leftmost longest words found by brute force separately, as if the words were not Hangul.
+	 */
+	private static String romanizeSegments(Romanizer plain, RomanizationDictionary dictionary, String text) {
+		List<String> words = new ArrayList<>();
+
+		for (String word : new String[]{"카카오", "카카오톡", "라면", "K팝", "면 라", "오톡"}) {
+			words.add(word);
+		}
+
+		StringBuilder expected = new StringBuilder();
+		int index = 0;
+		boolean afterWord = false;
+
+		while (index <= text.length()) {
+			long match = findLeftmostLongest(words, text, index);
+			int matchStart = (match < 0) ? text.length() : (int) (match / 100);
+			String segment = plain.romanize(text.substring(index, matchStart));
+
+			if (afterWord && !segment.isEmpty() && KoreanCharacter.isKoreanCharacter(text.charAt(index))) {
+				segment = Character.toLowerCase(segment.charAt(0)) + segment.substring(1);
+			}
+
+			expected.append(segment);
+
+			if (match < 0) {
+				break;
+			}
+
+			int length = (int) (match % 100);
+			expected.append(dictionary.get(text.substring(matchStart, matchStart + length)));
+			index = matchStart + length;
+			afterWord = true;
+		}
+
+		return expected.toString();
+	}
+
+	/**
+	 * @return the start of the leftmost longest word times 100 plus its length, or -1 if there is none.
+	 */
+	private static long findLeftmostLongest(List<String> words, String text, int from) {
+		for (int start = from; start < text.length(); start++) {
+			int longest = 0;
+
+			for (String word : words) {
+				if (text.startsWith(word, start)) {
+					longest = Math.max(longest, word.length());
+				}
+			}
+
+			if (longest > 0) {
+				return start * 100L + longest;
+			}
+		}
+
+		return -1;
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < length; i++) {
+			text.append("가나다ab".charAt(random.nextInt(5)));
+		}
+
+		return text.toString();
+	}
+}
@@ -0,0 +1,93 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizationMetricsTest {
+	@Test
+	public void testMetrics() {
+		RomanizationMetrics metrics = new RomanizationMetrics();
+		KoreanRomanizer.addListener(metrics);
+
+		try {
+			assertEquals("Sillamyeon", KoreanRomanizer.romanize("신라면"));
+			assertEquals("Jongno 2-ga", KoreanRomanizer.romanize("종로2가", KoreanCharacter.Type.District));
+			assertEquals("Park Bogeom", Romanizer.of(KoreanCharacter.Type.NameTypical, null).romanize("박보검"));
+			assertEquals("abc", KoreanRomanizer.romanize("abc"));
+
+			ByteBuffer output = ByteBuffer.allocate(32);
+			KoreanRomanizer.romanize(ByteBuffer.wrap("학여울 😀".getBytes(StandardCharsets.UTF_8)), output, null, null);
+		} finally {
+			KoreanRomanizer.removeListener(metrics);
+		}
+
+		KoreanRomanizer.romanize("신라면");
+
+		assertEquals(3L, metrics.getCallCounts().get("Typical"));
+		assertEquals(1L, metrics.getCallCounts().get("District"));
+		assertEquals(1L, metrics.getCallCounts().get("NameTypical"));
+		assertEquals(0L, metrics.getCallCounts().get("Name"));
+		assertEquals(3 + 4 + 3 + 3 + 6, metrics.getCharacterCount());
+		assertEquals(3 + 3 + 3 + 3, metrics.getSyllableCount());
+		assertEquals(12.0 / 19, metrics.getHangulRatio(), 1e-9);
+		assertTrue(metrics.getNormalizationNanos() > 0);
+		assertTrue(metrics.getMeanLatencyNanos().get("Typical") > 0);
+		assertEquals(3, Arrays.stream(metrics.getLatencyHistogram("Typical")).sum());
+		assertTrue(metrics.getLatencyPercentileNanos("Typical", 50) > 0);
+		assertEquals(0, metrics.getLatencyPercentileNanos("Compound", 99));
+		assertThrows(IllegalArgumentException.class, () -> metrics.getLatencyPercentileNanos("Typical", 101));
+		assertThrows(IllegalArgumentException.class, () -> metrics.getLatencyHistogram("Unknown"));
+
+		metrics.reset();
+		assertEquals(0L, metrics.getCallCounts().get("Typical"));
+		assertEquals(0, metrics.getCharacterCount());
+		assertEquals(0.0, metrics.getHangulRatio());
+	}
+
+	@Test
+	public void testCacheStatistics() {
+		RomanizationCache cache = new RomanizationCache(10);
+		RomanizationMetrics metrics = new RomanizationMetrics().watch(cache).watch(cache);
+
+		cache.romanize("신라면", null, null);
+		cache.romanize("신라면", null, null);
+
+		assertEquals(1, metrics.getCacheHitCount());
+		assertEquals(1, metrics.getCacheMissCount());
+		assertEquals(0.5, metrics.getCacheHitRate(), 1e-9);
+		assertEquals(0, metrics.getCacheEvictionCount());
+		assertEquals(1, metrics.getCacheSize());
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(RomanizationMetrics.ObjectNameString);
+		RomanizationMetrics metrics = RomanizationMetrics.install();
+
+		try {
+			assertSame(metrics, RomanizationMetrics.install());
+			assertTrue(server.isRegistered(name));
+
+			KoreanRomanizer.romanize("신라면");
+
+			assertEquals(3L, server.getAttribute(name, "SyllableCount"));
+			assertEquals(1.0, server.getAttribute(name, "HangulRatio"));
+			assertNotNull(server.getAttribute(name, "CallCounts"));
+		} finally {
+			RomanizationMetrics.uninstall();
+		}
+
+		assertFalse(server.isRegistered(name));
+		KoreanRomanizer.romanize("신라면");
+		assertEquals(3, metrics.getSyllableCount());
+	}
+}
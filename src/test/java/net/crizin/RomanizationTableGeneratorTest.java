@@ -0,0 +1,67 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizationTableGeneratorTest {
+	@Test
+	public void testResource() throws IOException {
+		ByteArrayOutputStream resource = new ByteArrayOutputStream();
+
+		try (InputStream input = RomanizationTable.class.getResourceAsStream(RomanizationTable.ResourceName)) {
+			assertNotNull(input, "Missing resource " + RomanizationTable.ResourceName);
+
+			byte[] buffer = new byte[8192];
+
+			for (int length; (length = input.read(buffer)) >= 0; ) {
+				resource.write(buffer, 0, length);
+			}
+		}
+
+		assertArrayEquals(RomanizationTableGenerator.generate(), resource.toByteArray(), "Regenerate the tables with: mvn -P generate-tables process-classes");
+		assertEquals(11, KoreanCharacter.Chosung.ㅇ.ordinal());
+	}
+
+	@Test
+	public void testLazyLoading() throws Exception {
+		URL classes = KoreanRomanizer.class.getProtectionDomain().getCodeSource().getLocation();
+
+		try (RecordingClassLoader classLoader = new RecordingClassLoader(classes)) {
+			Class<?> romanizer = classLoader.loadClass("net.crizin.KoreanRomanizer");
+
+			assertEquals("Sillamyeon", romanizer.getMethod("romanize", String.class).invoke(null, "신라면"));
+			assertFalse(classLoader.isLoaded("net.crizin.KoreanCharacter"));
+			assertFalse(classLoader.isLoaded("net.crizin.KoreanCharacter$Chosung"));
+			assertFalse(classLoader.isLoaded("net.crizin.RomanizationTableGenerator"));
+			assertFalse(classLoader.isLoaded("net.crizin.Surnames"));
+			assertFalse(classLoader.isLoaded("net.crizin.DistrictNormalizer"));
+
+			Class<?> type = classLoader.loadClass("net.crizin.KoreanCharacter$Type");
+			Object name = type.getField("NameTypical").get(null);
+
+			assertEquals("Park Bogeom", romanizer.getMethod("romanize", String.class, type).invoke(null, "박보검", name));
+			assertTrue(classLoader.isLoaded("net.crizin.Surnames"));
+			assertFalse(classLoader.isLoaded("net.crizin.DistrictNormalizer"));
+		}
+	}
+
+	/**
+	 * Loads the classes of the library again, to see which of them romanizing loads.
+	 */
+	private static class RecordingClassLoader extends URLClassLoader {
+		RecordingClassLoader(URL classes) {
+			super(new URL[]{classes}, null);
+		}
+
+		boolean isLoaded(String name) {
+			return findLoadedClass(name) != null;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizedBatchTest {
+	@Test
+	public void testRomanizeAll() throws IOException {
+		String[] fragments = {"신라", "면", "색연필", "종로2가", "선우은숙", "학여울", " ", "-", "2", "a", "\n", "😀", "ㅋ"};
+		Random random = new Random(0);
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			Romanizer romanizer = Romanizer.of(type, null);
+
+			for (boolean exactSizing : new boolean[]{true, false}) {
+				RomanizedBatch batch = new RomanizedBatch(romanizer, exactSizing);
+				String[] strings = new String[1 + random.nextInt(3000)];
+
+				for (int i = 0; i < strings.length; i++) {
+					StringBuilder string = new StringBuilder();
+
+					for (int j = 1 + random.nextInt(4); j > 0; j--) {
+						string.append(fragments[random.nextInt(fragments.length)]);
+					}
+
+					strings[i] = string.toString();
+				}
+
+				StringBuilder input = new StringBuilder();
+				int[] inputOffsets = new int[strings.length + 1];
+
+				for (int i = 0; i < strings.length; i++) {
+					input.append(strings[i]);
+					inputOffsets[i + 1] = input.length();
+				}
+
+				batch.romanizeAll(strings).romanizeAll(input.toString().toCharArray(), inputOffsets, strings.length);
+
+				assertEquals(strings.length * 2, batch.size());
+
+				for (int i = 0; i < batch.size(); i++) {
+					String expected = romanizer.romanize(strings[i % strings.length]);
+
+					assertEquals(expected, batch.get(i));
+					assertEquals(expected, batch.appendTo(i, new StringBuilder()).toString());
+					assertEquals(expected.length(), romanizer.romanizedLength(strings[i % strings.length]));
+					assertEquals(batch.getOffsets()[i] + expected.length(), batch.getOffsets()[i + 1]);
+				}
+
+				if (exactSizing) {
+					assertEquals(batch.length(), batch.getCharacters().length);
+				}
+
+				batch.clear();
+				assertEquals(0, batch.size());
+				assertEquals(0, batch.length());
+				batch.romanizeAll(new String[]{"신라면"});
+				assertEquals(romanizer.romanize("신라면"), batch.get(0));
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyRecords() {
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			Romanizer romanizer = Romanizer.of(type, null);
+
+			for (boolean exactSizing : new boolean[]{true, false}) {
+				RomanizedBatch batch = new RomanizedBatch(romanizer, exactSizing);
+				char[] input = "홍길동".toCharArray();
+
+				batch.romanizeAll(new String[]{"", "홍길동", ""}).romanizeAll(input, new int[]{0, 0, 3, 3}, 3);
+
+				assertEquals(6, batch.size());
+
+				for (int i = 0; i < batch.size(); i++) {
+					assertEquals((i % 3 == 1) ? romanizer.romanize("홍길동") : "", batch.get(i));
+				}
+			}
+
+			assertEquals(0, romanizer.romanizedLength(""));
+		}
+	}
+
+	@Test
+	public void testExpandingDictionary() {
+		RomanizationDictionary dictionary = RomanizationDictionary.builder().put("삼성", "Samsung Electronics Company Limited").build();
+		Random random = new Random(0);
+		String[] strings = new String[500];
+
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = random.nextBoolean() ? "삼성" : "가";
+		}
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			Romanizer romanizer = Romanizer.builder().type(type).dictionary(dictionary).build();
+
+			for (boolean exactSizing : new boolean[]{true, false}) {
+				RomanizedBatch batch = new RomanizedBatch(romanizer, exactSizing).romanizeAll(strings);
+
+				for (int i = 0; i < strings.length; i++) {
+					assertEquals(romanizer.romanize(strings[i]), batch.get(i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testArguments() {
+		RomanizedBatch batch = new RomanizedBatch(Romanizer.of(null, null));
+
+		assertThrows(NullPointerException.class, () -> new RomanizedBatch(null));
+		assertThrows(NullPointerException.class, () -> batch.romanizeAll(new String[]{"신라면", null}));
+		assertThrows(IndexOutOfBoundsException.class, () -> batch.romanizeAll(new char[2], new int[]{0, 3}, 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> batch.romanizeAll(new char[2], new int[]{0, 2}, 2));
+		assertThrows(IndexOutOfBoundsException.class, () -> batch.get(0));
+		assertEquals(0, batch.size());
+		assertEquals(0, batch.romanizeAll(new char[0], new int[]{0}, 0).size());
+	}
+
+	@Test
+	public void testAllocation() {
+		String[] strings = new String[1000];
+		Arrays.fill(strings, "여름장이란 애시당초에 글러서");
+		int iterations = 100;
+
+		for (boolean exactSizing : new boolean[]{true, false}) {
+			RomanizedBatch batch = new RomanizedBatch(Romanizer.of(null, null), exactSizing);
+
+			long allocatedBytes = KoreanRomanizerTest.allocatedBytes(iterations, () -> {
+				batch.clear();
+				batch.romanizeAll(strings);
+			});
+
+			assertEquals(KoreanRomanizer.romanize(strings[0]), batch.get(strings.length - 1));
+			assertTrue(allocatedBytes < iterations * strings.length, "Allocated " + allocatedBytes + " bytes");
+		}
+	}
+}
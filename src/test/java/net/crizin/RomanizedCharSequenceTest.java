@@ -0,0 +1,95 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizedCharSequenceTest {
+	@Test
+	public void testRomanizedCharSequence() {
+		String[] fragments = {"신라", "면", "색연필", "종로2가", "선우은숙", "학여울", " ", "-", "2", "a", "\n", "😀"};
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 300; trial++) {
+			StringBuilder text = new StringBuilder();
+			int count = random.nextInt(300);
+
+			for (int i = 0; i < count; i++) {
+				text.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+				if ((type == KoreanCharacter.Type.Name || type == KoreanCharacter.Type.NameTypical) && text.length() == 0) {
+					continue;
+				}
+
+				Romanizer romanizer = Romanizer.of(type, null);
+				String expected = romanizer.romanize(text.toString());
+				int length = random.nextInt(expected.length() + 1);
+
+				assertEquals(expected.substring(0, length), new RomanizedCharSequence(text, romanizer).truncate(length));
+				assertTrue(new RomanizedCharSequence(text, romanizer).startsWith(expected.substring(0, length)));
+				assertFalse(new RomanizedCharSequence(text, romanizer).startsWith(expected + "x"));
+
+				RomanizedCharSequence sequence = new RomanizedCharSequence(text, romanizer);
+
+				for (int i = 0; i < expected.length(); i += 1 + random.nextInt(50)) {
+					assertEquals(expected.charAt(i), sequence.charAt(i));
+				}
+
+				assertEquals(expected.substring(length / 2, length), sequence.subSequence(length / 2, length).toString());
+				assertEquals(expected.length(), sequence.length());
+				assertEquals(expected, sequence.toString());
+				assertThrows(IndexOutOfBoundsException.class, () -> sequence.charAt(expected.length()));
+				assertThrows(IndexOutOfBoundsException.class, () -> sequence.subSequence(0, expected.length() + 1));
+			}
+		}
+	}
+
+	@Test
+	public void testLaziness() {
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 100_000; i++) {
+			text.append("신라면 ");
+		}
+
+		CountingCharSequence source = new CountingCharSequence(text);
+		RomanizedCharSequence sequence = new RomanizedCharSequence(source, Romanizer.of(null, null));
+
+		assertEquals("Sillamyeon Sill", sequence.truncate(15));
+		assertTrue(sequence.startsWith("Sillamyeon"));
+		assertEquals('S', sequence.charAt(0));
+		assertTrue(source.maxIndex < 1000, "Read up to " + source.maxIndex);
+
+		assertEquals(1_100_000, sequence.length());
+		assertEquals(text.length() - 1, source.maxIndex);
+	}
+
+	private static class CountingCharSequence implements CharSequence {
+		private final CharSequence sequence;
+		private int maxIndex = -1;
+
+		CountingCharSequence(CharSequence sequence) {
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int length() {
+			return sequence.length();
+		}
+
+		@Override
+		public char charAt(int index) {
+			maxIndex = Math.max(maxIndex, index);
+			return sequence.charAt(index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizedFingerprintTest {
+	@Test
+	public void testHash() {
+		assertEquals(0xEF46DB3751D8E999L, hash(""));
+		assertEquals(0xD24EC4F1A98C6E5BL, hash("a"));
+		assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+		assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition"));
+
+		for (String string : new String[]{"신라면", "😀 emoji", "lone \uD83D high", "lone \uDE00 low", "end \uD83D", "\uD83D😀", "é", "0123456789abcdef0123456789abcdef!"}) {
+			RomanizedFingerprint.Hasher hasher = new RomanizedFingerprint.Hasher(false, false, false);
+			hasher.reset(0);
+
+			for (byte value : string.getBytes(StandardCharsets.UTF_8)) {
+				hasher.update(value);
+			}
+
+			assertEquals(hasher.finish(), hash(string), string);
+		}
+	}
+
+	@Test
+	public void testFingerprint() {
+		String[] fragments = {"신라", "면", "색연필", "종로2가", "선우은숙", "학여울", " ", "-", "2", "A", "\t", "😀", "ㅋ", "é"};
+		Random random = new Random(0);
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			Romanizer romanizer = Romanizer.of(type, null);
+
+			for (int mask = 0; mask < 8; mask++) {
+				boolean lowerCase = (mask & 1) != 0;
+				boolean stripHyphens = (mask & 2) != 0;
+				boolean stripWhitespace = (mask & 4) != 0;
+				long seed = random.nextLong();
+				RomanizedFingerprint fingerprint = new RomanizedFingerprint(romanizer, seed, options(lowerCase, stripHyphens, stripWhitespace));
+				String[] strings = new String[200];
+
+				for (int i = 0; i < strings.length; i++) {
+					StringBuilder string = new StringBuilder();
+
+					for (int j = 1 + random.nextInt(12); j > 0; j--) {
+						string.append(fragments[random.nextInt(fragments.length)]);
+					}
+
+					strings[i] = string.toString();
+				}
+
+				long[] fingerprints = fingerprint.fingerprintAll(strings);
+
+				for (int i = 0; i < strings.length; i++) {
+					String normalized = romanizer.romanize(strings[i]);
+
+					if (lowerCase) {
+						normalized = lowerAscii(normalized);
+					}
+
+					if (stripHyphens) {
+						normalized = normalized.replace("-", "");
+					}
+
+					if (stripWhitespace) {
+						normalized = normalized.replaceAll("[ \\t\\n\\x0B\\f\\r]", "");
+					}
+
+					RomanizedFingerprint.Hasher hasher = new RomanizedFingerprint.Hasher(false, false, false);
+					hasher.reset(seed);
+					hasher.append(normalized);
+
+					assertEquals(hasher.finish(), fingerprints[i], strings[i]);
+					assertEquals(fingerprints[i], fingerprint.fingerprint(strings[i]));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testOptions() {
+		RomanizedFingerprint fingerprint = new RomanizedFingerprint(Romanizer.of(null, null), RomanizedFingerprint.Option.values());
+
+		assertEquals(hash("jungang"), fingerprint.fingerprint("중앙"));
+		assertEquals(fingerprint.fingerprint("중앙"), fingerprint.fingerprint("중 앙"));
+		assertEquals(fingerprint.fingerprint("중앙"), fingerprint.fingerprint("JUNG-ANG"));
+		assertNotEquals(fingerprint.fingerprint("중앙"), new RomanizedFingerprint(Romanizer.of(null, null)).fingerprint("중앙"));
+		assertNotEquals(fingerprint.fingerprint("중앙"), new RomanizedFingerprint(Romanizer.of(null, null), 1, RomanizedFingerprint.Option.values()).fingerprint("중앙"));
+		assertEquals(hash(""), new RomanizedFingerprint(Romanizer.of(KoreanCharacter.Type.Name, null)).fingerprint(""));
+		assertEquals(3, fingerprint.getOptions().size());
+
+		assertThrows(NullPointerException.class, () -> new RomanizedFingerprint(null));
+		assertThrows(NullPointerException.class, () -> new RomanizedFingerprint(Romanizer.of(null, null), (RomanizedFingerprint.Option) null));
+		assertThrows(NullPointerException.class, () -> fingerprint.fingerprint(null));
+		assertThrows(NullPointerException.class, () -> fingerprint.fingerprintAll(new String[]{"신라면", null}));
+	}
+
+	@Test
+	public void testAllocation() {
+		RomanizedFingerprint fingerprint = new RomanizedFingerprint(Romanizer.of(null, null), RomanizedFingerprint.Option.values());
+		String string = "여름장이란 애시당초에 글러서";
+		int iterations = 10000;
+		long[] sum = new long[1];
+
+		long allocatedBytes = KoreanRomanizerTest.allocatedBytes(iterations, () -> sum[0] += fingerprint.fingerprint(string));
+
+		assertEquals(fingerprint.fingerprint(string) * iterations * 2, sum[0]);
+		assertTrue(allocatedBytes < iterations, "Allocated " + allocatedBytes + " bytes");
+	}
+
+	private static RomanizedFingerprint.Option[] options(boolean lowerCase, boolean stripHyphens, boolean stripWhitespace) {
+		return Stream.of(
+				lowerCase ? RomanizedFingerprint.Option.LowerCase : null,
+				stripHyphens ? RomanizedFingerprint.Option.StripHyphens : null,
+				stripWhitespace ? RomanizedFingerprint.Option.StripWhitespace : null
+		).filter(Objects::nonNull).toArray(RomanizedFingerprint.Option[]::new);
+	}
+
+	private static String lowerAscii(String string) {
+		StringBuilder lower = new StringBuilder(string.length());
+
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			lower.append((c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c);
+		}
+
+		return lower.toString();
+	}
+
+	private static long hash(String string) {
+		RomanizedFingerprint.Hasher hasher = new RomanizedFingerprint.Hasher(false, false, false);
+		hasher.reset(0);
+		hasher.append(string);
+		return hasher.finish();
+	}
+}
@@ -0,0 +1,103 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizedPrefixIndexTest {
+	@Test
+	public void testLookup() {
+		RomanizedPrefixIndex index = RomanizedPrefixIndex.builder()
+				.add("서울", 100)
+				.add("서귀포", 30)
+				.add("부산", 80)
+				.add("신라", 10)
+				.add("세종", 50)
+				.add("서울", 20)
+				.build();
+
+		assertEquals(Arrays.asList("서울", "서귀포"), index.lookup("seo", 10));
+		assertEquals(Arrays.asList("서울", "세종", "서귀포"), index.lookup("SE", 10));
+		assertEquals(Collections.singletonList("서울"), index.lookup("s", 1));
+		assertEquals(Collections.singletonList("부산"), index.lookup("busa", 10));
+		assertEquals(Collections.singletonList("신라"), index.lookup("sinn", 10));
+		assertEquals(Collections.singletonList("신라"), index.lookup("sill", 10));
+		assertEquals(Collections.emptyList(), index.lookup("seoulx", 10));
+		assertEquals(Collections.emptyList(), index.lookup("seo", 0));
+		assertEquals(5, index.lookup("", 10).size());
+
+		assertEquals(5, index.size());
+		assertEquals(6, index.getKeyCount());
+		assertTrue(index.getMemoryUsage() > 0);
+		assertTrue(index.getBuildNanos() > 0);
+
+		assertThrows(IllegalArgumentException.class, () -> index.lookup("seo", -1));
+		assertEquals(Collections.emptyList(), RomanizedPrefixIndex.builder().build().lookup("seo", 10));
+	}
+
+	@Test
+	public void testRandomLookups() {
+		Random random = new Random(0);
+		List<String> entries = new ArrayList<>();
+		List<Long> weights = new ArrayList<>();
+		RomanizedPrefixIndex.Builder builder = RomanizedPrefixIndex.builder().type(KoreanCharacter.Type.District);
+
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder entry = new StringBuilder();
+			int length = 1 + random.nextInt(4);
+
+			for (int j = 0; j < length; j++) {
+				entry.append((char) ('가' + random.nextInt(400) * 28 + random.nextInt(3)));
+			}
+
+			long weight = random.nextInt(100);
+
+			if (!entries.contains(entry.toString())) {
+				entries.add(entry.toString());
+				weights.add(weight);
+				builder.add(entry.toString(), weight);
+			}
+		}
+
+		RomanizedPrefixIndex index = builder.build();
+
+		for (int trial = 0; trial < 500; trial++) {
+			String entry = entries.get(random.nextInt(entries.size()));
+			String romanized = KoreanRomanizer.romanize(entry, KoreanCharacter.Type.District, KoreanCharacter.ConsonantAssimilation.values()[random.nextInt(2)]);
+			String prefix = romanized.substring(0, 1 + random.nextInt(romanized.length()));
+			int limit = 1 + random.nextInt(20);
+
+			assertEquals(lookup(entries, weights, prefix, limit), index.lookup(prefix, limit), prefix);
+		}
+	}
+
+	private static List<String> lookup(List<String> entries, List<Long> weights, String prefix, int limit) {
+		List<Integer> matches = new ArrayList<>();
+
+		for (int i = 0; i < entries.size(); i++) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : KoreanCharacter.ConsonantAssimilation.values()) {
+				if (KoreanRomanizer.romanize(entries.get(i), KoreanCharacter.Type.District, consonantAssimilation).toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT))) {
+					matches.add(i);
+					break;
+				}
+			}
+		}
+
+		matches.sort((i, j) -> (weights.get(i).equals(weights.get(j))) ? Integer.compare(i, j) : Long.compare(weights.get(j), weights.get(i)));
+
+		List<String> results = new ArrayList<>();
+
+		for (int i = 0; i < matches.size() && i < limit; i++) {
+			results.add(entries.get(matches.get(i)));
+		}
+
+		return results;
+	}
+}
@@ -0,0 +1,228 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizerTest {
+	private static final String text = "여름장이란 애시당초에 글러서, 신라면 2-가 색연필 콩엿 종로2가";
+
+	@Test
+	public void testBuilder() {
+		Romanizer romanizer = Romanizer.builder().type(KoreanCharacter.Type.District).consonantAssimilation(KoreanCharacter.ConsonantAssimilation.Progressive).build();
+
+		assertEquals(KoreanCharacter.Type.District, romanizer.getType());
+		assertEquals(KoreanCharacter.ConsonantAssimilation.Progressive, romanizer.getConsonantAssimilation());
+		assertSame(romanizer, Romanizer.of(KoreanCharacter.Type.District, KoreanCharacter.ConsonantAssimilation.Progressive));
+		assertSame(Romanizer.of(null, null), Romanizer.builder().build());
+		assertSame(Romanizer.of(KoreanCharacter.Type.Typical, KoreanCharacter.ConsonantAssimilation.Regressive), Romanizer.builder().build());
+		assertEquals("Jongno 2-ga", romanizer.romanize("종로2가"));
+	}
+
+	@Test
+	public void testRomanize() throws IOException {
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : KoreanCharacter.ConsonantAssimilation.values()) {
+				Romanizer romanizer = Romanizer.of(type, consonantAssimilation);
+				String expected = KoreanRomanizer.romanize(text, type, consonantAssimilation, false);
+
+				assertEquals(expected, romanizer.romanize(text));
+				assertEquals(expected, romanizer.romanize(text, new StringBuilder()).toString());
+				assertEquals(expected, romanizer.romanize(text, new StringWriter()).toString());
+				assertEquals(expected, romanizer.romanize(("[" + text + "]").toCharArray(), 1, text.length(), new StringBuilder()).toString());
+			}
+		}
+
+		assertThrows(NullPointerException.class, () -> Romanizer.of(null, null).romanize(null));
+		assertThrows(IndexOutOfBoundsException.class, () -> Romanizer.of(null, null).romanize(new char[2], 1, 2, new StringBuilder()));
+	}
+
+	@Test
+	public void testEmpty() {
+		RomanizationCache cache = new RomanizationCache(10);
+
+		for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+			for (Romanizer romanizer : new Romanizer[]{Romanizer.of(type, null), Romanizer.of(type, null, false), Romanizer.builder().type(type).conjoiningJamo(true).build()}) {
+				ByteBuffer output = ByteBuffer.allocate(3);
+
+				assertEquals("", romanizer.romanize(""));
+				assertEquals("", romanizer.romanize(new char[1], 1, 0, new StringBuilder()).toString());
+				assertEquals(0, romanizer.romanizedLength(""));
+				assertOffsets(romanizer, "", "", new int[]{0}, new int[]{0});
+				romanizer.romanize(ByteBuffer.allocate(0), output);
+				assertEquals(0, output.position());
+			}
+
+			assertEquals("", KoreanRomanizer.romanize("", type, null));
+			assertEquals("", cache.romanize("", type, null));
+		}
+	}
+
+	@Test
+	public void testOffsets() {
+		assertOffsets(Romanizer.of(KoreanCharacter.Type.District, null), "종로구", "Jongno-gu", new int[]{0, 4, 6, 9}, new int[]{0, 0, 0, 0, 1, 1, 2, 2, 2, 3});
+		assertOffsets(Romanizer.of(KoreanCharacter.Type.NameTypical, null), "선우은숙", "Sunwoo Eunsuk", new int[]{0, 6, 6, 10, 13}, new int[]{0, 0, 0, 0, 0, 0, 2, 2, 2, 2, 3, 3, 3, 4});
+		assertOffsets(Romanizer.of(null, null), "(신라면)", "(Sillamyeon)", new int[]{0, 1, 4, 6, 11, 12}, new int[]{0, 1, 1, 1, 2, 2, 3, 3, 3, 3, 3, 4, 5});
+		assertOffsets(Romanizer.of(KoreanCharacter.Type.District, null), "성남대로 \t2번길", "Seongnam-daero 2beon-gil", null, null);
+
+		String[] fragments = {"신라", "면", "종로2가", "선우은숙", "대로", "번길", "구", " ", "\t", "\n", "-", "2", "a", "😀"};
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 2000; trial++) {
+			StringBuilder text = new StringBuilder();
+			int count = 1 + random.nextInt(8);
+
+			for (int i = 0; i < count; i++) {
+				text.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+				for (boolean useRomanizationTable : new boolean[]{true, false}) {
+					Romanizer romanizer = Romanizer.of(type, null, useRomanizationTable);
+					assertOffsets(romanizer, text.toString(), romanizer.romanize(text.toString()), null, null);
+				}
+			}
+		}
+
+		assertThrows(IndexOutOfBoundsException.class, () -> Romanizer.of(null, null).romanize("신라면", new StringBuilder(), new int[3], new int[40]));
+		assertThrows(IndexOutOfBoundsException.class, () -> Romanizer.of(null, null).romanize("신라면", new StringBuilder(), new int[4], new int[5]));
+	}
+
+	static void assertOffsets(Romanizer romanizer, String text, String romanized, int[] expectedSourceToOutput, int[] expectedOutputToSource) {
+		int[] sourceToOutput = new int[text.length() + 1];
+		int[] outputToSource = new int[romanizer.maxRomanizedLength(text.length()) + 1];
+
+		assertEquals(romanized, romanizer.romanize(text, new StringBuilder(), sourceToOutput, outputToSource).toString());
+		assertTrue(romanized.length() <= romanizer.maxRomanizedLength(text.length()));
+
+		if (expectedSourceToOutput != null) {
+			assertArrayEquals(expectedSourceToOutput, sourceToOutput);
+			assertArrayEquals(expectedOutputToSource, Arrays.copyOf(outputToSource, romanized.length() + 1));
+		}
+
+		assertEquals(0, sourceToOutput[0]);
+		assertEquals(romanized.length(), sourceToOutput[text.length()]);
+		assertEquals(text.length(), outputToSource[romanized.length()]);
+
+		for (int i = 0; i < text.length(); i++) {
+			assertTrue(sourceToOutput[i] <= sourceToOutput[i + 1], text);
+		}
+
+		for (int j = 0; j < romanized.length(); j++) {
+			int source = outputToSource[j];
+			assertTrue(outputToSource[j] <= outputToSource[j + 1], text);
+			assertTrue(source >= 0 && source < text.length(), text);
+			assertTrue(sourceToOutput[source] <= j && j < sourceToOutput[source + 1], text);
+
+			if (romanizer.getDictionary() == null && romanizer.isBoundary(text.charAt(source)) && source + 1 < text.length() && sourceToOutput[source + 1] == j + 1) {
+				assertEquals(text.charAt(source), romanized.charAt(j), text);
+			}
+		}
+	}
+
+	@Test
+	public void testByteBuffer() {
+		String[] fragments = {"신라", "면", "색연필", "종로2가", "선우은숙", " ", "-", "2", "a", "\n", "é", "漢", "😀", "\uD7A3", "\uD7A4", "\u3131"};
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 2000; trial++) {
+			StringBuilder text = new StringBuilder();
+			int count = 1 + random.nextInt(10);
+
+			for (int i = 0; i < count; i++) {
+				text.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+
+			for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+				Romanizer romanizer = Romanizer.of(type, null);
+				ByteBuffer input = (trial % 2 == 0) ? ByteBuffer.wrap(bytes) : ByteBuffer.allocateDirect(bytes.length).put(bytes);
+				ByteBuffer output = (trial % 2 == 0) ? ByteBuffer.allocate(bytes.length * 3 + 3) : ByteBuffer.allocateDirect(bytes.length * 3 + 3);
+				input.rewind();
+
+				romanizer.romanize(input, output);
+
+				assertFalse(input.hasRemaining());
+				output.flip();
+				// Names split after the first character, which may leave unpaired surrogates that UTF-8 can only replace.
+				String expected = new String(romanizer.romanize(text.toString()).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+				assertEquals(expected, StandardCharsets.UTF_8.decode(output).toString());
+			}
+		}
+	}
+
+	@Test
+	public void testNonHangulRuns() throws IOException {
+		String[] fragments = {"신라면", "종로2가", "중앙", " ", "SKU-2024-00017 | Galaxy S24 Ultra 256GB", "https://example.com/?q=a&b=c", "\n", "é漢😀"};
+		Random random = new Random(0);
+
+		for (int trial = 0; trial < 500; trial++) {
+			StringBuilder text = new StringBuilder();
+			int count = 1 + random.nextInt(10);
+
+			for (int i = 0; i < count; i++) {
+				text.append(fragments[random.nextInt(fragments.length)]);
+			}
+
+			for (KoreanCharacter.Type type : KoreanCharacter.Type.values()) {
+				Romanizer romanizer = Romanizer.of(type, null);
+				String source = text.toString();
+				// Offsets are recorded character by character, so they give the result without the bulk copy.
+				String expected = romanizer.romanize(source, new StringBuilder(), new int[source.length() + 1], new int[romanizer.maxRomanizedLength(source.length()) + 1]).toString();
+
+				assertEquals(expected, romanizer.romanize(source));
+				assertEquals(expected, romanizer.romanize(source.toCharArray(), 0, source.length(), new StringBuilder()).toString());
+				assertEquals(expected, romanizer.romanize(source, new StringWriter()).toString());
+
+				byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+				ByteBuffer output = ByteBuffer.allocateDirect(romanizer.maxRomanizedLength(bytes.length));
+				romanizer.romanize(ByteBuffer.wrap(bytes), output);
+				output.flip();
+				assertEquals(new String(expected.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), StandardCharsets.UTF_8.decode(output).toString());
+			}
+		}
+
+		ByteBuffer input = ByteBuffer.wrap("신라면 Galaxy S24 Ultra 256GB".getBytes(StandardCharsets.UTF_8));
+		ByteBuffer output = ByteBuffer.allocate(20);
+
+		assertThrows(BufferOverflowException.class, () -> KoreanRomanizer.romanize(input, output, null, null));
+		assertEquals(0, input.position());
+		assertEquals(0, output.position());
+	}
+
+	@Test
+	public void testByteBufferOverflow() {
+		ByteBuffer input = ByteBuffer.wrap("(신라면)".getBytes(StandardCharsets.UTF_8));
+		ByteBuffer output = ByteBuffer.allocate(8);
+		input.position(1);
+		output.position(1);
+
+		assertThrows(BufferOverflowException.class, () -> KoreanRomanizer.romanize(input, output, null, null));
+		assertEquals(1, input.position());
+		assertEquals(1, output.position());
+
+		ByteBuffer largeOutput = ByteBuffer.allocate(16);
+		KoreanRomanizer.romanize(input, largeOutput, null, null);
+		assertEquals("Sillamyeon)", new String(largeOutput.array(), 0, largeOutput.position(), StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void testRomanizingWriter() throws IOException {
+		StringWriter stringWriter = new StringWriter();
+
+		try (RomanizingWriter writer = new RomanizingWriter(stringWriter, Romanizer.builder().type(KoreanCharacter.Type.NameTypical).build())) {
+			writer.write("박보검\n선우은숙");
+		}
+
+		assertEquals("Park Bogeom\nSunwoo Eunsuk", stringWriter.toString());
+	}
+}
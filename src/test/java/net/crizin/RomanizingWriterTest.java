@@ -0,0 +1,80 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomanizingWriterTest {
+	private static final String text = "여름장이란 애시당초에 글러서, 해는 아직 중천에 있건만 장판은 벌써 쓸쓸하고 더운 햇발이 벌여놓은 전 휘장 밑으로 등줄기를 훅훅 볶는다.\n"
+			+ "“생원, 시침을 떼두 다 아네…. 충주집 말야.”\n"
+			+ "신라면 2-가 색연필 콩엿 백로 학여울 ABC123 묵호";
+
+	@Test
+	public void testChunks() throws IOException {
+		Random random = new Random(0);
+
+		for (KoreanCharacter.Type type : new KoreanCharacter.Type[]{KoreanCharacter.Type.Typical, KoreanCharacter.Type.Substantives, KoreanCharacter.Type.Compound}) {
+			for (KoreanCharacter.ConsonantAssimilation consonantAssimilation : KoreanCharacter.ConsonantAssimilation.values()) {
+				for (int trial = 0; trial < 20; trial++) {
+					StringWriter stringWriter = new StringWriter();
+					// Alternate the engines, since the writer romanizes runs of Hangul with the character engine.
+					RomanizingWriter writer = new RomanizingWriter(stringWriter, Romanizer.of(type, consonantAssimilation, trial % 2 == 0));
+
+					for (int start = 0; start < text.length(); ) {
+						int end = Math.min(text.length(), start + 1 + random.nextInt(8));
+
+						switch (random.nextInt(3)) {
+							case 0:
+								writer.write(text.charAt(start));
+								end = start + 1;
+								break;
+							case 1:
+								writer.write(text, start, end - start);
+								break;
+							default:
+								writer.write(text.toCharArray(), start, end - start);
+						}
+
+						start = end;
+					}
+
+					writer.close();
+					assertEquals(KoreanRomanizer.romanize(text, type, consonantAssimilation), stringWriter.toString());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLines() throws IOException {
+		StringWriter stringWriter = new StringWriter();
+		KoreanRomanizer.romanize(new StringReader("종로2가\r\n성남대로2번길\n\n제주도"), stringWriter, KoreanCharacter.Type.District, null);
+		assertEquals("Jongno 2-ga\r\nSeongnam-daero 2beon-gil\n\nJeju-do", stringWriter.toString());
+
+		stringWriter = new StringWriter();
+		KoreanRomanizer.romanize(new StringReader("박보검\n선우은숙\n"), stringWriter, KoreanCharacter.Type.NameTypical, null);
+		assertEquals("Park Bogeom\nSunwoo Eunsuk\n", stringWriter.toString());
+	}
+
+	@Test
+	public void testFinish() throws IOException {
+		StringWriter stringWriter = new StringWriter();
+		RomanizingWriter writer = new RomanizingWriter(stringWriter);
+
+		writer.write("신라");
+		writer.flush();
+		assertEquals("Sil", stringWriter.toString());
+
+		writer.finish();
+		assertEquals("Silla", stringWriter.toString());
+
+		writer.write("면");
+		writer.finish();
+		assertEquals("SillaMyeon", stringWriter.toString());
+	}
+}
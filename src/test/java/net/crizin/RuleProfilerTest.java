@@ -0,0 +1,70 @@
+package net.crizin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class RuleProfilerTest {
+	private static final KoreanCharacter.Type Typical = KoreanCharacter.Type.Typical;
+	private static final KoreanCharacter.ConsonantAssimilation Regressive = KoreanCharacter.ConsonantAssimilation.Regressive;
+
+	@Test
+	public void testCounts() {
+		assumeTrue(RuleProfiler.isEnabled());
+		RuleProfiler.reset();
+
+		assertEquals("Sillamyeon", KoreanRomanizer.romanize("신라면"));
+		assertEquals("Jung-ang", KoreanRomanizer.romanize("중앙"));
+		assertEquals("Hae-undae", KoreanRomanizer.romanize("해운대"));
+		assertEquals("Park Bogeom", KoreanRomanizer.romanize("박보검", KoreanCharacter.Type.NameTypical));
+
+		assertEquals(1, RuleProfiler.getJunctionCount(Typical, Regressive, KoreanCharacter.Jongsung.ㄴ, KoreanCharacter.Chosung.ㄹ));
+		assertEquals(1, RuleProfiler.getChangedCount(Typical, Regressive, KoreanCharacter.Jongsung.ㄴ, KoreanCharacter.Chosung.ㄹ));
+		assertEquals(0, RuleProfiler.getHyphenCount(Typical, Regressive, KoreanCharacter.Jongsung.ㄴ, KoreanCharacter.Chosung.ㄹ));
+		assertEquals(1, RuleProfiler.getJunctionCount(Typical, Regressive, KoreanCharacter.Jongsung.NONE, KoreanCharacter.Chosung.ㅁ));
+		assertEquals(0, RuleProfiler.getChangedCount(Typical, Regressive, KoreanCharacter.Jongsung.NONE, KoreanCharacter.Chosung.ㅁ));
+		assertEquals(1, RuleProfiler.getHyphenCount(Typical, Regressive, KoreanCharacter.Jongsung.ㅇ, KoreanCharacter.Chosung.ㅇ));
+		assertEquals(1, RuleProfiler.getVowelHyphenCount(Typical, Regressive, KoreanCharacter.Jungsung.ㅐ, KoreanCharacter.Jungsung.ㅜ));
+		assertEquals(0, RuleProfiler.getJunctionCount(KoreanCharacter.Type.NameTypical, Regressive, KoreanCharacter.Jongsung.ㄱ, KoreanCharacter.Chosung.ㅂ));
+
+		KoreanRomanizer.romanize(ByteBuffer.wrap("신라".getBytes(StandardCharsets.UTF_8)), ByteBuffer.allocate(16), null, null);
+		assertEquals(2, RuleProfiler.getJunctionCount(Typical, Regressive, KoreanCharacter.Jongsung.ㄴ, KoreanCharacter.Chosung.ㄹ));
+
+		RuleProfiler.reset();
+		assertEquals(0, RuleProfiler.getJunctionCount(Typical, Regressive, KoreanCharacter.Jongsung.ㄴ, KoreanCharacter.Chosung.ㄹ));
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		assumeTrue(RuleProfiler.isEnabled());
+		RuleProfiler.reset();
+		KoreanRomanizer.romanize("중앙");
+
+		StringBuilder csv = new StringBuilder();
+		RuleProfiler.writeCsv(csv);
+
+		assertEquals("type,consonantAssimilation,rule,left,right,count\n"
+				+ "Typical,Regressive,junction,ㅇ,ㅇ,1\n"
+				+ "Typical,Regressive,changed,ㅇ,ㅇ,1\n"
+				+ "Typical,Regressive,hyphen,ㅇ,ㅇ,1\n", csv.toString());
+
+		StringBuilder json = new StringBuilder();
+		RuleProfiler.writeJson(json);
+
+		assertEquals("[\n"
+				+ "{\"type\":\"Typical\",\"consonantAssimilation\":\"Regressive\",\"rule\":\"junction\",\"left\":\"ㅇ\",\"right\":\"ㅇ\",\"count\":1},\n"
+				+ "{\"type\":\"Typical\",\"consonantAssimilation\":\"Regressive\",\"rule\":\"changed\",\"left\":\"ㅇ\",\"right\":\"ㅇ\",\"count\":1},\n"
+				+ "{\"type\":\"Typical\",\"consonantAssimilation\":\"Regressive\",\"rule\":\"hyphen\",\"left\":\"ㅇ\",\"right\":\"ㅇ\",\"count\":1}\n"
+				+ "]\n", json.toString());
+
+		RuleProfiler.reset();
+		json.setLength(0);
+		RuleProfiler.writeJson(json);
+		assertEquals("[\n]\n", json.toString());
+	}
+}